@@ -0,0 +1,77 @@
+package com.luismunozse.reservalago.benchmark;
+
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.VisitorDTO;
+import com.luismunozse.reservalago.model.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+        // Utility class
+    }
+
+    static CreateReservationRequest request(int visitors) {
+        List<VisitorDTO> list = new ArrayList<>(visitors);
+        for (int i = 0; i < visitors; i++) {
+            list.add(new VisitorDTO("Visitante" + i, "Apellido" + i,
+                    String.format("%08d", 20_000_000 + i), "11556677" + (i % 100)));
+        }
+        return new CreateReservationRequest(
+                LocalDate.now().plusDays(7),
+                "Juan", "Perez", "12.345.678", "1155667788", "juan@test.com", "ab123cd",
+                Circuit.A, visitors > 10 ? VisitorType.EDUCATIONAL_INSTITUTION : VisitorType.INDIVIDUAL,
+                visitors > 10 ? "Escuela N°1" : null, visitors > 10 ? visitors : null,
+                Math.max(1, visitors), 0, 0, 0, "Sin comentarios", "Córdoba", HowHeard.SOCIAL, true, list
+        );
+    }
+
+    static Reservation reservation(int index, int visitors) {
+        Reservation r = new Reservation();
+        r.setId(UUID.randomUUID());
+        r.setVisitDate(LocalDate.of(2025, 1, 1).plusDays(index % 365));
+        r.setFirstName("Nombre" + index);
+        r.setLastName("Apellido" + index);
+        r.setDni(String.format("%08d", 30_000_000 + index));
+        r.setPhone("3517734676");
+        r.setEmail("titular" + index + "@test.com");
+        r.setVehiclePlate("AB123CD");
+        r.setCircuit(Circuit.values()[index % Circuit.values().length]);
+        r.setVisitorType(VisitorType.INDIVIDUAL);
+        r.setAdults18Plus(2);
+        r.setChildren2To17(1);
+        r.setBabiesLessThan2(0);
+        r.setReducedMobility(0);
+        r.setOriginLocation("Córdoba");
+        r.setHowHeard(HowHeard.SOCIAL);
+        r.setAcceptedPolicies(true);
+        r.setStatus(ReservationStatus.values()[index % ReservationStatus.values().length]);
+        r.setCreatedAt(Instant.parse("2025-01-01T12:00:00Z").plusSeconds(index * 60L));
+        for (int i = 0; i < visitors; i++) {
+            ReservationVisitor v = new ReservationVisitor();
+            v.setReservation(r);
+            v.setFirstName("Visitante" + (visitors - i));
+            v.setLastName("Apellido" + i);
+            v.setDni(String.format("%08d", 40_000_000 + i));
+            r.getVisitors().add(v);
+        }
+        return r;
+    }
+
+    static List<Reservation> reservations(int rows) {
+        List<Reservation> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            // Una de cada cuatro reservas tiene acompañantes
+            list.add(reservation(i, i % 4 == 0 ? 2 : 0));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,53 @@
+package com.luismunozse.reservalago.benchmark;
+
+import com.luismunozse.reservalago.model.User;
+import com.luismunozse.reservalago.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y validación de tokens, ejecutada en cada request autenticado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret",
+                "benchmarkSecretKeyForJWTMustBeAtLeast32CharactersLong");
+        ReflectionTestUtils.setField(jwtService, "expiration", 86400000L);
+
+        user = new User();
+        user.setEmail("admin@reservalago.com");
+        user.setRole("ADMIN");
+        user.setEnabled(true);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, user);
+    }
+}
@@ -0,0 +1,65 @@
+package com.luismunozse.reservalago.benchmark;
+
+import com.luismunozse.reservalago.config.RateLimitFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de la decisión de rate limiting por request: rutas sin límite,
+ * rutas limitadas con muchos clientes distintos y un cliente ya bloqueado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (req, res) -> { };
+
+    private RateLimitFilter filter;
+    private MockHttpServletRequest unlimited;
+    private MockHttpServletRequest blocked;
+    private int clientCounter;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        filter = new RateLimitFilter();
+        unlimited = new MockHttpServletRequest("GET", "/api/reservations/123");
+        unlimited.setRemoteAddr("10.0.0.1");
+        blocked = new MockHttpServletRequest("POST", "/api/reservations");
+        blocked.setRemoteAddr("10.0.0.2");
+        // Agotar el bucket del cliente bloqueado
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(blocked, new MockHttpServletResponse(), NO_OP_CHAIN);
+        }
+    }
+
+    @Benchmark
+    public int unlimitedPath() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(unlimited, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int limitedPathNewClient() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/availability");
+        request.addHeader("X-Forwarded-For", "192.168." + ((clientCounter >> 8) & 0xff) + "." + (clientCounter++ & 0xff));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int limitedPathBlockedClient() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(blocked, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,42 @@
+package com.luismunozse.reservalago.benchmark;
+
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.service.ReservationExcelExporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación del XLSX de exportación según la cantidad de reservas.
+ * Cada invocación es pesada, por eso se mide en modo SingleShotTime.
+ * El tope es 10.000 filas, el mismo límite que aplica ReservationService.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ReservationExcelExporterBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean maskContacts;
+
+    private ReservationExcelExporter exporter;
+    private List<Reservation> reservations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        exporter = new ReservationExcelExporter();
+        reservations = BenchmarkFixtures.reservations(rows);
+    }
+
+    @Benchmark
+    public byte[] exportExcel() {
+        return exporter.exportExcel(reservations, maskContacts);
+    }
+}
@@ -0,0 +1,50 @@
+package com.luismunozse.reservalago.benchmark;
+
+import com.luismunozse.reservalago.dto.AdminReservationDTO;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.service.ReservationMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de mapeo en la creación de reservas y en la grilla de administración.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationMapperBenchmark {
+
+    @Param({"0", "40"})
+    public int visitors;
+
+    private ReservationMapper mapper;
+    private CreateReservationRequest request;
+    private Reservation reservation;
+
+    @Setup
+    public void setUp() {
+        mapper = new ReservationMapper();
+        request = BenchmarkFixtures.request(visitors);
+        reservation = BenchmarkFixtures.reservation(1, visitors);
+    }
+
+    @Benchmark
+    public Reservation fromCreateRequest() {
+        return mapper.fromCreateRequest(request, "12345678");
+    }
+
+    @Benchmark
+    public AdminReservationDTO toAdminDTO() {
+        return mapper.toAdminDTO(reservation);
+    }
+
+    @Benchmark
+    public String normalizeDni() {
+        return mapper.normalizeDni(request.dni());
+    }
+}
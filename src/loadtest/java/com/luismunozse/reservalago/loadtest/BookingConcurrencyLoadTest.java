@@ -0,0 +1,231 @@
+package com.luismunozse.reservalago.loadtest;
+
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.model.AvailabilityRule;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
+import com.luismunozse.reservalago.repo.ReservationRepository;
+import com.luismunozse.reservalago.service.BookingConcurrency;
+import com.luismunozse.reservalago.service.BookingTransactions;
+import com.luismunozse.reservalago.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara los modos de {@link BookingConcurrency} llamando directamente a
+ * {@link ReservationService#create} desde hilos virtuales (sin HTTP ni rate limit
+ * en el medio), con todas las reservas para una misma fecha y repartidas entre
+ * varias. El cupo alcanza para todas: lo que se mide es el costo de la
+ * concurrencia, no los rechazos por cupo. Un 409 por falla de serialización se
+ * reintenta como lo haría el cliente, hasta {@link #MAX_ATTEMPTS} veces.
+ *
+ * <p>{@code mvn -Pload-test test -Dtest=BookingConcurrencyLoadTest}
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyLoadTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String BOOK = "create";
+
+    private final int bookings = Integer.getInteger("loadtest.bookings", 300);
+    private final int capacity = Integer.getInteger("loadtest.capacity", 60);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+    private final int spreadDates = Integer.getInteger("loadtest.spread-dates", 30);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BookingTransactions bookingTransactions;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<LocalDate> usedDates = new ArrayList<>();
+    private LocalDate nextDate = LocalDate.now().plusDays(30);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        BookingLoadTest.configureProperties(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(bookingTransactions, "concurrency", BookingConcurrency.SERIALIZABLE);
+        for (LocalDate date : usedDates) {
+            jdbcTemplate.update("DELETE FROM reservations WHERE visit_date = ?", date);
+        }
+    }
+
+    @Test
+    @DisplayName("SERIALIZABLE vs. lock por fecha vs. secuenciador, con reservas para una fecha y repartidas")
+    void compareModes() throws Exception {
+        StringBuilder summary = new StringBuilder(String.format(
+                "%n===== Concurrencia de reservas (%d reservas, %d en vuelo) =====%n"
+                        + "%-15s %-8s %12s %10s %10s %10s %10s %12s%n",
+                bookings, concurrency, "modo", "fechas", "reservas/s", "p50 ms", "p99 ms", "creadas", "fallidas",
+                "reintentos"));
+
+        // Calentamiento (JIT, pool de conexiones) para que el primer modo medido no salga perjudicado
+        for (BookingConcurrency mode : BookingConcurrency.values()) {
+            runWorkload(mode, freshDates(spreadDates, bookings), bookings / 4);
+        }
+
+        List<Result> perDate = new ArrayList<>();
+        for (int dates : new int[]{1, spreadDates}) {
+            for (BookingConcurrency mode : BookingConcurrency.values()) {
+                Result result = runWorkload(mode, freshDates(dates, bookings * 4), bookings);
+                summary.append(String.format("%-15s %-8d %12.1f %10.2f %10.2f %10d %10d %12d%n",
+                        mode, dates, result.created() / seconds(result.elapsed()),
+                        millis(result.p50()), millis(result.p99()), result.created(),
+                        bookings - result.created(), result.retries()));
+                if (mode != BookingConcurrency.SERIALIZABLE) {
+                    perDate.add(result);
+                }
+            }
+        }
+        System.out.println(summary);
+
+        // SERIALIZABLE puede agotar los reintentos; con un escritor por fecha no debe fallar nunca
+        assertThat(perDate).allSatisfy(result -> {
+            assertThat(result.created()).as("por fecha: todas se crean").isEqualTo(bookings);
+            assertThat(result.retries()).as("por fecha: sin reintentos").isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("Con el lock por fecha nunca se vende más que el cupo")
+    void advisoryLockNeverOversells() throws Exception {
+        neverOversells(BookingConcurrency.ADVISORY_LOCK);
+    }
+
+    @Test
+    @DisplayName("Con el secuenciador nunca se vende más que el cupo")
+    void sequencerNeverOversells() throws Exception {
+        neverOversells(BookingConcurrency.SEQUENCER);
+    }
+
+    private void neverOversells(BookingConcurrency mode) throws Exception {
+        LocalDate date = freshDates(1, capacity).get(0);
+
+        Result result = runWorkload(mode, List.of(date), bookings);
+
+        int sold = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(adults_18_plus + children_2_to_17 + babies_less_than_2), 0)
+                FROM reservations WHERE visit_date = ? AND status <> 'CANCELLED'
+                """, Integer.class, date);
+        System.out.printf("%s %s: cupo=%d, vendidos=%d, reservas creadas=%d, reintentos=%d%n",
+                mode, date, capacity, sold, result.created(), result.retries());
+        assertThat(sold).isEqualTo(capacity);
+        assertThat(result.retries()).as("sin fallas de serialización").isZero();
+    }
+
+    private Result runWorkload(BookingConcurrency mode, List<LocalDate> dates, int count) throws Exception {
+        ReflectionTestUtils.setField(bookingTransactions, "concurrency", mode);
+        LoadReport report = new LoadReport();
+        AtomicLong retries = new AtomicLong();
+
+        List<Runnable> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = dates.get(i % dates.size());
+            String dni = String.format("%08d", 30_000_000 + i);
+            tasks.add(() -> book(report, retries, date, dni));
+        }
+        Duration elapsed = BookingLoadTest.run(tasks, concurrency);
+
+        List<Long> latencies = report.latencies(BOOK);
+        return new Result(report.count(BOOK, "created"), retries.get(), elapsed,
+                LoadReport.percentile(latencies, 50), LoadReport.percentile(latencies, 99));
+    }
+
+    private void book(LoadReport report, AtomicLong retries, LocalDate date, String dni) {
+        // Una persona por reserva: el cupo se agota exactamente en capacity reservas
+        CreateReservationRequest req = new CreateReservationRequest(
+                date, "Carga", "Concurrencia", dni, "1100000000", "concurrencia@test.com", null,
+                Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                1, 0, 0, 0, null, "Buenos Aires", HowHeard.OTHER, true, List.of());
+        long t0 = System.nanoTime();
+        String outcome;
+        int attempt = 1;
+        while (true) {
+            try {
+                reservationService.create(req);
+                outcome = "created";
+                break;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt++ == MAX_ATTEMPTS) {
+                    outcome = "serialization";
+                    break;
+                }
+                retries.incrementAndGet();
+            } catch (ResponseStatusException e) {
+                outcome = String.valueOf(e.getStatusCode().value());
+                break;
+            } catch (RuntimeException e) {
+                outcome = e.getClass().getSimpleName();
+                break;
+            }
+        }
+        report.record(BOOK, outcome, System.nanoTime() - t0);
+    }
+
+    /**
+     * Fechas sin reservas previas (por si se reutiliza una base local), con el cupo indicado.
+     */
+    private List<LocalDate> freshDates(int count, int dayCapacity) {
+        List<LocalDate> dates = new ArrayList<>(count);
+        while (dates.size() < count) {
+            LocalDate date = nextDate;
+            nextDate = nextDate.plusDays(1);
+            if (reservationRepository.totalPeopleForDate(date) > 0) {
+                continue;
+            }
+            AvailabilityRule rule = availabilityRuleRepository.findByDay(date).orElseGet(AvailabilityRule::new);
+            rule.setDay(date);
+            rule.setCapacity(dayCapacity);
+            availabilityRuleRepository.save(rule);
+            dates.add(date);
+        }
+        usedDates.addAll(dates);
+        return Collections.unmodifiableList(dates);
+    }
+
+    private static double seconds(Duration elapsed) {
+        return Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Result(long created, long retries, Duration elapsed, long p50, long p99) {
+    }
+}
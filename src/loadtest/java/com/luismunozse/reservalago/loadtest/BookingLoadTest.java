@@ -0,0 +1,273 @@
+package com.luismunozse.reservalago.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luismunozse.reservalago.config.TestcontainersConfig;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.model.AvailabilityRule;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
+import com.luismunozse.reservalago.repo.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de punta a punta: levanta la aplicación contra PostgreSQL
+ * (Testcontainers, o una base local con -Dloadtest.jdbc-url) y dispara desde
+ * hilos virtuales reservas concurrentes para una misma fecha, mezcladas con
+ * consultas de disponibilidad y del panel de administración.
+ *
+ * <p>Solo corre con el perfil {@code load-test}: {@code mvn -Pload-test test}.
+ * Informa throughput, latencias p50/p99 y fallas de serialización, y verifica
+ * que nunca se haya vendido más cupo del configurado.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BookingLoadTest {
+
+    private static final String BOOK = "POST /reservations";
+    private static final String AVAILABILITY_DAY = "GET /availability?date";
+    private static final String AVAILABILITY_MONTH = "GET /availability?month";
+    private static final String ADMIN_LIST = "GET /admin/reservations";
+    private static final String ADMIN_STATS = "GET /admin/stats";
+
+    // Mensaje de ApiExceptionHandler para ConcurrencyFailureException
+    private static final String SERIALIZATION_MESSAGE = "recibiendo otras reservas";
+    // Mensaje del 503 de ConcurrencyLimitFilter
+    private static final String SHED_MESSAGE = "recibiendo muchas reservas";
+
+    private final int bookings = Integer.getInteger("loadtest.bookings", 300);
+    private final int capacity = Integer.getInteger("loadtest.capacity", 60);
+    private final int mixedRequests = Integer.getInteger("loadtest.mixed-requests", 600);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    private HttpClient http;
+    private LocalDate visitDate;
+    private String adminToken;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        String localUrl = System.getProperty("loadtest.jdbc-url", "");
+        if (!localUrl.isBlank()) {
+            registry.add("spring.datasource.url", () -> localUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.jdbc-username"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.jdbc-password"));
+            return;
+        }
+        // Igual que IntegrationTest; el contenedor solo arranca si no hay base local
+        String jdbcUrl = TestcontainersConfig.postgres.getJdbcUrl() + "&options=-c%20timezone=UTC";
+        registry.add("spring.datasource.url", () -> jdbcUrl);
+        registry.add("spring.datasource.username", TestcontainersConfig.postgres::getUsername);
+        registry.add("spring.datasource.password", TestcontainersConfig.postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // Fecha sin reservas previas, por si se reutiliza una base local
+        visitDate = LocalDate.now().plusDays(30);
+        while (reservationRepository.totalPeopleForDate(visitDate) > 0) {
+            visitDate = visitDate.plusDays(1);
+        }
+        AvailabilityRule rule = availabilityRuleRepository.findByDay(visitDate).orElseGet(AvailabilityRule::new);
+        rule.setDay(visitDate);
+        rule.setCapacity(capacity);
+        availabilityRuleRepository.save(rule);
+
+        adminToken = login();
+    }
+
+    @Test
+    @DisplayName("Reservas concurrentes para la misma fecha no deben superar el cupo")
+    void concurrentBookingsNeverOversell() throws Exception {
+        LoadReport report = new LoadReport();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            int client = i;
+            tasks.add(() -> book(report, client));
+        }
+        for (int i = 0; i < mixedRequests; i++) {
+            int client = bookings + i;
+            tasks.add(() -> mixedTraffic(report, client));
+        }
+        Collections.shuffle(tasks);
+
+        Duration elapsed = run(tasks, concurrency);
+        System.out.println(report.format(elapsed));
+
+        int sold = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(adults_18_plus + children_2_to_17 + babies_less_than_2), 0)
+                FROM reservations WHERE visit_date = ? AND status <> 'CANCELLED'
+                """, Integer.class, visitDate);
+        long created = report.count(BOOK, "201");
+        System.out.printf("Fecha %s: cupo=%d, vendidos=%d, reservas creadas=%d, fallas de serialización=%d%n",
+                visitDate, capacity, sold, created, report.count(BOOK, "409-serialization"));
+
+        assertThat(sold).as("personas reservadas vs. cupo").isLessThanOrEqualTo(capacity);
+        assertThat(created).as("al menos una reserva debe confirmarse").isPositive();
+        assertThat(report.count(BOOK, "5xx")).as("errores 5xx en reservas").isZero();
+    }
+
+    /**
+     * Lanza todas las tareas a la vez desde hilos virtuales, con un máximo de
+     * {@code concurrency} solicitudes en vuelo.
+     */
+    static Duration run(List<Runnable> tasks, int concurrency) throws Exception {
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        long begin;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    inFlight.acquire();
+                    try {
+                        task.run();
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                }));
+            }
+            begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - begin);
+    }
+
+    private void book(LoadReport report, int client) {
+        int adults = 1 + ThreadLocalRandom.current().nextInt(3);
+        CreateReservationRequest req = new CreateReservationRequest(
+                visitDate, "Carga", "Cliente" + client, String.format("%08d", 10_000_000 + client),
+                "11" + String.format("%08d", client), "carga" + client + "@test.com", null,
+                Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                adults, 0, 0, 0, null, "Buenos Aires", HowHeard.OTHER, true, List.of());
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/reservations"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Forwarded-For", clientIp(client))
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(req)))
+                    .build();
+            long t0 = System.nanoTime();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            report.record(BOOK, outcome(response), System.nanoTime() - t0);
+        } catch (Exception e) {
+            report.record(BOOK, "io-error", 0);
+        }
+    }
+
+    private void mixedTraffic(LoadReport report, int client) {
+        int pick = client % 4;
+        switch (pick) {
+            case 0 -> get(report, AVAILABILITY_DAY, "/api/availability?date=" + visitDate, client, false);
+            case 1 -> get(report, AVAILABILITY_MONTH, "/api/availability?month=" + visitDate.toString().substring(0, 7),
+                    client, false);
+            case 2 -> get(report, ADMIN_LIST, "/api/admin/reservations?date=" + visitDate + "&size=20", client, true);
+            default -> get(report, ADMIN_STATS, "/api/admin/stats", client, true);
+        }
+    }
+
+    private void get(LoadReport report, String operation, String path, int client, boolean admin) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("X-Forwarded-For", clientIp(client))
+                .GET();
+        if (admin) {
+            builder.header("Authorization", "Bearer " + adminToken);
+        }
+        try {
+            long t0 = System.nanoTime();
+            HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            report.record(operation, outcome(response), System.nanoTime() - t0);
+        } catch (Exception e) {
+            report.record(operation, "io-error", 0);
+        }
+    }
+
+    private static String outcome(HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == 409 && response.body().contains(SERIALIZATION_MESSAGE)) {
+            return "409-serialization";
+        }
+        // Rechazo deliberado del límite de concurrencia: el cliente reintenta según Retry-After
+        if (status == 503 && response.body().contains(SHED_MESSAGE)) {
+            return "503-shed";
+        }
+        if (status >= 500) {
+            return "5xx";
+        }
+        return String.valueOf(status);
+    }
+
+    private String login() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "email", "admin@lago-escondido.com", "password", "admin123"));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("login admin").isEqualTo(200);
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.get("token").asText();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // Cada cliente simulado usa su propia IP para no agotar los buckets del RateLimitFilter
+    private static String clientIp(int client) {
+        return "10." + ((client >> 16) & 0xFF) + "." + ((client >> 8) & 0xFF) + "." + (client & 0xFF);
+    }
+}
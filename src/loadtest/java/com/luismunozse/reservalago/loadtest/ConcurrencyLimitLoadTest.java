@@ -0,0 +1,216 @@
+package com.luismunozse.reservalago.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luismunozse.reservalago.config.ConcurrencyLimitFilter;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.model.AvailabilityRule;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
+import com.luismunozse.reservalago.repo.ReservationRepository;
+import com.luismunozse.reservalago.service.BookingConcurrency;
+import com.luismunozse.reservalago.service.BookingTransactions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Altas de reserva por HTTP con más solicitudes en vuelo que conexiones en el
+ * pool, con y sin {@link ConcurrencyLimitFilter}. Sin el límite todas esperan
+ * una conexión y la latencia crece para todas; con el límite las que sobran
+ * reciben 503 enseguida y las admitidas mantienen su latencia. Las reservas se
+ * reparten entre varias fechas con cupo de sobra (modo ADVISORY_LOCK) para que
+ * lo medido sea la espera por recursos y no los rechazos por cupo. Un 503 del
+ * límite se reintenta como lo haría el cliente, tras una pausa corta (el cliente
+ * real espera lo que indica Retry-After) hasta {@link #MAX_ATTEMPTS} veces.
+ *
+ * <p>{@code mvn -Pload-test test -Dtest=ConcurrencyLimitLoadTest}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ConcurrencyLimitLoadTest {
+
+    private static final String ADMITTED = "admitted";
+    private static final String SHED = "shed";
+    private static final int MAX_ATTEMPTS = 50;
+    private static final long RETRY_PAUSE_MS = 50;
+    // Mensaje del 503 de ConcurrencyLimitFilter
+    private static final String SHED_MESSAGE = "recibiendo muchas reservas";
+
+    private final int bookings = Integer.getInteger("loadtest.bookings", 300);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+    private final int spreadDates = Integer.getInteger("loadtest.spread-dates", 30);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @Autowired
+    private BookingTransactions bookingTransactions;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final List<LocalDate> usedDates = new ArrayList<>();
+    private LocalDate nextDate = LocalDate.now().plusDays(30);
+    private int nextClient;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        BookingLoadTest.configureProperties(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "enabled", true);
+        ReflectionTestUtils.setField(bookingTransactions, "concurrency", BookingConcurrency.SERIALIZABLE);
+        for (LocalDate date : usedDates) {
+            jdbcTemplate.update("DELETE FROM reservations WHERE visit_date = ?", date);
+        }
+    }
+
+    @Test
+    @DisplayName("Con el límite adaptativo las altas admitidas no pagan la cola de las que sobran")
+    void shedsExcessAndKeepsLatency() throws Exception {
+        ReflectionTestUtils.setField(bookingTransactions, "concurrency", BookingConcurrency.ADVISORY_LOCK);
+
+        // Calentamiento (JIT, pool de conexiones y el límite adaptativo)
+        runWorkload(true, bookings / 2);
+
+        StringBuilder summary = new StringBuilder(String.format(
+                "%n===== Límite de concurrencia (%d altas, %d en vuelo) =====%n%-10s %12s %14s %14s %10s %10s %8s%n",
+                bookings, concurrency, "límite", "creadas/s", "p50 admit ms", "p99 admit ms", "creadas", "503",
+                "límite"));
+        List<LoadReport> withLimit = new ArrayList<>();
+        for (boolean enabled : new boolean[]{false, true}) {
+            long t0 = System.nanoTime();
+            LoadReport report = runWorkload(enabled, bookings);
+            double seconds = (System.nanoTime() - t0) / 1_000_000_000.0;
+            List<Long> admitted = report.latencies(ADMITTED);
+            long created = report.count(ADMITTED, "201");
+            summary.append(String.format("%-10s %12.1f %14.2f %14.2f %10d %10d %8s%n",
+                    enabled ? "sí" : "no", created / seconds,
+                    LoadReport.percentile(admitted, 50) / 1_000_000.0,
+                    LoadReport.percentile(admitted, 99) / 1_000_000.0,
+                    created, report.latencies(SHED).size(),
+                    enabled ? String.valueOf((int) meterRegistry.get("reservalago.booking.limiter.limit").gauge().value())
+                            : "-"));
+            if (enabled) {
+                withLimit.add(report);
+            }
+        }
+        System.out.println(summary);
+
+        assertThat(withLimit).allSatisfy(report -> {
+            assertThat(report.count(ADMITTED, "201")).as("todas se crean reintentando").isEqualTo(bookings);
+            assertThat(report.count(ADMITTED, "5xx")).as("5xx fuera del límite").isZero();
+        });
+    }
+
+    private LoadReport runWorkload(boolean limiterEnabled, int count) throws Exception {
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "enabled", limiterEnabled);
+        List<LocalDate> dates = freshDates(spreadDates, count);
+        LoadReport report = new LoadReport();
+        List<Runnable> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = dates.get(i % dates.size());
+            int client = nextClient++;
+            tasks.add(() -> book(report, date, client));
+        }
+        BookingLoadTest.run(tasks, concurrency);
+        return report;
+    }
+
+    private void book(LoadReport report, LocalDate date, int client) {
+        CreateReservationRequest req = new CreateReservationRequest(
+                date, "Carga", "Limite", String.format("%08d", 40_000_000 + client), "1100000000",
+                "limite@test.com", null, Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                1, 0, 0, 0, null, "Buenos Aires", HowHeard.OTHER, true, List.of());
+        try {
+            String body = objectMapper.writeValueAsString(req);
+            for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                // Una IP por intento para no agotar el bucket por IP del RateLimitFilter
+                int ip = client * MAX_ATTEMPTS + attempt;
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/reservations"))
+                        .header("Content-Type", "application/json")
+                        .header("X-Forwarded-For", "10." + ((ip >> 16) & 0xFF) + "." + ((ip >> 8) & 0xFF) + "." + (ip & 0xFF))
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                long t0 = System.nanoTime();
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                long elapsed = System.nanoTime() - t0;
+                int status = response.statusCode();
+                if (status == 503 && response.body().contains(SHED_MESSAGE)) {
+                    report.record(SHED, "503", elapsed);
+                    Thread.sleep(RETRY_PAUSE_MS);
+                    continue;
+                }
+                report.record(ADMITTED, status >= 500 ? "5xx" : String.valueOf(status), elapsed);
+                return;
+            }
+        } catch (Exception e) {
+            report.record(ADMITTED, "io-error", 0);
+        }
+    }
+
+    /**
+     * Fechas sin reservas previas (por si se reutiliza una base local), con cupo para todas.
+     */
+    private List<LocalDate> freshDates(int count, int dayCapacity) {
+        List<LocalDate> dates = new ArrayList<>(count);
+        while (dates.size() < count) {
+            LocalDate date = nextDate;
+            nextDate = nextDate.plusDays(1);
+            if (reservationRepository.totalPeopleForDate(date) > 0) {
+                continue;
+            }
+            AvailabilityRule rule = availabilityRuleRepository.findByDay(date).orElseGet(AvailabilityRule::new);
+            rule.setDay(date);
+            rule.setCapacity(dayCapacity);
+            availabilityRuleRepository.save(rule);
+            dates.add(date);
+        }
+        usedDates.addAll(dates);
+        return dates;
+    }
+}
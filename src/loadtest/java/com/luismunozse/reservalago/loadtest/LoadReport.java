@@ -0,0 +1,79 @@
+package com.luismunozse.reservalago.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Acumula latencias y resultados por operación durante la prueba de carga.
+ * Seguro para usar desde muchos hilos virtuales a la vez.
+ */
+class LoadReport {
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    void record(String operation, String outcome, long nanos) {
+        operations.computeIfAbsent(operation, k -> new Operation()).record(outcome, nanos);
+    }
+
+    long count(String operation, String outcome) {
+        Operation op = operations.get(operation);
+        return op == null ? 0 : op.outcomes.getOrDefault(outcome, new AtomicLong()).get();
+    }
+
+    List<Long> latencies(String operation) {
+        Operation op = operations.get(operation);
+        return op == null ? List.of() : op.sortedLatencies();
+    }
+
+    String format(Duration elapsed) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n===== Prueba de carga (%d ms) =====%n", elapsed.toMillis()));
+        sb.append(String.format("%-22s %8s %10s %10s %10s %10s  %s%n",
+                "operación", "total", "req/s", "p50 ms", "p99 ms", "máx ms", "resultados"));
+        new TreeMap<>(operations).forEach((name, op) -> {
+            List<Long> sorted = op.sortedLatencies();
+            double seconds = Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+            sb.append(String.format("%-22s %8d %10.1f %10.2f %10.2f %10.2f  %s%n",
+                    name, sorted.size(), sorted.size() / seconds,
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 99)),
+                    millis(sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1)),
+                    new TreeMap<>(op.outcomes)));
+        });
+        return sb.toString();
+    }
+
+    static long percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Operation {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+
+        void record(String outcome, long nanos) {
+            latencies.add(nanos);
+            outcomes.computeIfAbsent(outcome, k -> new AtomicLong()).incrementAndGet();
+        }
+
+        List<Long> sortedLatencies() {
+            List<Long> list = new ArrayList<>(latencies);
+            Collections.sort(list);
+            return list;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.luismunozse.reservalago.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.repo.ReservationFilterSql;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara, sobre datos sembrados en PostgreSQL, la búsqueda por filtros anterior
+ * (un único SQL con {@code (CAST(:x AS ...) IS NULL OR ...)}, LEFT JOIN a visitantes
+ * y DISTINCT) con la que arma {@link ReservationFilterSql}.
+ *
+ * <p>Cada combinación de filtros se ejecuta como sentencia preparada con el plan
+ * genérico (el que PostgreSQL cachea después de la quinta ejecución) y con plan
+ * a medida, y se informa el tiempo de ejecución (mediana de EXPLAIN ANALYZE) y los
+ * nodos de acceso de cada plan. Verifica además que ambas devuelvan las mismas reservas.
+ *
+ * <p>Solo corre con el perfil {@code load-test}:
+ * {@code mvn -Pload-test test -Dtest=ReservationFilterLoadTest}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationFilterLoadTest {
+
+    // Marca de las filas sembradas, para borrarlas al terminar
+    private static final String SEED_ORIGIN = "filter-benchmark";
+    private static final LocalDate SEED_START = LocalDate.of(2031, 1, 1);
+    private static final int SEED_DAYS = 730;
+
+    /** Consulta anterior a la reescritura, con parámetros numerados para PREPARE. */
+    private static final String LEGACY_SQL = """
+        SELECT DISTINCT r.* FROM reservations r
+        LEFT JOIN reservation_visitors v ON r.id = v.reservation_id
+        WHERE (CAST($1 AS DATE) IS NULL OR r.visit_date = CAST($1 AS DATE))
+          AND (CAST($2 AS DATE) IS NULL OR r.visit_date >= CAST($2 AS DATE))
+          AND (CAST($3 AS DATE) IS NULL OR r.visit_date <= CAST($3 AS DATE))
+          AND (CAST($4 AS DATE) IS NULL OR r.visit_date >= CAST($4 AS DATE))
+          AND (CAST($5 AS DATE) IS NULL OR r.visit_date <= CAST($5 AS DATE))
+          AND (CAST($6 AS VARCHAR) IS NULL OR r.status = CAST($6 AS VARCHAR))
+          AND (CAST($7 AS VARCHAR) IS NULL OR r.visitor_type = CAST($7 AS VARCHAR))
+          AND (CAST($8 AS VARCHAR) IS NULL OR r.dni = CAST($8 AS VARCHAR) OR v.dni = CAST($8 AS VARCHAR))
+          AND (CAST($9 AS VARCHAR) IS NULL OR
+               LOWER(r.first_name) LIKE LOWER('%' || CAST($9 AS VARCHAR) || '%') OR
+               LOWER(r.last_name) LIKE LOWER('%' || CAST($9 AS VARCHAR) || '%') OR
+               LOWER(v.first_name) LIKE LOWER('%' || CAST($9 AS VARCHAR) || '%') OR
+               LOWER(v.last_name) LIKE LOWER('%' || CAST($9 AS VARCHAR) || '%'))
+        ORDER BY r.visit_date ASC, r.created_at DESC
+        """;
+
+    private final int rows = Integer.getInteger("loadtest.filter-rows", 50_000);
+    private final int iterations = Integer.getInteger("loadtest.filter-iterations", 10);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        BookingLoadTest.configureProperties(registry);
+    }
+
+    /**
+     * Filtros de una combinación, con los mismos valores que recibiría
+     * ReservationService (fecha, mes y año ya convertidos a rangos).
+     */
+    private record Filter(String label, LocalDate date, YearMonth month, Integer year,
+                          ReservationStatus status, VisitorType visitorType, String dni, String name) {
+
+        Object[] legacyArgs() {
+            return new Object[]{
+                    date,
+                    month != null ? month.atDay(1) : null, month != null ? month.atEndOfMonth() : null,
+                    year != null ? LocalDate.of(year, 1, 1) : null, year != null ? LocalDate.of(year, 12, 31) : null,
+                    status != null ? status.name() : null, visitorType != null ? visitorType.name() : null,
+                    dni, name
+            };
+        }
+
+        ReservationFilterSql current() {
+            LocalDate from = date;
+            LocalDate to = date;
+            if (month != null) {
+                from = month.atDay(1);
+                to = month.atEndOfMonth();
+            }
+            if (year != null) {
+                from = LocalDate.of(year, 1, 1);
+                to = LocalDate.of(year, 12, 31);
+            }
+            return ReservationFilterSql.of(from, to, status, visitorType, dni, name);
+        }
+    }
+
+    private record Measure(double genericMs, double customMs, String plan, Set<UUID> ids) {}
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        jdbcTemplate.update("""
+                INSERT INTO reservations (id, visit_date, first_name, last_name, dni, phone, email, circuit,
+                    visitor_type, adults_18_plus, children_2_to_17, babies_less_than_2, reduced_mobility,
+                    origin_location, how_heard, accepted_policies, status, created_at, updated_at)
+                SELECT gen_random_uuid(), CAST(? AS DATE) + (g % ?), 'Nombre' || g, 'Apellido' || (g % 5000),
+                       CAST(70000000 + g AS VARCHAR), '3510000000', 'bench' || g || '@test.com',
+                       (ARRAY['A','B','C','D'])[1 + g % 4],
+                       CASE WHEN g % 10 = 0 THEN 'EDUCATIONAL_INSTITUTION' ELSE 'INDIVIDUAL' END,
+                       2, 1, 0, 0, ?, 'SOCIAL', true,
+                       (ARRAY['PENDING','CONFIRMED','CANCELLED'])[1 + g % 3],
+                       timezone('UTC', now()) - g * INTERVAL '1 second', timezone('UTC', now())
+                FROM generate_series(1, ?) g
+                """, SEED_START, SEED_DAYS, SEED_ORIGIN, rows);
+        // Una de cada cuatro reservas tiene dos acompañantes
+        jdbcTemplate.update("""
+                INSERT INTO reservation_visitors (reservation_id, first_name, last_name, dni)
+                SELECT r.id, 'Acompañante' || n, r.last_name, '9' || SUBSTRING(r.dni FROM 2) || n
+                FROM generate_series(1, ?) g
+                JOIN reservations r ON r.dni = CAST(70000000 + g AS VARCHAR) AND r.origin_location = ?
+                CROSS JOIN generate_series(1, 2) n
+                WHERE g % 4 = 0
+                """, rows, SEED_ORIGIN);
+        jdbcTemplate.execute("ANALYZE reservations");
+        jdbcTemplate.execute("ANALYZE reservation_visitors");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // Los visitantes se borran por ON DELETE CASCADE
+        jdbcTemplate.update("DELETE FROM reservations WHERE origin_location = ?", SEED_ORIGIN);
+    }
+
+    @Test
+    @DisplayName("La búsqueda dinámica devuelve lo mismo que la anterior y usa los índices de fecha y DNI")
+    void compareFilterQueries() {
+        LocalDate day = SEED_START.plusDays(45);
+        YearMonth month = YearMonth.from(day);
+        String holderDni = String.valueOf(70_000_000 + rows / 2);
+        String visitorDni = jdbcTemplate.queryForObject("""
+                SELECT v.dni FROM reservation_visitors v JOIN reservations r ON r.id = v.reservation_id
+                WHERE r.origin_location = ? ORDER BY v.dni LIMIT 1
+                """, String.class, SEED_ORIGIN);
+
+        List<Filter> filters = List.of(
+                new Filter("sin filtros", null, null, null, null, null, null, null),
+                new Filter("fecha", day, null, null, null, null, null, null),
+                new Filter("mes", null, month, null, null, null, null, null),
+                new Filter("año", null, null, SEED_START.getYear(), null, null, null, null),
+                new Filter("mes + estado", null, month, null, ReservationStatus.CONFIRMED, null, null, null),
+                new Filter("año + tipo", null, null, SEED_START.getYear(), null,
+                        VisitorType.EDUCATIONAL_INSTITUTION, null, null),
+                new Filter("DNI titular", null, null, null, null, null, holderDni, null),
+                new Filter("DNI visitante", null, null, null, null, null, visitorDni, null),
+                new Filter("nombre", null, null, null, null, null, null, "apellido4321"),
+                new Filter("mes + nombre", null, month, null, null, null, null, "apellido12"));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n===== Búsqueda por filtros (%d reservas sembradas, mediana de %d) =====%n",
+                rows, iterations));
+        report.append(String.format("%-14s %7s %14s %14s %14s %14s%n", "filtros", "filas",
+                "anterior gen.", "nueva gen.", "anterior a/m", "nueva a/m"));
+        List<String> plans = new ArrayList<>();
+        for (Filter filter : filters) {
+            Measure legacy = measure(LEGACY_SQL, filter.legacyArgs());
+            ReservationFilterSql current = filter.current();
+            Measure dynamic = measure(numbered("SELECT r.* FROM reservations r" + current.where()
+                    + " ORDER BY r.visit_date ASC, r.created_at DESC"), current.args().toArray());
+
+            assertThat(dynamic.ids()).as("reservas con filtro '%s'", filter.label()).isEqualTo(legacy.ids());
+            if (filter.date() != null) {
+                assertThat(dynamic.plan()).as("plan con filtro '%s'", filter.label())
+                        .contains("ix_reservations_visit_date_created_at");
+            }
+            if (filter.dni() != null) {
+                assertThat(dynamic.plan()).as("plan con filtro '%s'", filter.label())
+                        .contains("ix_reservations_dni", "ix_reservation_visitors_dni");
+            }
+
+            report.append(String.format("%-14s %7d %11.2f ms %11.2f ms %11.2f ms %11.2f ms%n", filter.label(),
+                    dynamic.ids().size(), legacy.genericMs(), dynamic.genericMs(), legacy.customMs(),
+                    dynamic.customMs()));
+            plans.add(String.format("  %-14s anterior: %s%n  %-14s nueva:    %s%n",
+                    filter.label(), legacy.plan(), "", dynamic.plan()));
+        }
+        report.append("Planes genéricos (nodos de acceso):\n");
+        plans.forEach(report::append);
+        System.out.println(report);
+    }
+
+    /**
+     * Prepara la sentencia y la ejecuta con EXPLAIN ANALYZE forzando primero el
+     * plan genérico y después el plan a medida. Todo en una misma conexión.
+     */
+    private Measure measure(String sql, Object[] args) {
+        String literals = Arrays.stream(args).map(ReservationFilterLoadTest::literal)
+                .collect(Collectors.joining(", "));
+        String execute = args.length == 0 ? "EXECUTE filter_query" : "EXECUTE filter_query(" + literals + ")";
+        return jdbcTemplate.execute((ConnectionCallback<Measure>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("PREPARE filter_query AS " + sql);
+                try {
+                    st.execute("SET plan_cache_mode = force_generic_plan");
+                    double generic = medianExecutionMs(st, execute);
+                    String plan = scans(explain(st, execute).get("Plan"));
+                    st.execute("SET plan_cache_mode = force_custom_plan");
+                    double custom = medianExecutionMs(st, execute);
+                    return new Measure(generic, custom, plan, ids(con, sql, literals, args.length));
+                } finally {
+                    st.execute("RESET plan_cache_mode");
+                    st.execute("DEALLOCATE filter_query");
+                }
+            }
+        });
+    }
+
+    private double medianExecutionMs(Statement st, String execute) throws SQLException {
+        double[] times = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            times[i] = explain(st, execute).get("Execution Time").asDouble();
+        }
+        Arrays.sort(times);
+        return times[iterations / 2];
+    }
+
+    private JsonNode explain(Statement st, String execute) throws SQLException {
+        try (ResultSet rs = st.executeQuery("EXPLAIN (ANALYZE, FORMAT JSON) " + execute)) {
+            rs.next();
+            return objectMapper.readTree(rs.getString(1)).get(0);
+        } catch (com.fasterxml.jackson.core.JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Set<UUID> ids(Connection con, String sql, String literals, int params) throws SQLException {
+        Set<UUID> ids = new HashSet<>();
+        try (Statement st = con.createStatement()) {
+            st.execute("PREPARE filter_ids AS SELECT q.id FROM (" + sql + ") q");
+            try (ResultSet rs = st.executeQuery(params == 0 ? "EXECUTE filter_ids" : "EXECUTE filter_ids(" + literals + ")")) {
+                while (rs.next()) {
+                    ids.add(rs.getObject(1, UUID.class));
+                }
+            } finally {
+                st.execute("DEALLOCATE filter_ids");
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Resume el plan en sus nodos de acceso a tablas, por ejemplo
+     * {@code Index Scan reservations (ix_reservations_visit_date_created_at)}.
+     */
+    private static String scans(JsonNode plan) {
+        Set<String> nodes = new LinkedHashSet<>();
+        collectScans(plan, nodes);
+        StringJoiner joiner = new StringJoiner(", ");
+        nodes.forEach(joiner::add);
+        return joiner.toString();
+    }
+
+    private static void collectScans(JsonNode node, Set<String> nodes) {
+        String type = node.path("Node Type").asText();
+        if (type.endsWith("Scan")) {
+            String relation = node.path("Relation Name").asText("");
+            String index = node.path("Index Name").asText("");
+            nodes.add(type + (relation.isEmpty() ? "" : " " + relation) + (index.isEmpty() ? "" : " (" + index + ")"));
+        }
+        node.path("Plans").forEach(child -> collectScans(child, nodes));
+    }
+
+    /** Pasa los {@code ?} de JDBC a {@code $1, $2...} para usar la sentencia con PREPARE. */
+    private static String numbered(String sql) {
+        StringBuilder sb = new StringBuilder();
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                sb.append('$').append(++n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String literal(Object value) {
+        return value == null ? "NULL" : "'" + value.toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,80 @@
+package com.luismunozse.reservalago.config;
+
+import com.luismunozse.reservalago.model.AvailabilityRule;
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.model.SystemConfig;
+import jakarta.persistence.Cache;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Entrada del cache de segundo nivel que otra instancia tiene que descartar.
+ * Viaja por {@link CacheInvalidationBus} como texto "TIPO:clave", donde la clave
+ * es el id de la entidad o {@value #ALL} para toda la región.
+ */
+public record CacheInvalidation(Type type, String key) {
+
+    public static final String ALL = "*";
+
+    public enum Type {
+        SYSTEM_CONFIG(SystemConfig.class, Long::valueOf, true),
+        AVAILABILITY_RULE(AvailabilityRule.class, Long::valueOf, true),
+        RESERVATION(Reservation.class, UUID::fromString, false);
+
+        private final Class<?> entity;
+        private final Function<String, Object> id;
+        private final boolean cachedQueries;
+
+        Type(Class<?> entity, Function<String, Object> id, boolean cachedQueries) {
+            this.entity = entity;
+            this.id = id;
+            this.cachedQueries = cachedQueries;
+        }
+
+        /**
+         * Si el repositorio de la entidad tiene consultas en el cache de consultas
+         * (que también hay que descartar, incluso al insertar).
+         */
+        public boolean hasCachedQueries() {
+            return cachedQueries;
+        }
+
+        static Type of(Class<?> entity) {
+            for (Type type : values()) {
+                if (type.entity.isAssignableFrom(entity)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Entidad sin invalidación entre instancias: " + entity.getName());
+        }
+    }
+
+    public static CacheInvalidation entity(Type type, Object id) {
+        return new CacheInvalidation(type, id.toString());
+    }
+
+    public static CacheInvalidation all(Type type) {
+        return new CacheInvalidation(type, ALL);
+    }
+
+    String payload() {
+        return type.name() + ":" + key;
+    }
+
+    static CacheInvalidation parse(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalidación sin clave: " + payload);
+        }
+        return new CacheInvalidation(Type.valueOf(payload.substring(0, separator)), payload.substring(separator + 1));
+    }
+
+    void evict(Cache cache) {
+        if (ALL.equals(key)) {
+            cache.evict(type.entity);
+        } else {
+            cache.evict(type.entity, type.id.apply(key));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.luismunozse.reservalago.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mantiene coherente el cache de segundo nivel entre instancias con
+ * LISTEN/NOTIFY de PostgreSQL, sin broker aparte.
+ *
+ * <p>Quien escribe publica la invalidación con pg_notify en la misma transacción:
+ * PostgreSQL la entrega solo si hay commit, y junta las repetidas de una misma
+ * transacción. Cada instancia escucha el canal en un hilo propio con una conexión
+ * fuera de los pools; las invalidaciones que llegan dentro de
+ * {@code coalesce-window} se aplican juntas (una ráfaga de cambios de capacidad
+ * descarta una sola vez el cache de consultas). Si se pierde la conexión se
+ * reconecta con espera creciente y, como en el medio pudo perderse algún aviso,
+ * se descartan enteras las regiones de {@link CacheInvalidation.Type}.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "reservalago_cache";
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+    private static final char ORIGIN_SEPARATOR = '|';
+    private static final int POLL_MILLIS = 500;
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    // Las instancias ignoran sus propios avisos: Hibernate ya actualizó su cache
+    private final String origin = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSourceProperties dataSourceProperties;
+    private final MeterRegistry registry;
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.cache.invalidation.coalesce-window:PT0.2S}")
+    private Duration coalesceWindow = Duration.ofMillis(200);
+
+    @Value("${app.cache.invalidation.reconnect-delay:PT1S}")
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listener;
+    private Counter flushes;
+    private Counter reconnects;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                DataSourceProperties dataSourceProperties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSourceProperties = dataSourceProperties;
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("Invalidación de cache entre instancias deshabilitada");
+            return;
+        }
+        flushes = Counter.builder("reservalago.cache.invalidation.flushes")
+                .description("Lotes de invalidaciones recibidas aplicados al cache")
+                .register(registry);
+        reconnects = Counter.builder("reservalago.cache.invalidation.reconnects")
+                .description("Reconexiones del listener de invalidaciones")
+                .register(registry);
+        Gauge.builder("reservalago.cache.invalidation.connected", this, bus -> bus.connected ? 1 : 0)
+                .description("1 si la instancia está escuchando las invalidaciones")
+                .register(registry);
+        running = true;
+        listener = Thread.ofPlatform().name("cache-invalidation").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * Avisa a las demás instancias. Dentro de una transacción sale con el commit;
+     * fuera de una, enseguida.
+     */
+    public void publish(CacheInvalidation invalidation) {
+        if (enabled) {
+            jdbcTemplate.query(NOTIFY, rs -> null, CHANNEL, origin + ORIGIN_SEPARATOR + invalidation.payload());
+        }
+    }
+
+    Object identifier(Object entity) {
+        return entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    private void listen() {
+        long delay = reconnectDelay.toMillis();
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                delay = reconnectDelay.toMillis();
+                if (reconnecting) {
+                    reconnects.increment();
+                    evictAll();
+                }
+                log.info("Escuchando invalidaciones de cache en el canal {}", CHANNEL);
+                receive(connection.unwrap(PGConnection.class));
+            } catch (SQLException ex) {
+                connected = false;
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexión de invalidaciones de cache perdida, reintento en {} ms: {}", delay, ex.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY.toMillis());
+            }
+        }
+        connected = false;
+    }
+
+    private void receive(PGConnection connection) throws SQLException {
+        Set<CacheInvalidation> pending = new LinkedHashSet<>();
+        long flushAt = 0;
+        while (running) {
+            int wait = pending.isEmpty()
+                    ? POLL_MILLIS
+                    : (int) Math.max(1, (flushAt - System.nanoTime()) / 1_000_000);
+            PGNotification[] notifications = connection.getNotifications(wait);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    CacheInvalidation invalidation = fromOtherInstance(notification.getParameter());
+                    if (invalidation != null) {
+                        if (pending.isEmpty()) {
+                            flushAt = System.nanoTime() + coalesceWindow.toNanos();
+                        }
+                        pending.add(invalidation);
+                    }
+                }
+            }
+            if (!pending.isEmpty() && System.nanoTime() - flushAt >= 0) {
+                apply(pending);
+                pending.clear();
+            }
+        }
+    }
+
+    private CacheInvalidation fromOtherInstance(String message) {
+        int separator = message.indexOf(ORIGIN_SEPARATOR);
+        if (separator < 0 || message.substring(0, separator).equals(origin)) {
+            return null;
+        }
+        try {
+            return CacheInvalidation.parse(message.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Invalidación de cache ignorada ({}): {}", ex.getMessage(), message);
+            return null;
+        }
+    }
+
+    void apply(Collection<CacheInvalidation> invalidations) {
+        Cache cache = entityManagerFactory.getCache();
+        boolean queries = false;
+        for (CacheInvalidation invalidation : invalidations) {
+            invalidation.evict(cache);
+            queries |= invalidation.type().hasCachedQueries();
+            Counter.builder("reservalago.cache.invalidation.received")
+                    .description("Invalidaciones de cache recibidas de otras instancias")
+                    .tag("type", invalidation.type().name())
+                    .register(registry)
+                    .increment();
+        }
+        if (queries) {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+        flushes.increment();
+        log.debug("Invalidaciones de cache aplicadas: {}", invalidations);
+    }
+
+    private void evictAll() {
+        Cache cache = entityManagerFactory.getCache();
+        for (CacheInvalidation.Type type : CacheInvalidation.Type.values()) {
+            CacheInvalidation.all(type).evict(cache);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        log.info("Cache de segundo nivel descartado tras reconectar el listener de invalidaciones");
+    }
+}
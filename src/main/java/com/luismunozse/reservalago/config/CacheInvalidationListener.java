@@ -0,0 +1,43 @@
+package com.luismunozse.reservalago.config;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Publica en {@link CacheInvalidationBus} cada cambio de una entidad cacheada
+ * (@EntityListeners en la entidad), dentro de la transacción que lo hace. Una
+ * entidad nueva solo se avisa si su tipo tiene consultas cacheadas: ninguna otra
+ * instancia puede tenerla en cache todavía.
+ *
+ * <p>Lo crea Hibernate como bean de Spring; el bus se busca recién al usarlo
+ * porque depende del EntityManagerFactory que se está creando.
+ */
+public class CacheInvalidationListener {
+
+    private final ObjectProvider<CacheInvalidationBus> bus;
+
+    public CacheInvalidationListener(ObjectProvider<CacheInvalidationBus> bus) {
+        this.bus = bus;
+    }
+
+    @PostPersist
+    void persisted(Object entity) {
+        CacheInvalidation.Type type = CacheInvalidation.Type.of(entity.getClass());
+        if (type.hasCachedQueries()) {
+            publish(type, entity);
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        publish(CacheInvalidation.Type.of(entity.getClass()), entity);
+    }
+
+    private void publish(CacheInvalidation.Type type, Object entity) {
+        CacheInvalidationBus target = bus.getObject();
+        target.publish(CacheInvalidation.entity(type, target.identifier(entity)));
+    }
+}
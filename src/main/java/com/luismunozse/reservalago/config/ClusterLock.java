@@ -0,0 +1,38 @@
+package com.luismunozse.reservalago.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tarea programada que corre en una sola instancia del cluster. Antes de cada
+ * ejecución {@link ClusterLockAspect} toma el lock {@link #value()} de la tabla
+ * scheduled_job_locks; si lo tiene otra instancia, la ejecución se salta.
+ *
+ * <p>{@link #lease()} es cuánto dura el lock sin renovar: mientras la tarea
+ * corre se renueva cada un tercio de ese tiempo, y si la instancia se cae vence
+ * solo. {@link #minInterval()} lo retiene después de terminar, para que las
+ * demás instancias, cuyo @Scheduled dispara en otro momento, no repitan la
+ * tarea enseguida; conviene igualarlo a la frecuencia de la tarea.
+ *
+ * <p>Los valores son duraciones y admiten placeholders, por ejemplo
+ * {@code @ClusterLock(value = "idempotency-purge", minInterval = "${app.idempotency.cleanup-interval:PT1H}")}.
+ * La anotación va sobre métodos sin transacción propia alrededor: el lock se
+ * toma y se libera en sentencias aparte.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ClusterLock {
+
+    /**
+     * Nombre del lock, único por tarea.
+     */
+    String value();
+
+    String lease() default "PT5M";
+
+    String minInterval() default "PT0S";
+}
@@ -0,0 +1,165 @@
+package com.luismunozse.reservalago.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica {@link ClusterLock}. Toma el lock con un solo INSERT ... ON CONFLICT
+ * que solo pisa la fila si el lock anterior venció, así que dos instancias que
+ * disparan a la vez no pueden quedarse las dos con la tarea. Los vencimientos
+ * se calculan con el reloj de la base, no con el de cada instancia.
+ *
+ * <p>Las sentencias del lock van al pool de segundo plano y en autocommit,
+ * fuera de la transacción de la tarea: corre antes que @Transactional.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ClusterLockAspect {
+
+    private static final String ACQUIRE = """
+            INSERT INTO scheduled_job_locks (name, locked_until, locked_at, locked_by)
+            VALUES (?, now() + ? * INTERVAL '1 millisecond', now(), ?)
+            ON CONFLICT (name) DO UPDATE
+               SET locked_until = EXCLUDED.locked_until,
+                   locked_at = EXCLUDED.locked_at,
+                   locked_by = EXCLUDED.locked_by
+             WHERE scheduled_job_locks.locked_until <= now()""";
+    private static final String RENEW = """
+            UPDATE scheduled_job_locks
+               SET locked_until = now() + ? * INTERVAL '1 millisecond'
+             WHERE name = ? AND locked_by = ?""";
+    private static final String RELEASE = """
+            UPDATE scheduled_job_locks
+               SET locked_until = GREATEST(now(), locked_at + ? * INTERVAL '1 millisecond'),
+                   last_completed_at = CASE WHEN ? THEN now() ELSE last_completed_at END
+             WHERE name = ? AND locked_by = ?""";
+
+    // Identifica a la instancia en la tabla: host (nombre del contenedor) y un sufijo por arranque
+    private final String owner = System.getenv().getOrDefault("HOSTNAME", "local")
+            + ":" + UUID.randomUUID().toString().substring(0, 8);
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry registry;
+    private final Map<Method, Lock> locks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewals = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("job-lock-renewal").daemon().factory());
+
+    public ClusterLockAspect(Environment environment, JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.environment = environment;
+        this.jdbcTemplate = jdbcTemplate;
+        this.registry = registry;
+    }
+
+    @PreDestroy
+    void stop() {
+        renewals.shutdownNow();
+    }
+
+    @Around("@annotation(com.luismunozse.reservalago.config.ClusterLock)")
+    public Object runOnce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Lock lock = lockOf(joinPoint);
+        if (!acquire(lock)) {
+            count(lock, "skipped");
+            log.debug("Tarea {} omitida: la tiene otra instancia", lock.name());
+            return null;
+        }
+        long period = Math.max(1, lock.lease().toMillis() / 3);
+        ScheduledFuture<?> renewal = renewals.scheduleAtFixedRate(() -> renew(lock), period, period, TimeUnit.MILLISECONDS);
+        boolean completed = false;
+        try {
+            Object result = joinPoint.proceed();
+            completed = true;
+            return result;
+        } finally {
+            renewal.cancel(false);
+            release(lock, completed);
+            count(lock, completed ? "executed" : "failed");
+        }
+    }
+
+    private boolean acquire(Lock lock) {
+        return WorkloadRoutingDataSource.callAs(Workload.BACKGROUND, () ->
+                jdbcTemplate.update(ACQUIRE, lock.name(), lock.lease().toMillis(), owner)) > 0;
+    }
+
+    private void renew(Lock lock) {
+        try {
+            int renewed = WorkloadRoutingDataSource.callAs(Workload.BACKGROUND, () ->
+                    jdbcTemplate.update(RENEW, lock.lease().toMillis(), lock.name(), owner));
+            if (renewed == 0) {
+                Counter.builder("reservalago.jobs.lease.lost")
+                        .description("Renovaciones de lock que encontraron el lock en manos de otra instancia")
+                        .tag("job", lock.name())
+                        .register(registry)
+                        .increment();
+                log.warn("La tarea {} perdió el lock: otra instancia puede estar corriéndola", lock.name());
+            }
+        } catch (DataAccessException ex) {
+            log.warn("No se pudo renovar el lock de la tarea {}: {}", lock.name(), ex.getMessage());
+        }
+    }
+
+    private void release(Lock lock, boolean completed) {
+        try {
+            WorkloadRoutingDataSource.runAs(Workload.BACKGROUND, () ->
+                    jdbcTemplate.update(RELEASE, lock.minInterval().toMillis(), completed, lock.name(), owner));
+        } catch (DataAccessException ex) {
+            // El lock vence solo al cumplirse el lease
+            log.warn("No se pudo liberar el lock de la tarea {}: {}", lock.name(), ex.getMessage());
+        }
+    }
+
+    private void count(Lock lock, String outcome) {
+        Counter.builder("reservalago.jobs.runs")
+                .description("Disparos de tareas programadas con @ClusterLock, por resultado")
+                .tag("job", lock.name())
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    private Lock lockOf(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        return locks.computeIfAbsent(method, m -> {
+            ClusterLock annotation = AnnotatedElementUtils.findMergedAnnotation(m, ClusterLock.class);
+            Lock lock = new Lock(annotation.value(), duration(annotation.lease()), duration(annotation.minInterval()));
+            log.debug("Lock de {}.{}: {}", targetClass.getSimpleName(), m.getName(), lock);
+            return lock;
+        });
+    }
+
+    private Duration duration(String value) {
+        return DurationStyle.detectAndParse(environment.resolveRequiredPlaceholders(value));
+    }
+
+    private record Lock(String name, Duration lease, Duration minInterval) {
+    }
+}
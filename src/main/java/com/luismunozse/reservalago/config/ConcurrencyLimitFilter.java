@@ -0,0 +1,137 @@
+package com.luismunozse.reservalago.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite adaptativo de altas de reserva en curso (POST /api/reservations). Cada
+ * alta ocupa un hilo de Tomcat y una conexión del pool; en un pico, pasado cierto
+ * punto las que entran solo agregan espera a todas. El límite lo ajusta
+ * {@link GradientLimit} según la latencia de las respuestas y lo que lo excede
+ * se rechaza enseguida con 503 y Retry-After, en vez de quedar en cola.
+ *
+ * <p>A diferencia de {@link RateLimitFilter} (por IP y por minuto) protege al
+ * servidor, no reparte el acceso entre clientes.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    @Value("${app.booking.limiter.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.booking.limiter.initial-limit:10}")
+    private int initialLimit = 10;
+
+    @Value("${app.booking.limiter.min-limit:2}")
+    private int minLimit = 2;
+
+    @Value("${app.booking.limiter.max-limit:40}")
+    private int maxLimit = 40;
+
+    @Value("${app.booking.limiter.retry-after:PT1S}")
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private GradientLimit limit;
+    private Counter rejected;
+
+    public ConcurrencyLimitFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void start() {
+        limit = new GradientLimit(initialLimit, minLimit, maxLimit);
+        Gauge.builder("reservalago.booking.limiter.limit", limit, GradientLimit::limit)
+                .description("Altas de reserva simultáneas admitidas")
+                .register(registry);
+        Gauge.builder("reservalago.booking.limiter.inflight", inflight, AtomicInteger::get)
+                .description("Altas de reserva en curso")
+                .register(registry);
+        rejected = Counter.builder("reservalago.booking.limiter.rejected")
+                .description("Altas de reserva rechazadas por exceder el límite de concurrencia")
+                .register(registry);
+        log.info("Límite de concurrencia de reservas: habilitado={}, inicial={}, mínimo={}, máximo={}",
+                enabled, initialLimit, minLimit, maxLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || !"/api/reservations".equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        int current = tryAcquire();
+        if (current < 0) {
+            rejected.increment();
+            log.warn("Alta de reserva rechazada por sobrecarga: en curso={}, límite={}", inflight.get(), limit.limit());
+            sendOverloadResponse(response);
+            return;
+        }
+
+        long t0 = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            inflight.decrementAndGet();
+            if (dropped) {
+                limit.onDropped();
+            } else {
+                limit.onSample(System.nanoTime() - t0, current);
+            }
+        }
+    }
+
+    /**
+     * @return las altas en curso contando esta, o -1 si no hay lugar
+     */
+    private int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.limit()) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Envía respuesta 503 Service Unavailable
+     */
+    private void sendOverloadResponse(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        // Retry-After va en segundos enteros: se redondea hacia arriba
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        response.getWriter().write("{\"error\":\"El servidor está recibiendo muchas reservas. Intente nuevamente en unos segundos.\"}");
+    }
+}
@@ -0,0 +1,84 @@
+package com.luismunozse.reservalago.config;
+
+/**
+ * Límite de concurrencia adaptativo por latencia, con el algoritmo de gradiente
+ * de Netflix concurrency-limits. Compara cada respuesta con la latencia sin
+ * carga (la mínima de las últimas respuestas): mientras no se aleja, el límite
+ * sube de a poco (margen de raíz cuadrada del límite); cuando las respuestas
+ * empiezan a tardar más porque hay cola en el pool de conexiones, el límite baja
+ * en la misma proporción.
+ */
+final class GradientLimit {
+
+    // Cuánto más lenta que sin carga puede ser una respuesta antes de bajar el límite
+    private static final double TOLERANCE = 2.0;
+    // Peso de cada nuevo cálculo sobre el límite actual
+    private static final double SMOOTHING = 0.2;
+    // La latencia sin carga es la mínima de esta ventana y la anterior, para que
+    // siga a la base si se vuelve más lenta (o más rápida) de forma permanente
+    private static final int WINDOW = 250;
+    // Baja ante una respuesta fallida (503, error), como Vegas ante una pérdida
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double estimatedLimit;
+    private long previousMinRtt = Long.MAX_VALUE;
+    private long currentMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+    private volatile int limit;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Límites inválidos: inicial=" + initialLimit
+                    + ", mínimo=" + minLimit + ", máximo=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * Registra una respuesta exitosa.
+     *
+     * @param rttNanos latencia de la respuesta
+     * @param inflight solicitudes en curso cuando empezó esta
+     */
+    synchronized void onSample(long rttNanos, int inflight) {
+        long rtt = Math.max(rttNanos, 1);
+        currentMinRtt = Math.min(currentMinRtt, rtt);
+        if (++windowSamples == WINDOW) {
+            previousMinRtt = currentMinRtt;
+            currentMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+
+        // Con poca carga la latencia no dice nada sobre el límite: no se toca
+        if (inflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double noLoadRtt = Math.min(previousMinRtt, currentMinRtt);
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * noLoadRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        update(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    /**
+     * Registra una respuesta fallida por sobrecarga: baja el límite sin esperar a la latencia.
+     */
+    synchronized void onDropped() {
+        update(estimatedLimit * BACKOFF);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
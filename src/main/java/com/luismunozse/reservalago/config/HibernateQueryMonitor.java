@@ -0,0 +1,121 @@
+package com.luismunozse.reservalago.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Registro en memoria de consultas lentas y de sentencias por request, expuesto
+ * por {@link HibernateStatisticsEndpoint}. Permite ver en producción patrones
+ * N+1 (muchas sentencias o cargas de colecciones en un mismo request).
+ */
+@Slf4j
+@Component
+public class HibernateQueryMonitor {
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    // El driver entrega la sentencia con los parámetros ya enlazados (DNI, teléfonos…);
+    // se reemplazan los literales para guardar solo la forma de la consulta.
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    @Value("${app.hibernate.slow-query-threshold:PT0.2S}")
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    @Value("${app.hibernate.slow-query-buffer:100}")
+    private int slowQueryBuffer = 100;
+
+    @Value("${app.hibernate.request-statement-warn:30}")
+    private int requestStatementWarn = 30;
+
+    private final Deque<SlowQuery> slowQueries = new ConcurrentLinkedDeque<>();
+    private final Map<String, HandlerCounters> handlers = new ConcurrentHashMap<>();
+
+    public record SlowQuery(Instant at, long durationMs, String handler, String sql) {}
+
+    public record HandlerQueryStats(String handler, long requests, double avgStatements, int maxStatements,
+                                    int maxEntityFetches, int maxCollectionFetches) {}
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    void recordSlowQuery(String sql, long durationMs, String handler) {
+        String shape = sqlShape(sql);
+        log.warn("Consulta lenta ({} ms) desde {}: {}", durationMs, handler, shape);
+        slowQueries.addFirst(new SlowQuery(Instant.now(), durationMs, handler, shape));
+        while (slowQueries.size() > slowQueryBuffer) {
+            slowQueries.pollLast();
+        }
+    }
+
+    static String sqlShape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+        return shape.length() > MAX_SQL_LENGTH ? shape.substring(0, MAX_SQL_LENGTH) + "…" : shape;
+    }
+
+    void recordRequest(QueryContext ctx) {
+        handlers.computeIfAbsent(ctx.handler(), k -> new HandlerCounters()).add(ctx);
+        if (ctx.statements() > requestStatementWarn) {
+            log.warn("Posible N+1: {} ejecutó {} sentencias ({} entidades y {} colecciones cargadas en forma perezosa)",
+                    ctx.handler(), ctx.statements(), ctx.entityFetches(), ctx.collectionFetches());
+        }
+    }
+
+    public List<SlowQuery> slowQueries() {
+        return List.copyOf(slowQueries);
+    }
+
+    /**
+     * Handlers ordenados por máximo de sentencias en un mismo request.
+     */
+    public List<HandlerQueryStats> handlerStats() {
+        List<HandlerQueryStats> result = new ArrayList<>();
+        handlers.forEach((handler, counters) -> result.add(counters.snapshot(handler)));
+        result.sort(Comparator.comparingInt(HandlerQueryStats::maxStatements).reversed());
+        return result;
+    }
+
+    public void reset() {
+        slowQueries.clear();
+        handlers.clear();
+    }
+
+    private static class HandlerCounters {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong statements = new AtomicLong();
+        private final AtomicInteger maxStatements = new AtomicInteger();
+        private final AtomicInteger maxEntityFetches = new AtomicInteger();
+        private final AtomicInteger maxCollectionFetches = new AtomicInteger();
+
+        void add(QueryContext ctx) {
+            requests.incrementAndGet();
+            statements.addAndGet(ctx.statements());
+            maxStatements.accumulateAndGet(ctx.statements(), Math::max);
+            maxEntityFetches.accumulateAndGet(ctx.entityFetches(), Math::max);
+            maxCollectionFetches.accumulateAndGet(ctx.collectionFetches(), Math::max);
+        }
+
+        HandlerQueryStats snapshot(String handler) {
+            long count = requests.get();
+            double avg = count == 0 ? 0 : (double) statements.get() / count;
+            return new HandlerQueryStats(handler, count, avg, maxStatements.get(),
+                    maxEntityFetches.get(), maxCollectionFetches.get());
+        }
+    }
+}
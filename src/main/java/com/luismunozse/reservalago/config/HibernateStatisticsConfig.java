@@ -0,0 +1,43 @@
+package com.luismunozse.reservalago.config;
+
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.cfg.StatisticsSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Activa las estadísticas de Hibernate con {@link MonitoredStatistics} y el
+ * registro de consultas lentas (hibernate.log_slow_query), y asocia cada
+ * request a su controller para atribuirle sentencias y consultas lentas.
+ */
+@Configuration
+public class HibernateStatisticsConfig {
+
+    @Value("${app.hibernate.statistics-enabled:true}")
+    private boolean statisticsEnabled;
+
+    @Bean
+    public HibernatePropertiesCustomizer monitoredStatisticsCustomizer(HibernateQueryMonitor monitor) {
+        return properties -> {
+            properties.put(StatisticsSettings.GENERATE_STATISTICS, statisticsEnabled);
+            properties.put(StatisticsSettings.STATS_BUILDER,
+                    (StatisticsFactory) sessionFactory -> new MonitoredStatistics(sessionFactory, monitor));
+            properties.put(JdbcSettings.LOG_SLOW_QUERY, monitor.getSlowQueryThreshold().toMillis());
+        };
+    }
+
+    @Bean
+    public WebMvcConfigurer queryContextWebMvcConfigurer(HibernateQueryMonitor monitor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new QueryContextInterceptor(monitor)).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.luismunozse.reservalago.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoint de Actuator /actuator/hibernate: estadísticas globales de Hibernate,
+ * consultas más costosas, consultas lentas recientes y sentencias por request.
+ * DELETE /actuator/hibernate reinicia los contadores.
+ */
+@Component
+@Endpoint(id = "hibernate")
+@RequiredArgsConstructor
+public class HibernateStatisticsEndpoint {
+
+    private static final int TOP_QUERIES = 20;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final HibernateQueryMonitor monitor;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics stats = statistics0();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", stats.isStatisticsEnabled());
+        result.put("since", stats.getStart());
+        result.put("slowQueryThresholdMs", monitor.getSlowQueryThreshold().toMillis());
+
+        result.put("sessions", Map.of(
+                "opened", stats.getSessionOpenCount(),
+                "closed", stats.getSessionCloseCount(),
+                "flushes", stats.getFlushCount()));
+        result.put("transactions", Map.of(
+                "total", stats.getTransactionCount(),
+                "successful", stats.getSuccessfulTransactionCount()));
+        result.put("statements", Map.of(
+                "prepared", stats.getPrepareStatementCount(),
+                "closed", stats.getCloseStatementCount()));
+        result.put("queries", Map.of(
+                "executed", stats.getQueryExecutionCount(),
+                "maxTimeMs", stats.getQueryExecutionMaxTime(),
+                "slowest", String.valueOf(stats.getQueryExecutionMaxTimeQueryString()),
+                "planCacheHitRatio", ratio(stats.getQueryPlanCacheHitCount(), stats.getQueryPlanCacheMissCount())));
+        result.put("entities", Map.of(
+                "loads", stats.getEntityLoadCount(),
+                "fetches", stats.getEntityFetchCount(),
+                "inserts", stats.getEntityInsertCount(),
+                "updates", stats.getEntityUpdateCount(),
+                "deletes", stats.getEntityDeleteCount()));
+        result.put("collections", Map.of(
+                "loads", stats.getCollectionLoadCount(),
+                "fetches", stats.getCollectionFetchCount(),
+                "updates", stats.getCollectionUpdateCount(),
+                "recreates", stats.getCollectionRecreateCount(),
+                "removes", stats.getCollectionRemoveCount()));
+        result.put("secondLevelCache", secondLevelCache(stats));
+        result.put("queryCache", Map.of(
+                "hits", stats.getQueryCacheHitCount(),
+                "misses", stats.getQueryCacheMissCount(),
+                "puts", stats.getQueryCachePutCount(),
+                "hitRatio", ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount())));
+        result.put("topQueries", topQueries(stats));
+        result.put("slowQueries", monitor.slowQueries());
+        result.put("requests", monitor.handlerStats());
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        statistics0().clear();
+        monitor.reset();
+        return Map.of("resetAt", Instant.now());
+    }
+
+    private Statistics statistics0() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Map<String, Object> secondLevelCache(Statistics stats) {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics r = stats.getDomainDataRegionStatistics(region);
+            if (r != null) {
+                regions.put(region, Map.of(
+                        "hits", r.getHitCount(),
+                        "misses", r.getMissCount(),
+                        "puts", r.getPutCount(),
+                        "hitRatio", ratio(r.getHitCount(), r.getMissCount())));
+            }
+        }
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", stats.getSecondLevelCacheHitCount());
+        cache.put("misses", stats.getSecondLevelCacheMissCount());
+        cache.put("puts", stats.getSecondLevelCachePutCount());
+        cache.put("hitRatio", ratio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount()));
+        cache.put("regions", regions);
+        return cache;
+    }
+
+    private static List<Map<String, Object>> topQueries(Statistics stats) {
+        return Arrays.stream(stats.getQueries())
+                .map(query -> Map.entry(query, stats.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, QueryStatistics> e) -> e.getValue().getExecutionTotalTime()).reversed())
+                .limit(TOP_QUERIES)
+                .map(e -> {
+                    QueryStatistics q = e.getValue();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("query", e.getKey());
+                    row.put("executions", q.getExecutionCount());
+                    row.put("rows", q.getExecutionRowCount());
+                    row.put("totalMs", q.getExecutionTotalTime());
+                    row.put("avgMs", q.getExecutionAvgTimeAsDouble());
+                    row.put("maxMs", q.getExecutionMaxTime());
+                    return row;
+                })
+                .toList();
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
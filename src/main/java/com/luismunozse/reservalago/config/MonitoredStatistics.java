@@ -0,0 +1,45 @@
+package com.luismunozse.reservalago.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Estadísticas de Hibernate que además atribuyen sentencias, cargas perezosas
+ * y consultas lentas al request que las originó.
+ */
+class MonitoredStatistics extends StatisticsImpl {
+
+    private final HibernateQueryMonitor monitor;
+
+    MonitoredStatistics(SessionFactoryImplementor sessionFactory, HibernateQueryMonitor monitor) {
+        super(sessionFactory);
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        QueryContext.statementPrepared();
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        QueryContext.entityFetched();
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+        super.fetchCollection(role);
+        QueryContext.collectionFetched();
+    }
+
+    /**
+     * Hibernate lo invoca para cada sentencia JDBC que supera hibernate.log_slow_query.
+     */
+    @Override
+    public void slowQuery(String sql, long executionTime) {
+        super.slowQuery(sql, executionTime);
+        monitor.recordSlowQuery(sql, executionTime, QueryContext.currentHandler());
+    }
+}
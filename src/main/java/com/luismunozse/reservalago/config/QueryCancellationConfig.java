@@ -0,0 +1,24 @@
+package com.luismunozse.reservalago.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Corta las consultas de los requests asíncronos que el contenedor da por
+ * terminados (ver {@link QueryCancellationInterceptor}).
+ */
+@Configuration
+public class QueryCancellationConfig {
+
+    @Bean
+    public WebMvcConfigurer queryCancellationWebMvcConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.registerCallableInterceptors(new QueryCancellationInterceptor());
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.luismunozse.reservalago.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cancela las consultas de un request asíncrono (StreamingResponseBody, Callable)
+ * cuando vence {@code spring.mvc.async.request-timeout} o el contenedor avisa un
+ * error en la conexión, para que no sigan ocupando el pool sin nadie que lea el
+ * resultado. Las sentencias las registra {@link RunningStatements} en el hilo
+ * que ejecuta la tarea.
+ */
+@Slf4j
+class QueryCancellationInterceptor implements CallableProcessingInterceptor {
+
+    private static final String ATTRIBUTE = RunningStatements.class.getName();
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        request.setAttribute(ATTRIBUTE, RunningStatements.open(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RunningStatements.close();
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        cancel(request, "venció el tiempo del request");
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        cancel(request, "error en la conexión (" + t.getMessage() + ")");
+        return RESULT_NONE;
+    }
+
+    private static void cancel(NativeWebRequest request, String reason) {
+        if (request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RunningStatements statements) {
+            log.warn("Cancelando las consultas de {}: {}", request.getDescription(false), reason);
+            statements.cancel();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.luismunozse.reservalago.config;
+
+/**
+ * Contadores de acceso a datos del request en curso (hilo actual). Los llena
+ * {@link MonitoredStatistics} y los abre/cierra {@link QueryContextInterceptor}.
+ */
+final class QueryContext {
+
+    static final String NO_REQUEST = "(sin request)";
+
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    private final String handler;
+    private int statements;
+    private int entityFetches;
+    private int collectionFetches;
+
+    private QueryContext(String handler) {
+        this.handler = handler;
+    }
+
+    static void begin(String handler) {
+        CURRENT.set(new QueryContext(handler));
+    }
+
+    static QueryContext end() {
+        QueryContext ctx = CURRENT.get();
+        CURRENT.remove();
+        return ctx;
+    }
+
+    static String currentHandler() {
+        QueryContext ctx = CURRENT.get();
+        return ctx != null ? ctx.handler : NO_REQUEST;
+    }
+
+    static void statementPrepared() {
+        QueryContext ctx = CURRENT.get();
+        if (ctx != null) {
+            ctx.statements++;
+        }
+    }
+
+    static void entityFetched() {
+        QueryContext ctx = CURRENT.get();
+        if (ctx != null) {
+            ctx.entityFetches++;
+        }
+    }
+
+    static void collectionFetched() {
+        QueryContext ctx = CURRENT.get();
+        if (ctx != null) {
+            ctx.collectionFetches++;
+        }
+    }
+
+    String handler() {
+        return handler;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    int entityFetches() {
+        return entityFetches;
+    }
+
+    int collectionFetches() {
+        return collectionFetches;
+    }
+}
@@ -0,0 +1,34 @@
+package com.luismunozse.reservalago.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Abre un {@link QueryContext} por request con el nombre del método del
+ * controller, y al terminar entrega los contadores a {@link HibernateQueryMonitor}.
+ */
+@RequiredArgsConstructor
+class QueryContextInterceptor implements HandlerInterceptor {
+
+    private final HibernateQueryMonitor monitor;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            QueryContext.begin(method.getBeanType().getSimpleName() + "#" + method.getMethod().getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        QueryContext ctx = QueryContext.end();
+        if (ctx != null) {
+            monitor.recordRequest(ctx);
+        }
+    }
+}
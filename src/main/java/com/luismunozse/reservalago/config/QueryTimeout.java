@@ -0,0 +1,26 @@
+package com.luismunozse.reservalago.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tiempo máximo de cada sentencia SQL del método (o de todos los de la clase),
+ * aplicado por {@link QueryTimeoutAspect} con {@code SET LOCAL statement_timeout}:
+ * lo corta PostgreSQL aunque el cliente ya no esté esperando la respuesta, y al
+ * terminar la transacción vuelve el valor de la sesión. La anotación del método
+ * tiene prioridad sobre la de la clase.
+ *
+ * <p>El valor es una duración ("PT30S", "30s") y admite placeholders, por ejemplo
+ * {@code @QueryTimeout("${app.query-timeout.export:PT60S}")}. Al cortarse la
+ * consulta se lanza {@link org.springframework.dao.QueryTimeoutException}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryTimeout {
+
+    String value();
+}
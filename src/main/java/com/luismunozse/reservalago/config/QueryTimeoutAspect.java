@@ -0,0 +1,107 @@
+package com.luismunozse.reservalago.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica {@link QueryTimeout}. Corre antes que @Transactional: durante la llamada
+ * deja el tiempo pendiente y, como listener del manejador de transacciones, lo
+ * fija con {@code set_config('statement_timeout', ..., true)} (equivale a SET
+ * LOCAL) en cada transacción que se abre. Si el método corre dentro de una
+ * transacción que ya existía, lo fija ahí mismo y al salir repone el anterior.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryTimeoutAspect implements TransactionExecutionListener {
+
+    private static final String SET_TIMEOUT =
+            "SELECT current_setting('statement_timeout'), set_config('statement_timeout', ?, true)";
+    private static final String RESTORE_TIMEOUT = "SELECT set_config('statement_timeout', ?, true)";
+
+    private static final ThreadLocal<Duration> PENDING = new ThreadLocal<>();
+
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Method, Duration> timeouts = new ConcurrentHashMap<>();
+
+    public QueryTimeoutAspect(Environment environment, JdbcTemplate jdbcTemplate) {
+        this.environment = environment;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Around("@annotation(com.luismunozse.reservalago.config.QueryTimeout)"
+            + " || @within(com.luismunozse.reservalago.config.QueryTimeout)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Duration timeout = timeoutOf(joinPoint);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            String previous = apply(timeout);
+            try {
+                return joinPoint.proceed();
+            } finally {
+                jdbcTemplate.queryForObject(RESTORE_TIMEOUT, String.class, previous);
+            }
+        }
+        Duration outer = PENDING.get();
+        PENDING.set(timeout);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (outer != null) {
+                PENDING.set(outer);
+            } else {
+                PENDING.remove();
+            }
+        }
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        Duration timeout = PENDING.get();
+        if (timeout != null && beginFailure == null && transaction.isNewTransaction()) {
+            apply(timeout);
+        }
+    }
+
+    /**
+     * @return el statement_timeout que tenía la transacción
+     */
+    private String apply(Duration timeout) {
+        return jdbcTemplate.queryForObject(SET_TIMEOUT, (rs, rowNum) -> rs.getString(1),
+                String.valueOf(timeout.toMillis()));
+    }
+
+    private Duration timeoutOf(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        return timeouts.computeIfAbsent(method, m -> {
+            QueryTimeout annotation = AnnotatedElementUtils.findMergedAnnotation(m, QueryTimeout.class);
+            if (annotation == null) {
+                annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, QueryTimeout.class);
+            }
+            Duration timeout = DurationStyle.detectAndParse(environment.resolveRequiredPlaceholders(annotation.value()));
+            log.debug("statement_timeout de {}.{}: {}", targetClass.getSimpleName(), m.getName(), timeout);
+            return timeout;
+        });
+    }
+}
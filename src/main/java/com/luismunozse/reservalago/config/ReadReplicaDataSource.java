@@ -0,0 +1,298 @@
+package com.luismunozse.reservalago.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manda las transacciones de solo lectura del panel y de las tareas en segundo
+ * plano a las réplicas de PostgreSQL; el resto sigue en {@link WorkloadRoutingDataSource}.
+ * Las conexiones son perezosas ({@link LazyConnectionDataSourceProxy}): la
+ * real se pide con la primera sentencia, cuando ya se sabe si la transacción es
+ * readOnly.
+ *
+ * <p>Se vuelve al primario cuando:
+ * <ul>
+ *   <li>la carga es {@link Workload#BOOKING}: el flujo de reserva lee siempre lo último;</li>
+ *   <li>el usuario autenticado escribió hace menos de {@code sticky-window}, para
+ *       que vea sus propios cambios (leer lo que uno escribió);</li>
+ *   <li>ninguna réplica está al día: cada {@code check-interval} se compara la
+ *       posición del WAL del primario con la aplicada en cada réplica y, si está
+ *       atrasada, cuánto hace de la última transacción aplicada. Por encima de
+ *       {@code max-lag}, o si no responde, la réplica deja de usarse.</li>
+ * </ul>
+ */
+@Slf4j
+public class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+    private static final String REPLICA_LAG_SQL = """
+            SELECT pg_is_in_recovery(),
+                   pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) <= 0,
+                   EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+            """;
+
+    private final WorkloadRoutingDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final long stickyNanos;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final MeterRegistry registry;
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-lag").daemon().factory());
+
+    ReadReplicaDataSource(WorkloadRoutingDataSource primary, Map<String, HikariDataSource> replicaPools,
+                          Duration maxLag, Duration checkInterval, Duration stickyWindow, MeterRegistry registry) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.stickyNanos = stickyWindow.toNanos();
+        this.registry = registry;
+        replicaPools.forEach((name, pool) -> {
+            Replica replica = new Replica(name, pool);
+            replicas.add(replica);
+            Gauge.builder("reservalago.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Retraso de la réplica respecto del primario (segundos)")
+                    .tag("replica", name)
+                    .register(registry);
+            Gauge.builder("reservalago.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("1 si la réplica recibe lecturas")
+                    .tag("replica", name)
+                    .register(registry);
+        });
+        setTargetDataSource(new WriteTrackingDataSource());
+        setReadOnlyDataSource(new ReadOnlyRoutingDataSource());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        // Hasta el primer control las lecturas van al primario
+        monitor.scheduleWithFixedDelay(this::checkReplicas, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void checkReplicas() {
+        // isSticky solo limpia a quien vuelve a leer; el resto se poda acá
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> now - until >= 0);
+        String primaryLsn;
+        try (Connection con = primary.pool(Workload.BACKGROUND).getConnection();
+             PreparedStatement ps = con.prepareStatement(PRIMARY_LSN_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            primaryLsn = rs.getString(1);
+        } catch (SQLException | RuntimeException ex) {
+            log.warn("No se pudo leer la posición del WAL del primario: {}", ex.getMessage());
+            return;
+        }
+        for (Replica replica : replicas) {
+            lagMeasured(replica, measureLag(replica, primaryLsn));
+        }
+    }
+
+    /**
+     * @return retraso en segundos; infinito si no responde o no es una réplica
+     */
+    private double measureLag(Replica replica, String primaryLsn) {
+        try (Connection con = replica.pool.getConnection();
+             PreparedStatement ps = con.prepareStatement(REPLICA_LAG_SQL)) {
+            ps.setString(1, primaryLsn);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                if (!rs.getBoolean(1)) {
+                    log.debug("{} no está en recuperación: no es una réplica del primario", replica.name);
+                    return Double.POSITIVE_INFINITY;
+                }
+                if (rs.getBoolean(2)) {
+                    return 0;
+                }
+                double sinceReplay = rs.getDouble(3);
+                return rs.wasNull() ? Double.POSITIVE_INFINITY : Math.max(0, sinceReplay);
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.debug("Réplica {} sin respuesta: {}", replica.name, ex.getMessage());
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    void lagMeasured(String replicaName, double lagSeconds) {
+        replicas.stream()
+                .filter(r -> r.name.equals(replicaName))
+                .forEach(r -> lagMeasured(r, lagSeconds));
+    }
+
+    private void lagMeasured(Replica replica, double lagSeconds) {
+        replica.lagSeconds = lagSeconds;
+        boolean available = lagSeconds * 1000 <= maxLag.toMillis();
+        if (available != replica.available) {
+            replica.available = available;
+            if (available) {
+                log.info("Réplica {} disponible para lecturas (retraso {} s)", replica.name, lagSeconds);
+            } else {
+                log.warn("Réplica {} fuera de servicio para lecturas (retraso {} s, máximo {})",
+                        replica.name, lagSeconds, maxLag);
+            }
+        }
+    }
+
+    private Connection readOnlyConnection() throws SQLException {
+        if (WorkloadRoutingDataSource.current() == Workload.BOOKING) {
+            return primary.getConnection();
+        }
+        String client = currentClient();
+        if (client != null && isSticky(client)) {
+            return fallback("sticky");
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection con = RunningStatements.track(replica.pool.getConnection());
+                replica.reads.increment();
+                return con;
+            } catch (SQLException ex) {
+                replica.available = false;
+                log.warn("Réplica {} fuera de servicio para lecturas: {}", replica.name, ex.getMessage());
+            }
+        }
+        return fallback("unavailable");
+    }
+
+    private Connection fallback(String reason) throws SQLException {
+        Counter.builder("reservalago.datasource.replica.fallback")
+                .description("Lecturas de solo lectura que fueron al primario en vez de a una réplica")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Una conexión de lectura/escritura del usuario actual: sus lecturas van al
+     * primario hasta {@code sticky-window} después del commit.
+     */
+    private void writeStarted() {
+        String client = currentClient();
+        if (client == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stick(client);
+                }
+            });
+        } else {
+            stick(client);
+        }
+    }
+
+    private void stick(String client) {
+        stickyUntil.put(client, System.nanoTime() + stickyNanos);
+    }
+
+    private boolean isSticky(String client) {
+        Long until = stickyUntil.get(client);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            stickyUntil.remove(client, until);
+            return false;
+        }
+        return true;
+    }
+
+    int stickyClients() {
+        return stickyUntil.size();
+    }
+
+    private static String currentClient() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)
+                ? auth.getName()
+                : null;
+    }
+
+    @Override
+    public void close() {
+        monitor.shutdownNow();
+        replicas.forEach(r -> r.pool.close());
+        primary.close();
+    }
+
+    private final class Replica {
+        final String name;
+        final HikariDataSource pool;
+        final Counter reads;
+        volatile boolean available;
+        volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+            this.reads = Counter.builder("reservalago.datasource.replica.reads")
+                    .description("Conexiones de solo lectura servidas por la réplica")
+                    .tag("replica", name)
+                    .register(registry);
+        }
+    }
+
+    private final class WriteTrackingDataSource extends DelegatingDataSource {
+
+        WriteTrackingDataSource() {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            writeStarted();
+            return super.getConnection();
+        }
+    }
+
+    private final class ReadOnlyRoutingDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readOnlyConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Las réplicas usan las credenciales del pool");
+        }
+    }
+}
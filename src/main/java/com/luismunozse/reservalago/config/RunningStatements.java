@@ -0,0 +1,110 @@
+package com.luismunozse.reservalago.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sentencias JDBC del hilo actual, para cancelarlas desde otro hilo. La abre
+ * {@link QueryCancellationInterceptor} en el hilo que atiende un request
+ * asíncrono (las exportaciones en streaming) y la cancela si el request vence o
+ * el contenedor lo da por terminado: la consulta en curso se corta con
+ * {@link Statement#cancel()} en vez de seguir ocupando la conexión.
+ *
+ * <p>Los DataSource pasan cada conexión por {@link #track}; fuera de un request
+ * asíncrono la devuelven tal cual.
+ */
+@Slf4j
+final class RunningStatements {
+
+    private static final ThreadLocal<RunningStatements> CURRENT = new ThreadLocal<>();
+
+    private final Set<Tracked> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    static RunningStatements open() {
+        RunningStatements statements = new RunningStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static Connection track(Connection connection) {
+        RunningStatements statements = CURRENT.get();
+        if (statements == null) {
+            return connection;
+        }
+        Tracked tracked = statements.new Tracked(connection);
+        statements.connections.add(tracked);
+        return (Connection) Proxy.newProxyInstance(RunningStatements.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, tracked);
+    }
+
+    /**
+     * Cancela las sentencias en curso; las que se quieran crear después fallan
+     * con SQLSTATE 57014, igual que una cancelada.
+     */
+    void cancel() {
+        cancelled = true;
+        for (Tracked connection : connections) {
+            for (Statement statement : connection.statements) {
+                try {
+                    statement.cancel();
+                } catch (SQLException ex) {
+                    log.debug("No se pudo cancelar la sentencia: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private final class Tracked implements InvocationHandler {
+
+        private final Connection target;
+        private final List<Statement> statements = new CopyOnWriteArrayList<>();
+
+        Tracked(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "close" -> connections.remove(this);
+                default -> { }
+            }
+            boolean createsStatement = Statement.class.isAssignableFrom(method.getReturnType());
+            if (createsStatement && cancelled) {
+                throw new SQLException("La consulta se canceló porque el request terminó", "57014");
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+            if (createsStatement) {
+                statements.add((Statement) result);
+            }
+            return result;
+        }
+    }
+}
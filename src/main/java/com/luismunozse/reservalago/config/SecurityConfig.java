@@ -1,5 +1,6 @@
 package com.luismunozse.reservalago.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +24,7 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -30,11 +32,17 @@ public class SecurityConfig {
         http.cors(Customizer.withDefaults());
         
         http.authorizeHttpRequests(auth -> auth
+                // Fin de una respuesta en streaming: el request original ya se autorizó
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()  // Login público
                 // Gestión de usuarios: solo ADMIN completo
                 .requestMatchers("/api/admin/users/**").hasRole("ADMIN")
                 // Resto de endpoints admin: ADMIN y MANAGER (admin limitado)
                 .requestMatchers("/api/admin/**").hasAnyRole("ADMIN", "MANAGER")
+                // Estadísticas de Hibernate: incluyen SQL, solo ADMIN
+                .requestMatchers("/actuator/hibernate", "/actuator/hibernate/**").hasRole("ADMIN")
+                // Métricas: volumen de reservas, tiempos y nombres de métodos, solo ADMIN
+                .requestMatchers("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                 .requestMatchers(
                         "/v3/api-docs/**",
                         "/swagger-ui.html",
@@ -52,8 +60,11 @@ public class SecurityConfig {
         // Agregar filtro de Rate Limit (primero en la cadena)
         http.addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
 
-        // Agregar filtro JWT después del Rate Limit
-        http.addFilterAfter(jwtAuthFilter, RateLimitFilter.class);
+        // Límite de altas en curso: después del Rate Limit, que descarta antes el abuso por IP
+        http.addFilterAfter(concurrencyLimitFilter, RateLimitFilter.class);
+
+        // Agregar filtro JWT después del límite de concurrencia
+        http.addFilterAfter(jwtAuthFilter, ConcurrencyLimitFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,31 @@
+package com.luismunozse.reservalago.config;
+
+/**
+ * Tipos de carga con pool de conexiones propio (ver {@link WorkloadRoutingDataSource}).
+ * Cada pool tiene su tamaño máximo, así una exportación larga o un listado
+ * pesado del panel no dejan sin conexiones a las reservas del público.
+ */
+public enum Workload {
+
+    /** Reservas y consultas de disponibilidad del sitio público; también lo que no declara carga. */
+    BOOKING(10),
+    /** Listados, estadísticas, exportaciones e importaciones del panel de administración. */
+    ADMIN(4),
+    /** Tareas programadas y exportaciones en segundo plano. */
+    BACKGROUND(2);
+
+    private final int defaultPoolSize;
+
+    Workload(int defaultPoolSize) {
+        this.defaultPoolSize = defaultPoolSize;
+    }
+
+    int defaultPoolSize() {
+        return defaultPoolSize;
+    }
+
+    /** Nombre en la configuración ({@code app.datasource.pools.<nombre>}) y en el pool. */
+    String configName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,91 @@
+package com.luismunozse.reservalago.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reemplaza el pool único de Spring Boot por uno por {@link Workload}. Cada pool
+ * toma la conexión de {@code spring.datasource.*}, la configuración común de
+ * {@code spring.datasource.hikari.*} y la propia de
+ * {@code app.datasource.pools.<carga>.*} (por ejemplo maximum-pool-size), y
+ * publica sus métricas hikaricp_* con el tag pool=reservalago-&lt;carga&gt;.
+ *
+ * <p>Con {@code app.datasource.replica.urls} las lecturas readOnly van además a
+ * las réplicas (ver {@link ReadReplicaDataSource}), cada una con su pool
+ * configurado en {@code app.datasource.pools.replica.*}.
+ *
+ * <p>Los pools no son beans: el único DataSource del contexto es el que enruta.
+ */
+@Slf4j
+@Configuration
+public class WorkloadDataSourceConfig {
+
+    private static final String REPLICA = "replica";
+    private static final int REPLICA_POOL_SIZE = 4;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            HikariDataSource pool = pool(properties.initializeDataSourceBuilder(), binder, workload.configName(),
+                    workload.defaultPoolSize(), meterRegistry);
+            pools.put(workload, pool);
+        }
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(pools);
+
+        List<String> replicaUrls = binder.bind("app.datasource.replica.urls", Bindable.listOf(String.class))
+                .orElse(List.of());
+        if (replicaUrls.isEmpty()) {
+            return routing;
+        }
+        routing.afterPropertiesSet();
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = REPLICA + "-" + (i + 1);
+            replicas.put(name, pool(properties.initializeDataSourceBuilder().url(replicaUrls.get(i)), binder,
+                    REPLICA, REPLICA_POOL_SIZE, meterRegistry, name));
+        }
+        return new ReadReplicaDataSource(routing, replicas,
+                binder.bind("app.datasource.replica.max-lag", Duration.class).orElse(Duration.ofSeconds(5)),
+                binder.bind("app.datasource.replica.check-interval", Duration.class).orElse(Duration.ofSeconds(2)),
+                binder.bind("app.datasource.replica.sticky-window", Duration.class).orElse(Duration.ofSeconds(10)),
+                meterRegistry);
+    }
+
+    private static HikariDataSource pool(DataSourceBuilder<?> builder, Binder binder, String configName,
+                                         int defaultPoolSize, MeterRegistry meterRegistry) {
+        return pool(builder, binder, configName, defaultPoolSize, meterRegistry, configName);
+    }
+
+    private static HikariDataSource pool(DataSourceBuilder<?> builder, Binder binder, String configName,
+                                         int defaultPoolSize, MeterRegistry meterRegistry, String name) {
+        HikariDataSource pool = builder.type(HikariDataSource.class).build();
+        pool.setMaximumPoolSize(defaultPoolSize);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        binder.bind("app.datasource.pools." + configName, Bindable.ofInstance(pool));
+        pool.setPoolName("reservalago-" + name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        log.info("Pool de conexiones {}: máximo={}, espera={} ms",
+                pool.getPoolName(), pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+        return pool;
+    }
+}
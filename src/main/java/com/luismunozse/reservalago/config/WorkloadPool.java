@@ -0,0 +1,24 @@
+package com.luismunozse.reservalago.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pool de conexiones que usa el método (o todos los de la clase). La anotación
+ * del método tiene prioridad sobre la de la clase, y la carga la decide el
+ * primer método anotado de la llamada: una exportación del panel que pasa por
+ * un método de reservas sigue en el pool de administración.
+ *
+ * <p>La conexión se toma al abrir la transacción, así que la anotación va en el
+ * bean que la abre (o en uno que lo llama), no en un método privado.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface WorkloadPool {
+
+    Workload value();
+}
@@ -0,0 +1,47 @@
+package com.luismunozse.reservalago.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Fija la carga de {@link WorkloadPool} durante la llamada. Corre antes que
+ * cualquier otro interceptor, en particular antes de @Transactional, que es el
+ * que toma la conexión.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadPoolAspect {
+
+    @Around("@annotation(com.luismunozse.reservalago.config.WorkloadPool)"
+            + " || @within(com.luismunozse.reservalago.config.WorkloadPool)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!WorkloadRoutingDataSource.bind(workloadOf(joinPoint))) {
+            return joinPoint.proceed();
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadRoutingDataSource.unbind();
+        }
+    }
+
+    private static Workload workloadOf(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        WorkloadPool pool = AnnotatedElementUtils.findMergedAnnotation(method, WorkloadPool.class);
+        if (pool == null) {
+            pool = AnnotatedElementUtils.findMergedAnnotation(targetClass, WorkloadPool.class);
+        }
+        return pool != null ? pool.value() : Workload.BOOKING;
+    }
+}
@@ -0,0 +1,91 @@
+package com.luismunozse.reservalago.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * DataSource de la aplicación: un pool Hikari por {@link Workload} y cada
+ * conexión nueva sale del pool de la carga del hilo actual, que fija
+ * {@link WorkloadPoolAspect} según {@link WorkloadPool} (o {@link #callAs} en
+ * código que no pasa por un bean). Sin carga, usa el de reservas.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private final Map<Workload, HikariDataSource> pools;
+
+    WorkloadRoutingDataSource(Map<Workload, HikariDataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.BOOKING));
+        setLenientFallback(false);
+    }
+
+    /**
+     * Ejecuta la tarea con la carga indicada, salvo que el hilo ya tenga una.
+     */
+    public static <T> T callAs(Workload workload, Supplier<T> task) {
+        boolean bound = bind(workload);
+        try {
+            return task.get();
+        } finally {
+            if (bound) {
+                unbind();
+            }
+        }
+    }
+
+    public static void runAs(Workload workload, Runnable task) {
+        callAs(workload, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.BOOKING;
+    }
+
+    /**
+     * @return false si el hilo ya tenía una carga (y se mantiene esa)
+     */
+    static boolean bind(Workload workload) {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(workload);
+        return true;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    HikariDataSource pool(Workload workload) {
+        return pools.get(workload);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return RunningStatements.track(super.getConnection());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return current();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -1,15 +1,25 @@
 package com.luismunozse.reservalago.controller;
 
 import com.luismunozse.reservalago.dto.AdminReservationDTO;
+import com.luismunozse.reservalago.dto.BulkReservationRequest;
+import com.luismunozse.reservalago.dto.BulkReservationResponse;
 import com.luismunozse.reservalago.dto.CapacityRequest;
 import com.luismunozse.reservalago.dto.CreateEventRequest;
 import com.luismunozse.reservalago.dto.EducationalReservationsRequest;
+import com.luismunozse.reservalago.dto.ExportFormat;
+import com.luismunozse.reservalago.dto.ExportJobDTO;
 import com.luismunozse.reservalago.dto.ExportReservationsFilter;
+import com.luismunozse.reservalago.dto.ImportReservationsResponse;
+import com.luismunozse.reservalago.dto.PageCountMode;
+import com.luismunozse.reservalago.dto.ReservationStatsDTO;
 import jakarta.validation.Valid;
 import com.luismunozse.reservalago.model.AvailabilityRule;
 import com.luismunozse.reservalago.model.ReservationStatus;
 import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
+import com.luismunozse.reservalago.service.ExportJobService;
+import com.luismunozse.reservalago.service.ReservationImportService;
 import com.luismunozse.reservalago.service.ReservationService;
+import com.luismunozse.reservalago.service.ReservationStatsService;
 import com.luismunozse.reservalago.service.SystemConfigService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,8 +31,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -30,9 +42,12 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Tag(name = "Admin")
@@ -45,6 +60,9 @@ public class AdminController {
     private final AvailabilityRuleRepository availability;
     private final ReservationService reservationService;
     private final SystemConfigService systemConfigService;
+    private final ReservationStatsService reservationStatsService;
+    private final ReservationImportService reservationImportService;
+    private final ExportJobService exportJobService;
 
     @Operation(summary = "Upsert de capacidad por día",
             description = "Crea o actualiza la capacidad máxima de visitantes para una fecha específica")
@@ -94,19 +112,127 @@ public class AdminController {
                 .body(data);
     }
 
+    @Operation(summary = "Exportar reservas en CSV o NDJSON (streaming)",
+            description = "Exporta las reservas fila por fila a medida que se leen de la base, sin límite de registros. Mismos filtros y columnas que la exportación Excel. format: csv (defecto) o ndjson. Si el cliente envía Accept-Encoding: gzip la respuesta se comprime")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado en streaming",
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "400", description = "Formato no soportado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos para exportar reservas")
+    })
+    @GetMapping("/reservations/export/stream")
+    public ResponseEntity<StreamingResponseBody> exportStream(
+            @ModelAttribute ExportReservationsFilter filter,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        if (exportFormat == ExportFormat.XLSX) {
+            throw new IllegalArgumentException("Para XLSX use /api/admin/reservations/export");
+        }
+        java.time.YearMonth ym = null;
+        if (filter.getMonth() != null && !filter.getMonth().isBlank()) {
+            ym = java.time.YearMonth.parse(filter.getMonth());
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        log.info("Admin: exportación en streaming formato={}, gzip={}", exportFormat, gzip);
+
+        // Se ejecuta fuera del hilo del request; la transacción (y el cursor) se abre adentro
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                reservationService.streamExport(filter, exportFormat, false, compressed);
+                compressed.finish();
+            } else {
+                reservationService.streamExport(filter, exportFormat, false, out);
+            }
+        };
+
+        String filename = buildExportFilename(filter.getDate(), ym, filter.getYear(), exportFormat);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @Operation(summary = "Crear una exportación asíncrona",
+            description = "Encola la exportación con los filtros del cuerpo y devuelve el id del trabajo sin esperar a que se genere el archivo. format: xlsx (defecto), csv o ndjson. Si ya hay una exportación idéntica en curso se devuelve esa")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Trabajo encolado o en curso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ExportJobDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Formato no soportado"),
+            @ApiResponse(responseCode = "503", description = "Cola de exportaciones llena",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = """
+                                    { "error": "Hay demasiadas exportaciones en curso. Intente nuevamente en unos minutos." }
+                                    """)))
+    })
+    @PostMapping("/reservations/export/jobs")
+    public ResponseEntity<ExportJobDTO> submitExportJob(@RequestBody ExportReservationsFilter filter,
+                                                        @RequestParam(defaultValue = "xlsx") String format) {
+        ExportJobDTO job = exportJobService.submit(filter, ExportFormat.from(format));
+        return ResponseEntity.accepted()
+                .location(java.net.URI.create("/api/admin/reservations/export/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @Operation(summary = "Consultar una exportación asíncrona",
+            description = "Estado y progreso (filas escritas) del trabajo. Cuando status = DONE el archivo se descarga desde /file hasta expiresAt")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado del trabajo",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ExportJobDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Trabajo inexistente o vencido")
+    })
+    @GetMapping("/reservations/export/jobs/{id}")
+    public ExportJobDTO exportJobStatus(@PathVariable java.util.UUID id) {
+        return exportJobService.status(id);
+    }
+
+    @Operation(summary = "Descargar el archivo de una exportación asíncrona")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "404", description = "Trabajo inexistente o vencido"),
+            @ApiResponse(responseCode = "409", description = "El trabajo todavía no terminó")
+    })
+    @GetMapping("/reservations/export/jobs/{id}/file")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable java.util.UUID id) {
+        ExportJobService.Artifact artifact = exportJobService.artifact(id);
+        ExportReservationsFilter filter = artifact.filter();
+        java.time.YearMonth ym = filter.getMonth() != null && !filter.getMonth().isBlank()
+                ? java.time.YearMonth.parse(filter.getMonth())
+                : null;
+        String filename = buildExportFilename(filter.getDate(), ym, filter.getYear(), artifact.format());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(artifact.format().contentType()))
+                .body(new FileSystemResource(artifact.path()));
+    }
+
     private String buildExportFilename(LocalDate date, java.time.YearMonth ym, Integer year) {
+        return buildExportFilename(date, ym, year, ExportFormat.XLSX);
+    }
+
+    private String buildExportFilename(LocalDate date, java.time.YearMonth ym, Integer year, ExportFormat format) {
         if (date != null) {
-            return String.format("reservas_%s.xlsx", date);
+            return String.format("reservas_%s.%s", date, format.extension());
         } else if (ym != null) {
-            return String.format("reservas_%s.xlsx", ym);
+            return String.format("reservas_%s.%s", ym, format.extension());
         } else if (year != null) {
-            return String.format("reservas_%s.xlsx", year);
+            return String.format("reservas_%s.%s", year, format.extension());
         }
-        return "reservas.xlsx";
+        return "reservas." + format.extension();
     }
 
     @Operation(summary = "Listar reservas paginadas",
-            description = "Lista reservas con paginación y filtros. Parámetros: page (0-indexed), size (default 20), sort (ej: createdAt,desc)")
+            description = "Lista reservas con paginación y filtros. Parámetros: page (0-indexed), size (default 20), sort (ej: createdAt,desc). "
+                    + "count=estimated (default) usa un total aproximado sin filtros y exacto con filtros; "
+                    + "count=exact siempre cuenta; count=none no devuelve totalElements/totalPages, solo last")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Página de reservas",
                     content = @Content(mediaType = "application/json",
@@ -115,15 +241,34 @@ public class AdminController {
             @ApiResponse(responseCode = "403", description = "Sin permisos para ver reservas")
     })
     @GetMapping({"/reservations", "/reservations/"})
-    public Page<AdminReservationDTO> listReservations(
+    public Slice<AdminReservationDTO> listReservations(
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(required = false) ReservationStatus status,
             @RequestParam(required = false) String dni,
             @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "estimated") String count,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
     ) {
-        return reservationService.adminListPaged(date, status, dni, name, pageable);
+        return reservationService.adminListPaged(date, status, dni, name, pageable, PageCountMode.from(count));
+    }
+
+    @Operation(summary = "Estadísticas de reservas",
+            description = "Totales de reservas y personas por estado, circuito, tipo de visitante, canal de difusión y día, "
+                    + "calculados sobre agregados precalculados. Por defecto devuelve el mes actual. Rango máximo: 2 años.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas del período",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReservationStatsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/stats")
+    public ReservationStatsDTO stats(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reservationStatsService.getStats(from, to);
     }
 
     @Operation(summary = "Confirmar una reserva",
@@ -175,6 +320,43 @@ public class AdminController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Operación masiva sobre reservas",
+            description = "Confirma, cancela o elimina varias reservas en una sola transacción. Devuelve el resultado por cada id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operación aplicada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkReservationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = """
+                                    { "error": "ids: Debe indicar al menos una reserva" }
+                                    """)))
+    })
+    @PostMapping("/reservations/bulk")
+    public BulkReservationResponse bulkReservations(@Valid @RequestBody BulkReservationRequest request) {
+        log.info("Admin: operación masiva accion={}, reservas={}", request.action(), request.ids().size());
+        return reservationService.bulkAction(request);
+    }
+
+    @Operation(summary = "Importar reservas de instituciones educativas",
+            description = "Crea reservas a partir de una planilla XLSX o CSV con una fila por visitante. Columnas obligatorias: fecha, institucion, circuito, responsable_nombre, responsable_apellido, responsable_dni, telefono, email, nombre, apellido, dni. Opcionales: localidad, tipo (ALUMNO o DOCENTE). Las filas con la misma fecha y responsable forman una reserva. Límite: 5,000 filas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo procesado; el resultado de cada fila está en 'results'",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ImportReservationsResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Formato no soportado, columnas faltantes o demasiadas filas",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = """
+                                    { "error": "Faltan columnas obligatorias: responsable_dni" }
+                                    """))),
+            @ApiResponse(responseCode = "413", description = "El archivo supera el tamaño máximo")
+    })
+    @PostMapping(value = "/reservations/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportReservationsResponse importReservations(@RequestParam("file") MultipartFile file) {
+        log.info("Admin: importando reservas archivo={}, bytes={}", file.getOriginalFilename(), file.getSize());
+        return reservationImportService.importFile(file);
+    }
+
     @Operation(summary = "Crear un evento (reserva tipo EVENT)",
             description = "Crea una reserva especial de tipo EVENT con capacidad (cupo) predefinida")
     @ApiResponses(value = {
@@ -1,13 +1,17 @@
 package com.luismunozse.reservalago.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
@@ -65,6 +69,44 @@ public class ApiExceptionHandler {
         return Map.of("error", "Los datos ingresados ya existen o violan una restricción.");
     }
 
+    /**
+     * Fallas de serialización o bloqueo (SQLSTATE 40001/40P01) al reservar en
+     * simultáneo la misma fecha. La transacción se revirtió completa, así que
+     * el cliente puede reintentar sin riesgo.
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    Map<String, String> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        log.warn("Conflicto de concurrencia: {}", ex.getMessage());
+        return Map.of("error", "La fecha está recibiendo otras reservas en este momento. Intente nuevamente.");
+    }
+
+    /**
+     * Consulta cortada por statement_timeout (ver QueryTimeout) o cancelada
+     * (SQLSTATE 57014). La conexión ya quedó libre; con filtros más acotados la
+     * misma consulta puede entrar en el tiempo.
+     */
+    @ExceptionHandler(QueryTimeoutException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    Map<String, String> handleQueryTimeout(QueryTimeoutException ex) {
+        log.warn("Consulta cortada por tiempo: {}", ex.getMessage());
+        return Map.of("error", "La consulta tardó demasiado. Acote los filtros (fecha, estado) e intente nuevamente.");
+    }
+
+    @ExceptionHandler(MissingServletRequestPartException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    Map<String, String> handleMissingPart(MissingServletRequestPartException ex) {
+        log.warn("Falta la parte '{}' en la solicitud multipart", ex.getRequestPartName());
+        return Map.of("error", "Falta el archivo '" + ex.getRequestPartName() + "'");
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    Map<String, String> handleMaxUploadSize(MaxUploadSizeExceededException ex) {
+        log.warn("Archivo demasiado grande: {}", ex.getMessage());
+        return Map.of("error", "El archivo supera el tamaño máximo permitido");
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     Map<String,String> handleGeneric(Exception ex){
@@ -4,6 +4,7 @@ import com.luismunozse.reservalago.dto.CreateReservationRequest;
 import com.luismunozse.reservalago.dto.ReservationSummaryDTO;
 import com.luismunozse.reservalago.service.ReservationService;
 import com.luismunozse.reservalago.service.AvailabilityService;
+import com.luismunozse.reservalago.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -22,6 +23,7 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -32,6 +34,7 @@ public class PublicController {
 
     private final ReservationService reservationService;
     private final AvailabilityService availabilityService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(
             summary = "Disponibilidad",
@@ -101,10 +104,26 @@ public class PublicController {
     })
     @PostMapping("/reservations")
     @ResponseStatus(HttpStatus.CREATED)
-    public Map<String, String> create(@Valid @RequestBody CreateReservationRequest req) {
+    public Map<String, String> create(
+            @Valid @RequestBody CreateReservationRequest req,
+            @Parameter(description = "Clave única por intento de reserva; los reintentos con la misma clave devuelven la reserva original")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Nueva reserva recibida: fecha={}, tipo={}, email={}",
                 req.visitDate(), req.visitorType(), req.email());
-        UUID id = reservationService.create(req);
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            UUID id = reservationService.create(req);
+            return Map.of("id", id.toString(), "status", "PENDING");
+        }
+
+        // Reintento: devolver la reserva original sin abrir la transacción de creación
+        Optional<UUID> replay = idempotencyService.findReplay(idempotencyKey, req);
+        if (replay.isPresent()) {
+            log.info("Reintento idempotente: key={}, id={}", idempotencyKey, replay.get());
+            return Map.of("id", replay.get().toString(), "status", "PENDING");
+        }
+
+        UUID id = reservationService.create(req, idempotencyKey);
         return Map.of("id", id.toString(), "status", "PENDING");
     }
 
@@ -119,7 +138,7 @@ public class PublicController {
     })
     @GetMapping("/reservations/{id}")
     public ReservationSummaryDTO get(@PathVariable UUID id){
-        return ReservationSummaryDTO.from(reservationService.findById(id));
+        return reservationService.findSummary(id);
     }
 
 }
@@ -0,0 +1,26 @@
+package com.luismunozse.reservalago.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Operación masiva sobre un conjunto de reservas")
+public record BulkReservationRequest(
+        @NotNull(message = "La acción es obligatoria")
+        @Schema(example = "CONFIRM", allowableValues = {"CONFIRM", "CANCEL", "DELETE"})
+        Action action,
+
+        @NotEmpty(message = "Debe indicar al menos una reserva")
+        @Size(max = 500, message = "No se pueden procesar más de 500 reservas por solicitud")
+        List<UUID> ids
+) {
+    public enum Action {
+        CONFIRM,
+        CANCEL,
+        DELETE
+    }
+}
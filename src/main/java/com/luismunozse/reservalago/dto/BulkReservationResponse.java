@@ -0,0 +1,13 @@
+package com.luismunozse.reservalago.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Resumen de una operación masiva sobre reservas")
+public record BulkReservationResponse(
+        BulkReservationRequest.Action action,
+        @Schema(description = "Cantidad de reservas efectivamente modificadas o eliminadas", example = "38")
+        int affected,
+        List<BulkReservationResult> results
+) {}
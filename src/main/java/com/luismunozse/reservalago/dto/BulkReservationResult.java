@@ -0,0 +1,20 @@
+package com.luismunozse.reservalago.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Resultado de una operación masiva para una reserva")
+public record BulkReservationResult(
+        UUID id,
+        @Schema(example = "UPDATED", allowableValues = {"UPDATED", "DELETED", "UNCHANGED", "NOT_FOUND", "CONFLICT"})
+        Outcome outcome
+) {
+    public enum Outcome {
+        UPDATED,    // Estado modificado
+        DELETED,    // Reserva eliminada
+        UNCHANGED,  // Ya estaba en el estado solicitado
+        NOT_FOUND,
+        CONFLICT    // Cancelada que no se puede confirmar: su fecha + DNI ya tiene una reserva activa
+    }
+}
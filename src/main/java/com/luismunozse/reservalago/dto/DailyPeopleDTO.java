@@ -0,0 +1,8 @@
+package com.luismunozse.reservalago.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Personas reservadas (sin canceladas) en una fecha.
+ */
+public record DailyPeopleDTO(LocalDate date, long people) {}
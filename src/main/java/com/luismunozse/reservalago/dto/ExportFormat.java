@@ -0,0 +1,38 @@
+package com.luismunozse.reservalago.dto;
+
+import java.util.Locale;
+
+/**
+ * Formatos de exportación de reservas. XLSX arma el libro completo en memoria;
+ * CSV y NDJSON se escriben fila por fila.
+ */
+public enum ExportFormat {
+
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + value);
+        }
+    }
+}
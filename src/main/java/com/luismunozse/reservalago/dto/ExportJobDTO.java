@@ -0,0 +1,29 @@
+package com.luismunozse.reservalago.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Estado de un trabajo de exportación asíncrona")
+public record ExportJobDTO(
+        UUID id,
+        @Schema(example = "RUNNING", allowableValues = {"QUEUED", "RUNNING", "DONE", "FAILED"})
+        Status status,
+        ExportFormat format,
+        @Schema(description = "Filas escritas hasta el momento", example = "12500")
+        long processedRows,
+        Instant createdAt,
+        Instant finishedAt,
+        @Schema(description = "Momento en que se borra el archivo generado")
+        Instant expiresAt,
+        @Schema(description = "Motivo del fallo, si status = FAILED")
+        String error
+) {
+    public enum Status {
+        QUEUED,   // Esperando un worker libre
+        RUNNING,  // Generando el archivo
+        DONE,     // Archivo listo para descargar
+        FAILED
+    }
+}
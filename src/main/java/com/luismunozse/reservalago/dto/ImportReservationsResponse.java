@@ -0,0 +1,16 @@
+package com.luismunozse.reservalago.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Resumen de una importación masiva de reservas desde XLSX o CSV")
+public record ImportReservationsResponse(
+        @Schema(description = "Filas leídas (sin contar el encabezado ni las vacías)", example = "120")
+        int rows,
+        @Schema(description = "Reservas creadas (una por fecha y responsable)", example = "3")
+        int reservationsCreated,
+        @Schema(description = "Filas rechazadas", example = "2")
+        int rowsRejected,
+        List<ImportRowResult> results
+) {}
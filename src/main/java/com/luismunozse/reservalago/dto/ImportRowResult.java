@@ -0,0 +1,22 @@
+package com.luismunozse.reservalago.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Resultado de la importación para una fila de la planilla")
+public record ImportRowResult(
+        @Schema(description = "Número de fila en la planilla (el encabezado es la fila 1)", example = "2")
+        int row,
+        @Schema(example = "CREATED", allowableValues = {"CREATED", "REJECTED"})
+        Outcome outcome,
+        @Schema(description = "Reserva a la que se sumó la fila, si fue creada")
+        UUID reservationId,
+        @Schema(description = "Motivo del rechazo", example = "dni debe tener exactamente 8 digitos")
+        String error
+) {
+    public enum Outcome {
+        CREATED,   // La fila forma parte de una reserva creada
+        REJECTED   // La fila o su grupo no pasaron la validación
+    }
+}
@@ -0,0 +1,26 @@
+package com.luismunozse.reservalago.dto;
+
+import java.util.Locale;
+
+/**
+ * Cómo se calcula el total de un listado paginado.
+ */
+public enum PageCountMode {
+
+    /** count(*) sobre los mismos filtros: una consulta más por página. */
+    EXACT,
+
+    /** Sin filtros, el total sale de la estadística de la tabla (pg_class); con filtros, exacto. */
+    ESTIMATED,
+
+    /** Sin total: solo indica si hay página siguiente. */
+    NONE;
+
+    public static PageCountMode from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Modo de conteo no soportado: " + value);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.luismunozse.reservalago.dto;
+
+import com.luismunozse.reservalago.model.ReservationStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Proyección mínima de una reserva con los datos necesarios para notificar
+ * al titular, sin cargar la entidad completa ni sus visitantes.
+ */
+public record ReservationContactDTO(
+        UUID id,
+        LocalDate visitDate,
+        String phone,
+        ReservationStatus status
+) {}
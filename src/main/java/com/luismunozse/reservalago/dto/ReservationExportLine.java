@@ -0,0 +1,46 @@
+package com.luismunozse.reservalago.dto;
+
+import com.luismunozse.reservalago.service.ContactMasking;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Una fila de la exportación en streaming (CSV/NDJSON): el titular de la reserva
+ * o uno de sus visitantes, con las mismas columnas que el XLSX. En las filas de
+ * visitante los datos propios de la reserva quedan en null.
+ */
+public record ReservationExportLine(
+        UUID id,
+        String role,
+        LocalDate visitDate,
+        String status,
+        String firstName,
+        String lastName,
+        String dni,
+        String email,
+        String phone,
+        String vehiclePlate,
+        String visitorType,
+        String circuit,
+        String originLocation,
+        Integer adults18Plus,
+        Integer children2To17,
+        Integer babiesLessThan2,
+        Integer reducedMobility,
+        Instant createdAt
+) {
+    public static final String ROLE_HOLDER = "Titular";
+    public static final String ROLE_VISITOR = "Visitante";
+
+    /**
+     * Copia con DNI, email y teléfono enmascarados, igual que el XLSX con maskContacts.
+     */
+    public ReservationExportLine masked() {
+        return new ReservationExportLine(id, role, visitDate, status, firstName, lastName,
+                ContactMasking.mask(dni), email == null ? null : ContactMasking.mask(email),
+                phone == null ? null : ContactMasking.mask(phone), vehiclePlate, visitorType, circuit,
+                originLocation, adults18Plus, children2To17, babiesLessThan2, reducedMobility, createdAt);
+    }
+}
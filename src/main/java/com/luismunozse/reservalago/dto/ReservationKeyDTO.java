@@ -0,0 +1,9 @@
+package com.luismunozse.reservalago.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Fecha y DNI del titular de una reserva existente, para detectar duplicados
+ * de varias reservas en una sola consulta.
+ */
+public record ReservationKeyDTO(LocalDate visitDate, String dni) {}
@@ -0,0 +1,36 @@
+package com.luismunozse.reservalago.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Estadísticas de reservas para el tablero de administración")
+public record ReservationStatsDTO(
+        LocalDate from,
+        LocalDate to,
+        @Schema(description = "Totales sin contar reservas canceladas")
+        Count total,
+        @Schema(description = "Totales por estado (incluye canceladas)")
+        Map<String, Count> byStatus,
+        @Schema(description = "Totales por circuito, sin canceladas")
+        Map<String, Count> byCircuit,
+        @Schema(description = "Totales por tipo de visitante, sin canceladas")
+        Map<String, Count> byVisitorType,
+        @Schema(description = "Totales por canal de difusión, sin canceladas")
+        Map<String, Count> byHowHeard,
+        @Schema(description = "Totales por día de visita, sin canceladas")
+        List<DailyCount> byDay,
+        @Schema(description = "Momento del último refresco de los agregados (null si aún no se refrescaron)")
+        Instant refreshedAt
+) {
+    public record Count(long reservations, long people) {
+        public Count plus(long reservations, long people) {
+            return new Count(this.reservations + reservations, this.people + people);
+        }
+    }
+
+    public record DailyCount(LocalDate date, long reservations, long people) {}
+}
@@ -0,0 +1,21 @@
+package com.luismunozse.reservalago.dto;
+
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+
+import java.time.LocalDate;
+
+/**
+ * Fila de la vista materializada reservation_daily_stats.
+ */
+public record ReservationStatsRow(
+        LocalDate visitDate,
+        Circuit circuit,
+        VisitorType visitorType,
+        HowHeard howHeard,
+        ReservationStatus status,
+        long reservations,
+        long people
+) {}
@@ -1,13 +1,19 @@
 package com.luismunozse.reservalago.model;
 
+import com.luismunozse.reservalago.config.CacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "availability_rules")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(CacheInvalidationListener.class)
 @Getter
 @Setter
 public class AvailabilityRule {
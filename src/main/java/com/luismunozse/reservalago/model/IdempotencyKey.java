@@ -0,0 +1,30 @@
+package com.luismunozse.reservalago.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idem_key", length = 100)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private UUID reservationId;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
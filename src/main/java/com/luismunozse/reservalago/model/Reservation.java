@@ -1,8 +1,12 @@
 package com.luismunozse.reservalago.model;
 
+import com.luismunozse.reservalago.config.CacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -10,6 +14,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "reservations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(CacheInvalidationListener.class)
 @Getter
 @Setter
 public class Reservation {
@@ -67,6 +74,8 @@ public class Reservation {
         this.updatedAt = Instant.now();
     }
 
+    // Listados y exportación: visitantes de hasta 100 reservas por consulta en lugar de una por reserva
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
     private java.util.List<ReservationVisitor> visitors = new java.util.ArrayList<>();
 
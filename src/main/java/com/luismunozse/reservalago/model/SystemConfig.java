@@ -1,13 +1,19 @@
 package com.luismunozse.reservalago.model;
 
+import com.luismunozse.reservalago.config.CacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "system_config")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(CacheInvalidationListener.class)
 @Getter
 @Setter
 public class SystemConfig {
@@ -1,11 +1,20 @@
 package com.luismunozse.reservalago.repo;
 
 import com.luismunozse.reservalago.model.AvailabilityRule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule,Long> {
+    // Cache de consultas: se invalida al guardar cualquier regla
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AvailabilityRule> findByDay(LocalDate day);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<AvailabilityRule> findByDayBetween(LocalDate from, LocalDate to);
 }
@@ -0,0 +1,38 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.model.IdempotencyKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Inserta la clave si no existe. Devuelve 0 si otra solicitud ya la registró
+     * (o la está registrando en una transacción concurrente).
+     * Declara la tabla afectada: sin ella Hibernate vacía todo el cache de segundo nivel.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+        INSERT INTO idempotency_keys (idem_key, request_hash, reservation_id, created_at, expires_at)
+        VALUES (:key, :requestHash, :reservationId, :createdAt, :expiresAt)
+        ON CONFLICT (idem_key) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key,
+                       @Param("requestHash") String requestHash,
+                       @Param("reservationId") UUID reservationId,
+                       @Param("createdAt") Instant createdAt,
+                       @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
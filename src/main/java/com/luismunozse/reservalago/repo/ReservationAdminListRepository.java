@@ -0,0 +1,174 @@
+package com.luismunozse.reservalago.repo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.luismunozse.reservalago.dto.AdminReservationDTO;
+import com.luismunozse.reservalago.dto.AdminVisitorDTO;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Modelo de lectura de la grilla de administración. Selecciona solo las columnas
+ * de {@link AdminReservationDTO} y arma los visitantes en la misma consulta con
+ * json_agg, así cada página es una sola sentencia y no se hidratan entidades ni
+ * se cargan colecciones perezosas.
+ */
+@Repository
+@Timed(value = "reservalago.repository", description = "Consultas JDBC fuera de Spring Data")
+public class ReservationAdminListRepository {
+
+    // Alcanza para una página grande en un solo viaje al servidor
+    static final int FETCH_SIZE = 200;
+
+    private static final String COLUMNS = """
+            r.id, r.visit_date, r.first_name, r.last_name, r.adults_18_plus, r.children_2_to_17,
+            r.babies_less_than_2, r.email, r.phone, r.vehicle_plate, r.circuit, r.visitor_type,
+            r.origin_location, r.status, r.created_at, r.dni, r.reduced_mobility, r.comment""";
+
+    // Mismo orden que ReservationMapper.toAdminDTO: por nombre, sin distinguir mayúsculas
+    private static final String VISITORS = """
+            (SELECT COALESCE(json_agg(json_build_object(
+                        'firstName', v.first_name, 'lastName', v.last_name,
+                        'dni', v.dni, 'phone', v.phone)
+                    ORDER BY LOWER(v.first_name) NULLS LAST), '[]')
+             FROM reservation_visitors v WHERE v.reservation_id = p.id) AS visitors""";
+
+    // Propiedades ordenables de la grilla → columna
+    private static final Map<String, String> SORT_COLUMNS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("visitDate", "visit_date"),
+            Map.entry("firstName", "first_name"),
+            Map.entry("lastName", "last_name"),
+            Map.entry("dni", "dni"),
+            Map.entry("email", "email"),
+            Map.entry("phone", "phone"),
+            Map.entry("circuit", "circuit"),
+            Map.entry("visitorType", "visitor_type"),
+            Map.entry("originLocation", "origin_location"),
+            Map.entry("status", "status"),
+            Map.entry("createdAt", "created_at"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader visitorsReader;
+
+    public ReservationAdminListRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.visitorsReader = objectMapper.readerForListOf(AdminVisitorDTO.class);
+    }
+
+    /**
+     * Una página del listado. La página se recorta primero (LIMIT/OFFSET sobre
+     * reservations) y recién después se agregan los visitantes de esas filas.
+     *
+     * @param limit filas a traer; pedir una más que el tamaño de página permite
+     *              saber si hay página siguiente sin contar
+     * @throws InvalidDataAccessApiUsageException si se ordena por una propiedad no
+     *         soportada (igual que Spring Data con una propiedad inexistente)
+     */
+    public List<AdminReservationDTO> findPage(ReservationFilterSql filter, Sort sort, long offset, int limit) {
+        String sql = "SELECT p.*, " + VISITORS
+                + " FROM (SELECT " + COLUMNS + " FROM reservations r" + filter.where()
+                + orderBy("r", sort) + " LIMIT ? OFFSET ?) p"
+                + orderBy("p", sort);
+        List<Object> args = new ArrayList<>(filter.args());
+        args.add(limit);
+        args.add(offset);
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rowMapper());
+    }
+
+    /**
+     * Total exacto de reservas que cumplen los filtros.
+     */
+    public long count(ReservationFilterSql filter) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reservations r" + filter.where(), Long.class, filter.args().toArray());
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * ORDER BY con las columnas de la whitelist y el id como desempate, para que
+     * el recorte por página sea estable entre consultas.
+     */
+    static String orderBy(String alias, Sort sort) {
+        StringJoiner order = new StringJoiner(", ", " ORDER BY ", "");
+        boolean byId = false;
+        for (Sort.Order o : sort) {
+            String column = SORT_COLUMNS.get(o.getProperty());
+            if (column == null) {
+                throw new InvalidDataAccessApiUsageException("No se puede ordenar por: " + o.getProperty());
+            }
+            byId |= column.equals("id");
+            String nulls = switch (o.getNullHandling()) {
+                case NULLS_FIRST -> " NULLS FIRST";
+                case NULLS_LAST -> " NULLS LAST";
+                case NATIVE -> "";
+            };
+            order.add(alias + "." + column + (o.isAscending() ? " ASC" : " DESC") + nulls);
+        }
+        if (!byId) {
+            order.add(alias + ".id");
+        }
+        return order.toString();
+    }
+
+    private RowMapper<AdminReservationDTO> rowMapper() {
+        return (rs, rowNum) -> {
+            // created_at se guarda en UTC, igual que hibernate.jdbc.time_zone
+            LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+            return new AdminReservationDTO(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("visit_date", LocalDate.class),
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getInt("adults_18_plus"),
+                    rs.getInt("children_2_to_17"),
+                    rs.getInt("babies_less_than_2"),
+                    rs.getString("email"),
+                    rs.getString("phone"),
+                    rs.getString("vehicle_plate"),
+                    rs.getString("circuit"),
+                    rs.getString("visitor_type"),
+                    rs.getString("origin_location"),
+                    rs.getString("status"),
+                    createdAt != null ? createdAt.toInstant(ZoneOffset.UTC) : null,
+                    rs.getString("dni"),
+                    rs.getInt("reduced_mobility"),
+                    rs.getString("comment"),
+                    readVisitors(rs));
+        };
+    }
+
+    private List<AdminVisitorDTO> readVisitors(ResultSet rs) throws SQLException {
+        String json = rs.getString("visitors");
+        try {
+            return json == null ? List.of() : visitorsReader.readValue(json);
+        } catch (JsonProcessingException ex) {
+            throw new SQLException("Visitantes con formato inválido en la reserva " + rs.getString("id"), ex);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.dto.ReservationExportLine;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Lectura de reservas para la exportación en streaming. Recorre el resultado con
+ * un cursor del servidor (fetch size dentro de una transacción) y entrega cada
+ * fila sin materializar la lista ni pasar por el contexto de persistencia.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "reservalago.repository", description = "Consultas JDBC fuera de Spring Data")
+public class ReservationExportRepository {
+
+    // Filas que el driver trae por viaje; PostgreSQL solo usa cursor con autocommit desactivado
+    static final int FETCH_SIZE = 500;
+
+    private static final String SELECT = """
+        SELECT r.id, r.visit_date, r.status, r.first_name, r.last_name, r.dni, r.email, r.phone,
+               r.vehicle_plate, r.visitor_type, r.circuit, r.origin_location,
+               r.adults_18_plus, r.children_2_to_17, r.babies_less_than_2, r.reduced_mobility, r.created_at,
+               v.first_name AS v_first_name, v.last_name AS v_last_name, v.dni AS v_dni, v.phone AS v_phone
+        FROM reservations r
+        LEFT JOIN reservation_visitors v ON v.reservation_id = r.id
+        """;
+
+    private static final String ORDER_BY =
+            " ORDER BY r.visit_date, r.created_at DESC, r.id, v.last_name, v.first_name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Recorre las reservas que cumplen los filtros (todos opcionales) y entrega la
+     * fila del titular seguida de una fila por visitante. Debe llamarse dentro de
+     * una transacción para que el driver use el cursor.
+     *
+     * @param from primer día de visita (inclusive)
+     * @param to último día de visita (inclusive)
+     * @param dni DNI ya normalizado, del titular o de algún visitante
+     * @param name nombre o apellido (parcial, sin distinguir mayúsculas) del titular o de algún visitante
+     */
+    public void streamLines(LocalDate from, LocalDate to, ReservationStatus status, VisitorType visitorType,
+                            String dni, String name, Consumer<ReservationExportLine> lines) {
+        ReservationFilterSql filter = ReservationFilterSql.of(from, to, status, visitorType, dni, name);
+        String sql = SELECT + filter.where() + ORDER_BY;
+        List<Object> args = filter.args();
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, new LineEmitter(lines));
+    }
+
+    /**
+     * El resultado viene ordenado por reserva: cuando cambia el id se emite la fila
+     * del titular y luego una por cada visitante (el LEFT JOIN deja los campos del
+     * visitante en null si la reserva no tiene).
+     */
+    private static final class LineEmitter implements RowCallbackHandler {
+
+        private final Consumer<ReservationExportLine> lines;
+        private UUID current;
+
+        LineEmitter(Consumer<ReservationExportLine> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject("id", UUID.class);
+            LocalDate visitDate = rs.getObject("visit_date", LocalDate.class);
+            String status = rs.getString("status");
+            String circuit = rs.getString("circuit");
+            String originLocation = rs.getString("origin_location");
+
+            if (!id.equals(current)) {
+                current = id;
+                // created_at se guarda en UTC, igual que hibernate.jdbc.time_zone
+                LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+                lines.accept(new ReservationExportLine(
+                        id, ReservationExportLine.ROLE_HOLDER, visitDate, status,
+                        rs.getString("first_name"), rs.getString("last_name"), rs.getString("dni"),
+                        rs.getString("email"), rs.getString("phone"), rs.getString("vehicle_plate"),
+                        rs.getString("visitor_type"), circuit, originLocation,
+                        rs.getInt("adults_18_plus"), rs.getInt("children_2_to_17"),
+                        rs.getInt("babies_less_than_2"), rs.getInt("reduced_mobility"),
+                        createdAt != null ? createdAt.toInstant(ZoneOffset.UTC) : null));
+            }
+
+            String visitorDni = rs.getString("v_dni");
+            if (visitorDni != null) {
+                lines.accept(new ReservationExportLine(
+                        id, ReservationExportLine.ROLE_VISITOR, visitDate, status,
+                        rs.getString("v_first_name"), rs.getString("v_last_name"), visitorDni,
+                        null, rs.getString("v_phone"), null,
+                        ReservationExportLine.ROLE_VISITOR, circuit, originLocation,
+                        null, null, null, null, null));
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WHERE de las búsquedas de reservas por filtros opcionales (alias {@code r} para
+ * reservations). Solo incluye los predicados de los filtros informados, así cada
+ * combinación es una sentencia distinta con su propio plan y los rangos de fecha
+ * pueden usar el índice de visit_date. Los visitantes se buscan con subconsultas
+ * (EXISTS por nombre, IN por DNI) en vez de un JOIN, así que no hace falta DISTINCT.
+ */
+public final class ReservationFilterSql {
+
+    private final String where;
+    private final List<Object> args;
+
+    private ReservationFilterSql(String where, List<Object> args) {
+        this.where = where;
+        this.args = args;
+    }
+
+    /**
+     * @param from primer día de visita (inclusive)
+     * @param to último día de visita (inclusive)
+     * @param dni DNI ya normalizado, del titular o de algún visitante
+     * @param name nombre o apellido (parcial, sin distinguir mayúsculas) del titular o de algún visitante
+     */
+    public static ReservationFilterSql of(LocalDate from, LocalDate to, ReservationStatus status,
+                                          VisitorType visitorType, String dni, String name) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (from != null && from.equals(to)) {
+            conditions.add("r.visit_date = ?");
+            args.add(from);
+        } else {
+            if (from != null) {
+                conditions.add("r.visit_date >= ?");
+                args.add(from);
+            }
+            if (to != null) {
+                conditions.add("r.visit_date <= ?");
+                args.add(to);
+            }
+        }
+        if (status != null) {
+            conditions.add("r.status = ?");
+            args.add(status.name());
+        }
+        if (visitorType != null) {
+            conditions.add("r.visitor_type = ?");
+            args.add(visitorType.name());
+        }
+        if (dni != null && !dni.isBlank()) {
+            // IN con UNION ALL en vez de "r.dni = ? OR EXISTS": cada rama usa su índice por DNI
+            conditions.add("""
+                    r.id IN (SELECT rd.id FROM reservations rd WHERE rd.dni = ?
+                             UNION ALL
+                             SELECT vd.reservation_id FROM reservation_visitors vd WHERE vd.dni = ?)""");
+            args.add(dni);
+            args.add(dni);
+        }
+        addName(conditions, args, name);
+        return build(conditions, args);
+    }
+
+    /**
+     * Filtros del listado del panel: a diferencia de {@link #of}, el DNI se busca
+     * por coincidencia parcial (mientras se va tipeando) en titular y visitantes.
+     *
+     * @param date fecha exacta de visita
+     * @param dni parte de un DNI ya normalizado
+     */
+    public static ReservationFilterSql forAdminList(LocalDate date, ReservationStatus status, String dni, String name) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (date != null) {
+            conditions.add("r.visit_date = ?");
+            args.add(date);
+        }
+        if (status != null) {
+            conditions.add("r.status = ?");
+            args.add(status.name());
+        }
+        if (dni != null && !dni.isBlank()) {
+            String pattern = "%" + dni + "%";
+            conditions.add("""
+                    (r.dni LIKE ? OR EXISTS (SELECT 1 FROM reservation_visitors vd
+                                             WHERE vd.reservation_id = r.id AND vd.dni LIKE ?))""");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        addName(conditions, args, name);
+        return build(conditions, args);
+    }
+
+    private static void addName(List<String> conditions, List<Object> args, String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String pattern = "%" + name.toLowerCase() + "%";
+        conditions.add("""
+                (LOWER(r.first_name) LIKE ? OR LOWER(r.last_name) LIKE ?
+                 OR EXISTS (SELECT 1 FROM reservation_visitors vn
+                            WHERE vn.reservation_id = r.id
+                              AND (LOWER(vn.first_name) LIKE ? OR LOWER(vn.last_name) LIKE ?)))""");
+        for (int i = 0; i < 4; i++) {
+            args.add(pattern);
+        }
+    }
+
+    private static ReservationFilterSql build(List<String> conditions, List<Object> args) {
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        return new ReservationFilterSql(where, List.copyOf(args));
+    }
+
+    /**
+     * Si no hay ningún filtro (la consulta recorre toda la tabla).
+     */
+    public boolean isEmpty() {
+        return where.isEmpty();
+    }
+
+    /**
+     * Cláusula WHERE con parámetros {@code ?}, o vacío si no hay filtros.
+     */
+    public String where() {
+        return where;
+    }
+
+    /**
+     * Valores de los parámetros en el orden en que aparecen en {@link #where()}.
+     */
+    public List<Object> args() {
+        return args;
+    }
+}
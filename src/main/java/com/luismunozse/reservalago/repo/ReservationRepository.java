@@ -1,17 +1,26 @@
 package com.luismunozse.reservalago.repo;
 
+import com.luismunozse.reservalago.dto.DailyPeopleDTO;
+import com.luismunozse.reservalago.dto.ReservationContactDTO;
+import com.luismunozse.reservalago.dto.ReservationKeyDTO;
+import com.luismunozse.reservalago.dto.ReservationSummaryDTO;
 import com.luismunozse.reservalago.model.Reservation;
 import com.luismunozse.reservalago.model.ReservationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface ReservationRepository extends JpaRepository<Reservation, UUID>, JpaSpecificationExecutor<Reservation> {
+public interface ReservationRepository extends JpaRepository<Reservation, UUID>, JpaSpecificationExecutor<Reservation>,
+        ReservationRepositoryCustom {
     @Query("""
         select coalesce(sum(r.adults18Plus + r.children2To17 + r.babiesLessThan2), 0)
         from Reservation r
@@ -19,61 +28,94 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>,
         """)
     int totalPeopleForDate(@Param("date") LocalDate date);
 
+    // Igual que totalPeopleForDate pero para un rango, en una sola consulta
+    @Query("""
+        select new com.luismunozse.reservalago.dto.DailyPeopleDTO(
+            r.visitDate, coalesce(sum(r.adults18Plus + r.children2To17 + r.babiesLessThan2), 0))
+        from Reservation r
+        where r.visitDate between :from and :to and r.status <> 'CANCELLED'
+        group by r.visitDate
+        """)
+    List<DailyPeopleDTO> totalPeopleByDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
     // NUEVOS: existencia por fecha + DNI (excluye canceladas)
     boolean existsByVisitDateAndDniAndStatusNot(
             LocalDate visitDate,
             String dni,
             ReservationStatus status);
 
+    // Duplicados de una importación: pares (fecha, DNI) existentes en una sola consulta
+    @Query("""
+        select new com.luismunozse.reservalago.dto.ReservationKeyDTO(r.visitDate, r.dni)
+        from Reservation r
+        where r.visitDate in :dates and r.dni in :dnis and r.status <> 'CANCELLED'
+        """)
+    List<ReservationKeyDTO> findKeysByVisitDateInAndDniIn(@Param("dates") Collection<LocalDate> dates,
+                                                          @Param("dnis") Collection<String> dnis);
+
     List<Reservation> findAllByDni(String dni);
     List<Reservation> findAllByVisitDateAndStatus(LocalDate date, ReservationStatus status);
 
     List<Reservation> findAllByVisitDate(LocalDate date);
     List<Reservation> findAllByStatus(ReservationStatus status);
 
+    @Query("""
+        select new com.luismunozse.reservalago.dto.ReservationContactDTO(r.id, r.visitDate, r.phone, r.status)
+        from Reservation r
+        where r.id in :ids
+        """)
+    List<ReservationContactDTO> findContactsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Resumen público: solo las columnas del DTO, sin cargar la entidad ni sus visitantes
+    @Query("""
+        select new com.luismunozse.reservalago.dto.ReservationSummaryDTO(
+            r.id, r.visitDate, r.adults18Plus, r.children2To17, r.babiesLessThan2, r.reducedMobility,
+            r.originLocation, r.howHeard, r.status, r.visitorType, r.circuit,
+            r.institutionName, r.institutionStudents)
+        from Reservation r
+        where r.id = :id
+        """)
+    Optional<ReservationSummaryDTO> findSummaryById(@Param("id") UUID id);
+
+    /**
+     * Cambia el estado de varias reservas en una sola sentencia.
+     * Omite las que ya están en el estado destino.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Reservation r
+        set r.status = :status, r.updatedAt = :now
+        where r.id in :ids and r.status <> :status
+        """)
+    int updateStatusByIdIn(@Param("ids") Collection<UUID> ids,
+                           @Param("status") ReservationStatus status,
+                           @Param("now") Instant now);
+
     /**
-     * Búsqueda optimizada con filtros dinámicos aplicados directamente en la base de datos.
-     * Todos los parámetros son opcionales (null = no filtrar por ese criterio).
-     *
-     * @param date Fecha exacta de visita
-     * @param monthStart Primer día del mes (para filtro por mes)
-     * @param monthEnd Último día del mes (para filtro por mes)
-     * @param yearStart Primer día del año (para filtro por año)
-     * @param yearEnd Último día del año (para filtro por año)
-     * @param status Estado de la reserva
-     * @param visitorType Tipo de visitante
-     * @param dni DNI del titular (ya normalizado)
-     * @param name Nombre o apellido a buscar (case-insensitive)
-     * @return Lista de reservas que cumplen TODOS los criterios especificados
+     * Canceladas de {@code ids} que no se pueden volver a activar sin violar el
+     * índice único parcial ux_reservations_date_dni: su fecha + DNI ya tiene una
+     * reserva activa, o se repite entre ellas (solo pasa la más antigua).
      */
     @Query(value = """
-        SELECT DISTINCT r.* FROM reservations r
-        LEFT JOIN reservation_visitors v ON r.id = v.reservation_id
-        WHERE (CAST(:date AS DATE) IS NULL OR r.visit_date = CAST(:date AS DATE))
-          AND (CAST(:monthStart AS DATE) IS NULL OR r.visit_date >= CAST(:monthStart AS DATE))
-          AND (CAST(:monthEnd AS DATE) IS NULL OR r.visit_date <= CAST(:monthEnd AS DATE))
-          AND (CAST(:yearStart AS DATE) IS NULL OR r.visit_date >= CAST(:yearStart AS DATE))
-          AND (CAST(:yearEnd AS DATE) IS NULL OR r.visit_date <= CAST(:yearEnd AS DATE))
-          AND (CAST(:status AS VARCHAR) IS NULL OR r.status = CAST(:status AS VARCHAR))
-          AND (CAST(:visitorType AS VARCHAR) IS NULL OR r.visitor_type = CAST(:visitorType AS VARCHAR))
-          AND (CAST(:dni AS VARCHAR) IS NULL OR r.dni = CAST(:dni AS VARCHAR) OR v.dni = CAST(:dni AS VARCHAR))
-          AND (CAST(:name AS VARCHAR) IS NULL OR
-               LOWER(r.first_name) LIKE LOWER('%' || CAST(:name AS VARCHAR) || '%') OR
-               LOWER(r.last_name) LIKE LOWER('%' || CAST(:name AS VARCHAR) || '%') OR
-               LOWER(v.first_name) LIKE LOWER('%' || CAST(:name AS VARCHAR) || '%') OR
-               LOWER(v.last_name) LIKE LOWER('%' || CAST(:name AS VARCHAR) || '%'))
-        ORDER BY r.visit_date ASC, r.created_at DESC
-    """, nativeQuery = true)
-    List<Reservation> findWithFilters(
-        @Param("date") LocalDate date,
-        @Param("monthStart") LocalDate monthStart,
-        @Param("monthEnd") LocalDate monthEnd,
-        @Param("yearStart") LocalDate yearStart,
-        @Param("yearEnd") LocalDate yearEnd,
-        @Param("status") String status,
-        @Param("visitorType") String visitorType,
-        @Param("dni") String dni,
-        @Param("name") String name
-    );
-}
+        select c.id
+        from (
+            select r.id,
+                   exists (select 1 from reservations a
+                           where a.visit_date = r.visit_date and a.dni = r.dni
+                             and a.status <> 'CANCELLED' and a.id <> r.id) as active,
+                   row_number() over (partition by r.visit_date, r.dni order by r.created_at, r.id) as pos
+            from reservations r
+            where r.id in (:ids) and r.status = 'CANCELLED'
+        ) c
+        where c.active or c.pos > 1
+        """, nativeQuery = true)
+    List<UUID> findReactivationConflicts(@Param("ids") Collection<UUID> ids);
 
+    /**
+     * Elimina varias reservas en una sola sentencia. Los visitantes se eliminan
+     * por el ON DELETE CASCADE de reservation_visitors.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Reservation r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,52 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.dto.ReservationContactDTO;
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Operaciones de ReservationRepository que se resuelven con SQL armado a mano
+ * en lugar de consultas derivadas o JPQL fijo.
+ */
+public interface ReservationRepositoryCustom {
+
+    /**
+     * Cambia el estado de una reserva y actualiza updated_at en una sola sentencia,
+     * devolviendo los datos necesarios para notificar al titular.
+     *
+     * @return vacío si la reserva no existe
+     */
+    Optional<ReservationContactDTO> updateStatusReturningContact(UUID id, ReservationStatus status);
+
+    /**
+     * Reservas que cumplen los filtros (todos opcionales, null = no filtrar),
+     * ordenadas por fecha de visita y, dentro del día, de la más nueva a la más vieja.
+     * La sentencia solo incluye los filtros informados (ver {@link ReservationFilterSql}).
+     *
+     * @param from primer día de visita (inclusive)
+     * @param to último día de visita (inclusive)
+     * @param dni DNI ya normalizado, del titular o de algún visitante
+     * @param name nombre o apellido a buscar (sin distinguir mayúsculas)
+     */
+    List<Reservation> findWithFilters(LocalDate from, LocalDate to, ReservationStatus status,
+                                      VisitorType visitorType, String dni, String name);
+
+    /**
+     * Cantidad aproximada de reservas según la estadística de la tabla (pg_class),
+     * sin recorrerla. Vacío si la tabla todavía no fue analizada.
+     */
+    Optional<Long> estimatedCount();
+
+    /**
+     * Toma el lock de asesoramiento (pg_advisory_xact_lock) de la fecha de visita.
+     * Espera si otra transacción lo tiene y se libera solo al confirmar o revertir,
+     * así que debe llamarse dentro de una transacción.
+     */
+    void lockVisitDate(LocalDate visitDate);
+}
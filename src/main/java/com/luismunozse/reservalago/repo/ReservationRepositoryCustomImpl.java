@@ -0,0 +1,116 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.config.CacheInvalidation;
+import com.luismunozse.reservalago.config.CacheInvalidationBus;
+import com.luismunozse.reservalago.dto.ReservationContactDTO;
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class ReservationRepositoryCustomImpl implements ReservationRepositoryCustom {
+
+    // updated_at se guarda en UTC, igual que hibernate.jdbc.time_zone
+    private static final String UPDATE_STATUS_RETURNING_CONTACT = """
+        UPDATE reservations
+        SET status = ?, updated_at = timezone('UTC', now())
+        WHERE id = ?
+        RETURNING id, visit_date, phone, status
+        """;
+
+    private static final RowMapper<ReservationContactDTO> CONTACT_MAPPER = (rs, rowNum) ->
+            new ReservationContactDTO(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("visit_date", LocalDate.class),
+                    rs.getString("phone"),
+                    ReservationStatus.valueOf(rs.getString("status")));
+
+    // reltuples vale -1 (PostgreSQL 14+) o 0 si la tabla nunca se analizó
+    private static final String ESTIMATED_COUNT = """
+        SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('reservations' AS regclass)
+        """;
+
+    // Forma de dos claves: el primer entero separa estos locks de otros usos de
+    // pg_advisory_*; el segundo es el día (epoch day) de la visita
+    static final int VISIT_DATE_LOCK_NAMESPACE = 0x52455356; // "RESV"
+    private static final String LOCK_VISIT_DATE = "SELECT pg_advisory_xact_lock(?, ?)";
+
+    private static final String ORDER_BY_VISIT_DATE = " ORDER BY r.visit_date ASC, r.created_at DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBus cacheInvalidation;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ReservationContactDTO> updateStatusReturningContact(UUID id, ReservationStatus status) {
+        Optional<ReservationContactDTO> contact = jdbcTemplate
+                .query(UPDATE_STATUS_RETURNING_CONTACT, CONTACT_MAPPER, status.name(), id)
+                .stream()
+                .findFirst();
+        contact.ifPresent(c -> evictFromSecondLevelCache(c.id()));
+        return contact;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Reservation> findWithFilters(LocalDate from, LocalDate to, ReservationStatus status,
+                                             VisitorType visitorType, String dni, String name) {
+        ReservationFilterSql filter = ReservationFilterSql.of(from, to, status, visitorType, dni, name);
+        Query query = entityManager.createNativeQuery(
+                "SELECT r.* FROM reservations r" + filter.where() + ORDER_BY_VISIT_DATE, Reservation.class);
+        List<Object> args = filter.args();
+        for (int i = 0; i < args.size(); i++) {
+            query.setParameter(i + 1, args.get(i));
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Optional<Long> estimatedCount() {
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATED_COUNT, Long.class);
+        return estimate != null && estimate > 0 ? Optional.of(estimate) : Optional.empty();
+    }
+
+    @Override
+    public void lockVisitDate(LocalDate visitDate) {
+        // La función devuelve void: alcanza con ejecutar la consulta
+        jdbcTemplate.query(LOCK_VISIT_DATE, rs -> null,
+                VISIT_DATE_LOCK_NAMESPACE, Math.toIntExact(visitDate.toEpochDay()));
+    }
+
+    /**
+     * El UPDATE no pasa por Hibernate, así que la reserva se quita del cache de
+     * segundo nivel a mano: ahora y otra vez al terminar la transacción, por si
+     * otra lectura volvió a cachear el estado anterior mientras tanto. Las demás
+     * instancias la descartan con el commit.
+     */
+    private void evictFromSecondLevelCache(UUID id) {
+        entityManagerFactory.getCache().evict(Reservation.class, id);
+        cacheInvalidation.publish(CacheInvalidation.entity(CacheInvalidation.Type.RESERVATION, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(Reservation.class, id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.config.ClusterLock;
+import com.luismunozse.reservalago.dto.ReservationStatsRow;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Acceso a la vista materializada reservation_daily_stats. No se mapea como
+ * entidad JPA porque Hibernate no valida vistas materializadas.
+ */
+@Repository
+@RequiredArgsConstructor
+@Timed(value = "reservalago.repository", description = "Consultas JDBC fuera de Spring Data")
+public class ReservationStatsRepository {
+
+    static final String REFRESH_JOB = "stats-refresh";
+
+    private static final RowMapper<ReservationStatsRow> ROW_MAPPER = (rs, rowNum) -> new ReservationStatsRow(
+            rs.getObject("visit_date", LocalDate.class),
+            Circuit.valueOf(rs.getString("circuit")),
+            VisitorType.valueOf(rs.getString("visitor_type")),
+            HowHeard.valueOf(rs.getString("how_heard")),
+            ReservationStatus.valueOf(rs.getString("status")),
+            rs.getLong("reservations"),
+            rs.getLong("people"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<ReservationStatsRow> findBetween(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT visit_date, circuit, visitor_type, how_heard, status, reservations, people
+                FROM reservation_daily_stats
+                WHERE visit_date BETWEEN ? AND ?
+                ORDER BY visit_date
+                """, ROW_MAPPER, from, to);
+    }
+
+    /**
+     * Recalcula los agregados sin bloquear las lecturas del tablero. Lo hace una
+     * sola instancia por intervalo; en las demás la llamada no hace nada.
+     */
+    @ClusterLock(value = REFRESH_JOB, minInterval = "${app.stats.refresh-interval:PT5M}")
+    public void refresh() {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY reservation_daily_stats");
+    }
+
+    /**
+     * Último refresco terminado, lo haya hecho esta instancia u otra.
+     */
+    public Instant lastRefresh() {
+        List<OffsetDateTime> completed = jdbcTemplate.queryForList(
+                "SELECT last_completed_at FROM scheduled_job_locks WHERE name = ?", OffsetDateTime.class, REFRESH_JOB);
+        return completed.isEmpty() || completed.get(0) == null ? null : completed.get(0).toInstant();
+    }
+}
@@ -1,10 +1,15 @@
 package com.luismunozse.reservalago.repo;
 
 import com.luismunozse.reservalago.model.SystemConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface SystemConfigRepository extends JpaRepository<SystemConfig, Long> {
+    // Se consulta en cada reserva y disponibilidad; se invalida al guardar cualquier configuración
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<SystemConfig> findByConfigKey(String configKey);
 }
@@ -1,8 +1,12 @@
 package com.luismunozse.reservalago.service;
 
+import com.luismunozse.reservalago.config.Workload;
+import com.luismunozse.reservalago.config.WorkloadPool;
+import com.luismunozse.reservalago.dto.DailyPeopleDTO;
 import com.luismunozse.reservalago.model.AvailabilityRule;
 import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
 import com.luismunozse.reservalago.repo.ReservationRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,13 +14,18 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "reservalago.service", description = "Tiempo de los métodos de servicio")
+@WorkloadPool(Workload.BOOKING)
 public class AvailabilityService {
 
     private final AvailabilityRuleRepository availability;
@@ -49,20 +58,57 @@ public class AvailabilityService {
         LocalDate firstDay = month.withDayOfMonth(1);
         LocalDate lastDay = month.withDayOfMonth(month.lengthOfMonth());
 
+        // Tres consultas para todo el mes en lugar de dos o tres por día
+        Map<LocalDate, Integer> capacities = availability.findByDayBetween(firstDay, lastDay).stream()
+                .collect(Collectors.toMap(AvailabilityRule::getDay, AvailabilityRule::getCapacity));
+        Map<LocalDate, Long> used = reservations.totalPeopleByDateBetween(firstDay, lastDay).stream()
+                .collect(Collectors.toMap(DailyPeopleDTO::date, DailyPeopleDTO::people));
+        int defaultCapacity = capacities.size() < month.lengthOfMonth()
+                ? systemConfigService.getDefaultCapacity()
+                : 0;
+
         List<Map<String, Object>> result = new ArrayList<>();
 
         for (LocalDate date = firstDay; !date.isAfter(lastDay); date = date.plusDays(1)) {
-            Map<String, Object> dayAvailability = availabilityFor(date);
+            int capacity = capacities.getOrDefault(date, defaultCapacity);
+            int remaining = (int) Math.max(capacity - used.getOrDefault(date, 0L), 0);
             Map<String, Object> formatted = new HashMap<>();
             formatted.put("availableDate", date.toString());
-            formatted.put("totalCapacity", dayAvailability.get("capacity"));
-            formatted.put("remainingCapacity", dayAvailability.get("remaining"));
+            formatted.put("totalCapacity", capacity);
+            formatted.put("remainingCapacity", remaining);
             result.add(formatted);
         }
 
         return result;
     }
 
+    /**
+     * Cupo restante para varias fechas con las mismas tres consultas que
+     * availabilityForMonth, sobre el rango entre la primera y la última.
+     */
+    public Map<LocalDate, Integer> remainingFor(Collection<LocalDate> days) {
+        if (days.isEmpty()) {
+            return Map.of();
+        }
+        LocalDate from = Collections.min(days);
+        LocalDate to = Collections.max(days);
+
+        Map<LocalDate, Integer> capacities = availability.findByDayBetween(from, to).stream()
+                .collect(Collectors.toMap(AvailabilityRule::getDay, AvailabilityRule::getCapacity));
+        Map<LocalDate, Long> used = reservations.totalPeopleByDateBetween(from, to).stream()
+                .collect(Collectors.toMap(DailyPeopleDTO::date, DailyPeopleDTO::people));
+        int defaultCapacity = capacities.keySet().containsAll(days)
+                ? 0
+                : systemConfigService.getDefaultCapacity();
+
+        Map<LocalDate, Integer> remaining = new HashMap<>();
+        for (LocalDate day : days) {
+            int capacity = capacities.getOrDefault(day, defaultCapacity);
+            remaining.put(day, (int) Math.max(capacity - used.getOrDefault(day, 0L), 0));
+        }
+        return remaining;
+    }
+
     public int capacityFor(LocalDate day) {
         return (int) availabilityFor(day).get("capacity");
     }
@@ -0,0 +1,28 @@
+package com.luismunozse.reservalago.service;
+
+/**
+ * Cómo se evita vender más cupo del disponible cuando llegan reservas simultáneas
+ * (propiedad {@code app.booking.concurrency}).
+ */
+public enum BookingConcurrency {
+
+    /**
+     * Transacción SERIALIZABLE: PostgreSQL detecta los conflictos y aborta una de
+     * las transacciones (409, el cliente reintenta), aunque sean de fechas distintas.
+     */
+    SERIALIZABLE,
+
+    /**
+     * READ COMMITTED con un lock de asesoramiento por fecha de visita: las reservas
+     * de una misma fecha esperan su turno y las de otras fechas no se cruzan.
+     */
+    ADVISORY_LOCK,
+
+    /**
+     * Un único escritor por fecha dentro del proceso ({@link BookingSequencer}): las
+     * reservas de una fecha se encolan y se confirman en lotes, con el cupo contado
+     * en memoria. Cada lote usa la misma transacción que ADVISORY_LOCK, así que
+     * sigue siendo seguro con varias instancias y frente a importaciones.
+     */
+    SEQUENCER
+}
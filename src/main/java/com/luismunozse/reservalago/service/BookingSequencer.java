@@ -0,0 +1,298 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Un único escritor por fecha de visita (modo {@link BookingConcurrency#SEQUENCER}).
+ * Cada fecha con reservas pendientes tiene su cola, atendida por un hilo virtual
+ * que toma hasta {@code batch-size} reservas y las confirma juntas; así, en una
+ * apertura de temporada las reservas de un mismo día no compiten entre sí en la
+ * base. El hilo termina cuando la cola queda vacía un rato.
+ *
+ * <p>Quien reserva espera el resultado hasta {@code timeout}. Si vence antes de
+ * que el lote tome su reserva, la reserva se descarta y recibe 503; si ya estaba
+ * en proceso, espera a que termine para no informar un rechazo de algo creado.
+ */
+@Slf4j
+@Component
+public class BookingSequencer {
+
+    /** Una reserva a crear, con su Idempotency-Key si la hay. */
+    public record Command(CreateReservationRequest request, String idempotencyKey) {
+    }
+
+    /** Resultado de una reserva del lote: el id creado o el error para quien reservó. */
+    public record Outcome(UUID id, RuntimeException error) {
+
+        public static Outcome created(UUID id) {
+            return new Outcome(id, null);
+        }
+
+        public static Outcome failed(RuntimeException error) {
+            return new Outcome(null, error);
+        }
+    }
+
+    private static final int WAITING = 0;
+    private static final int CLAIMED = 1;
+    private static final int ABANDONED = 2;
+
+    private final Map<LocalDate, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final MeterRegistry registry;
+    private final DistributionSummary batchSizes;
+
+    @Value("${app.booking.sequencer.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${app.booking.sequencer.queue-capacity:500}")
+    private int queueCapacity = 500;
+
+    @Value("${app.booking.sequencer.timeout:PT10S}")
+    private Duration timeout = Duration.ofSeconds(10);
+
+    @Value("${app.booking.sequencer.idle:PT30S}")
+    private Duration idle = Duration.ofSeconds(30);
+
+    public BookingSequencer(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("reservalago.booking.sequencer.queued", queued, AtomicInteger::get)
+                .description("Reservas esperando en las colas por fecha")
+                .register(registry);
+        Gauge.builder("reservalago.booking.sequencer.lanes", lanes, Map::size)
+                .description("Fechas con una cola activa")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("reservalago.booking.sequencer.batch")
+                .description("Reservas confirmadas por lote")
+                .register(registry);
+    }
+
+    /**
+     * Encola la reserva en la cola de su fecha y espera el resultado.
+     *
+     * @param batchHandler crea un lote de reservas de una misma fecha; devuelve un
+     *                     resultado por reserva, en el mismo orden. La cola de la
+     *                     fecha usa el de la reserva que la creó, así que debe ser
+     *                     siempre el mismo
+     * @throws ResponseStatusException 503 si la cola de la fecha está llena o el
+     *                                 lote no llegó a tomar la reserva a tiempo
+     */
+    public UUID submit(Command command, Function<List<Command>, List<Outcome>> batchHandler) {
+        LocalDate date = command.request().visitDate();
+        Pending pending = new Pending(command);
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(date, d -> new Lane(d, batchHandler));
+            if (lane.offer(pending)) {
+                break;
+            }
+            // El hilo de esa cola acaba de terminar: se crea otra
+        }
+        return await(pending);
+    }
+
+    private UUID await(Pending pending) {
+        try {
+            return pending.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            if (pending.state.compareAndSet(WAITING, ABANDONED)) {
+                reject("timeout");
+                log.warn("Reserva descartada por demora en la cola: fecha={}", pending.command.request().visitDate());
+                throw busy();
+            }
+            // El lote ya la tomó: el resultado llega en lo que tarda una transacción
+            return unwrap(pending.result::join);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            pending.state.compareAndSet(WAITING, ABANDONED);
+            throw busy();
+        }
+    }
+
+    private static UUID unwrap(Supplier<UUID> join) {
+        try {
+            return join.get();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private void reject(String reason) {
+        Counter.builder("reservalago.booking.sequencer.rejected")
+                .description("Reservas rechazadas por el secuenciador sin llegar a la base")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "La fecha está recibiendo muchas reservas en este momento. Intente nuevamente.");
+    }
+
+    private static final class Pending {
+        final Command command;
+        final CompletableFuture<UUID> result = new CompletableFuture<>();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Pending(Command command) {
+            this.command = command;
+        }
+    }
+
+    /**
+     * Cola de una fecha. El hilo se arranca con la primera reserva y, al retirarse,
+     * quita la cola del mapa bajo el mismo lock con el que se encola, así ninguna
+     * reserva queda en una cola sin hilo.
+     */
+    private final class Lane {
+
+        private final LocalDate date;
+        private final Function<List<Command>, List<Outcome>> batchHandler;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private boolean running;
+        private boolean retired;
+
+        Lane(LocalDate date, Function<List<Command>, List<Outcome>> batchHandler) {
+            this.date = date;
+            this.batchHandler = batchHandler;
+        }
+
+        /**
+         * @return false si la cola ya se retiró y hay que pedir otra
+         */
+        boolean offer(Pending pending) {
+            lock.lock();
+            try {
+                if (retired) {
+                    return false;
+                }
+                if (queue.size() >= queueCapacity) {
+                    reject("queue_full");
+                    log.warn("Cola de reservas llena: fecha={}, pendientes={}", date, queue.size());
+                    throw busy();
+                }
+                queue.add(pending);
+                queued.incrementAndGet();
+                if (running) {
+                    notEmpty.signal();
+                } else {
+                    running = true;
+                    Thread.ofVirtual().name("booking-" + date).start(this::drain);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            try {
+                List<Pending> batch;
+                while ((batch = nextBatch()) != null) {
+                    if (!batch.isEmpty()) {
+                        process(batch);
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                retire();
+            }
+        }
+
+        /**
+         * Las reservas que siguen esperando, hasta batch-size; vacío si todas las
+         * tomadas ya estaban descartadas y null cuando la cola se retira.
+         */
+        private List<Pending> nextBatch() throws InterruptedException {
+            lock.lock();
+            try {
+                long nanos = idle.toNanos();
+                while (queue.isEmpty()) {
+                    if (nanos <= 0) {
+                        retired = true;
+                        running = false;
+                        lanes.remove(date, this);
+                        return null;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+                List<Pending> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+                while (batch.size() < batchSize && !queue.isEmpty()) {
+                    Pending pending = queue.poll();
+                    queued.decrementAndGet();
+                    if (pending.state.compareAndSet(WAITING, CLAIMED)) {
+                        batch.add(pending);
+                    }
+                }
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void process(List<Pending> batch) {
+            batchSizes.record(batch.size());
+            try {
+                List<Outcome> outcomes = batchHandler.apply(batch.stream().map(p -> p.command).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    Outcome outcome = outcomes.get(i);
+                    if (outcome.error() != null) {
+                        batch.get(i).result.completeExceptionally(outcome.error());
+                    } else {
+                        batch.get(i).result.complete(outcome.id());
+                    }
+                }
+            } catch (RuntimeException ex) {
+                log.error("Lote de reservas fallido: fecha={}, reservas={}, error={}",
+                        date, batch.size(), ex.getMessage(), ex);
+                batch.forEach(p -> p.result.completeExceptionally(ex));
+            }
+        }
+
+        private void retire() {
+            lock.lock();
+            try {
+                retired = true;
+                running = false;
+                lanes.remove(date, this);
+                queue.forEach(p -> p.result.completeExceptionally(busy()));
+                queued.addAndGet(-queue.size());
+                queue.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.repo.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Transacción de las operaciones que consumen cupo (alta de reservas e
+ * importación). El aislamiento depende de {@link BookingConcurrency}, por eso
+ * se abre por código y no con {@code @Transactional}.
+ */
+@Slf4j
+@Component
+public class BookingTransactions {
+
+    private final ReservationRepository reservations;
+    private final TransactionTemplate serializable;
+    private final TransactionTemplate readCommitted;
+
+    @Value("${app.booking.concurrency:serializable}")
+    private BookingConcurrency concurrency = BookingConcurrency.SERIALIZABLE;
+
+    public BookingTransactions(ReservationRepository reservations, PlatformTransactionManager transactionManager) {
+        this.reservations = reservations;
+        this.serializable = new TransactionTemplate(transactionManager);
+        this.serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.readCommitted = new TransactionTemplate(transactionManager);
+        this.readCommitted.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public BookingConcurrency concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Ejecuta {@code work} en una transacción que protege el cupo de las fechas
+     * indicadas. Con ADVISORY_LOCK (y SEQUENCER) toma primero el lock de cada fecha, en orden
+     * ascendente para que dos importaciones con fechas en común no se bloqueen
+     * mutuamente.
+     */
+    public <T> T execute(Collection<LocalDate> visitDates, Supplier<T> work) {
+        if (concurrency == BookingConcurrency.SERIALIZABLE) {
+            return serializable.execute(status -> work.get());
+        }
+        return readCommitted.execute(status -> {
+            visitDates.stream().distinct().sorted().forEach(date -> {
+                long t0 = System.nanoTime();
+                reservations.lockVisitDate(date);
+                log.debug("Lock de fecha tomado: fecha={}, espera={}ms", date, (System.nanoTime() - t0) / 1_000_000);
+            });
+            return work.get();
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package com.luismunozse.reservalago.service;
+
+/**
+ * Enmascarado de datos de contacto (DNI, email, teléfono) en las exportaciones:
+ * solo quedan visibles los últimos tres caracteres.
+ */
+public final class ContactMasking {
+
+    private ContactMasking() {
+    }
+
+    public static String mask(String s) {
+        if (s == null || s.length() < 4) return "***";
+        int keep = Math.min(3, s.length());
+        return "***" + s.substring(s.length() - keep);
+    }
+}
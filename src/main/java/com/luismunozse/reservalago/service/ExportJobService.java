@@ -0,0 +1,271 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.config.Workload;
+import com.luismunozse.reservalago.config.WorkloadRoutingDataSource;
+import com.luismunozse.reservalago.dto.ExportFormat;
+import com.luismunozse.reservalago.dto.ExportJobDTO;
+import com.luismunozse.reservalago.dto.ExportReservationsFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exportaciones asíncronas: el pedido devuelve un id enseguida y el archivo se
+ * genera en un pool acotado de workers, en un directorio local. Dos pedidos
+ * iguales (mismo formato y filtros) mientras el primero sigue en curso comparten
+ * el trabajo. Los archivos se borran al vencer el TTL.
+ * <p>
+ * El estado vive en memoria y los archivos en disco local: con varias instancias
+ * el polling y la descarga tienen que llegar a la misma que recibió el pedido.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    private final ReservationService reservationService;
+
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<JobKey, ExportJob> active = new ConcurrentHashMap<>();
+
+    @Value("${app.export.workers:2}")
+    private int workers = 2;
+
+    @Value("${app.export.queue-capacity:10}")
+    private int queueCapacity = 10;
+
+    @Value("${app.export.directory:${java.io.tmpdir}/reservalago-exports}")
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "reservalago-exports");
+
+    @Value("${app.export.ttl:PT1H}")
+    private Duration ttl = Duration.ofHours(1);
+
+    private ThreadPoolExecutor executor;
+
+    public ExportJobService(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    private record JobKey(ExportFormat format, ExportReservationsFilter filter) {}
+
+    /**
+     * Archivo generado por un trabajo terminado.
+     */
+    public record Artifact(Path path, ExportFormat format, ExportReservationsFilter filter) {}
+
+    private static final class ExportJob {
+        final UUID id = UUID.randomUUID();
+        final JobKey key;
+        final Instant createdAt = Instant.now();
+        final AtomicLong processedRows = new AtomicLong();
+        volatile ExportJobDTO.Status status = ExportJobDTO.Status.QUEUED;
+        volatile Instant finishedAt;
+        volatile Path file;
+        volatile String error;
+
+        ExportJob(JobKey key) {
+            this.key = key;
+        }
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        AtomicInteger threads = new AtomicInteger();
+        // Cola acotada y AbortPolicy: si no hay lugar se rechaza en vez de acumular trabajos
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "export-job-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Exportaciones asíncronas: workers={}, cola={}, directorio={}, ttl={}",
+                workers, queueCapacity, directory, ttl);
+    }
+
+    /**
+     * Interrumpe los trabajos en curso y espera a que cada uno borre su archivo parcial.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdownNow();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Exportaciones asíncronas: hay trabajos que no terminaron al detener el servicio");
+        }
+    }
+
+    /**
+     * Encola una exportación o, si ya hay una igual en curso, devuelve esa.
+     *
+     * @throws ResponseStatusException 503 si la cola de trabajos está llena
+     */
+    public ExportJobDTO submit(ExportReservationsFilter filter, ExportFormat format) {
+        JobKey key = new JobKey(format, filter);
+        boolean[] created = {false};
+        ExportJob job = active.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new ExportJob(k);
+        });
+        if (!created[0]) {
+            log.info("Exportación duplicada, se reutiliza el trabajo {}", job.id);
+            return toDTO(job);
+        }
+
+        jobs.put(job.id, job);
+        try {
+            // Las exportaciones en segundo plano usan su pool aunque pasen por métodos del panel
+            executor.execute(() -> WorkloadRoutingDataSource.runAs(Workload.BACKGROUND, () -> run(job)));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            active.remove(key, job);
+            log.warn("Exportación rechazada: cola llena ({} trabajos)", queueCapacity);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Hay demasiadas exportaciones en curso. Intente nuevamente en unos minutos.");
+        }
+        log.info("Exportación encolada: id={}, formato={}", job.id, format);
+        return toDTO(job);
+    }
+
+    public ExportJobDTO status(UUID id) {
+        return toDTO(find(id));
+    }
+
+    /**
+     * @throws ResponseStatusException 404 si no existe o venció, 409 si todavía no terminó
+     */
+    public Artifact artifact(UUID id) {
+        ExportJob job = find(id);
+        if (job.status != ExportJobDTO.Status.DONE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La exportación todavía no está lista (estado " + job.status + ")");
+        }
+        return new Artifact(job.file, job.key.format(), job.key.filter());
+    }
+
+    private ExportJob find(UUID id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exportación no encontrada o vencida");
+        }
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        job.status = ExportJobDTO.Status.RUNNING;
+        ExportFormat format = job.key.format();
+        ExportReservationsFilter filter = job.key.filter();
+        Path target = directory.resolve(job.id + "." + format.extension());
+        Path partial = directory.resolve(job.id + "." + format.extension() + ".part");
+        long start = System.currentTimeMillis();
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                if (format == ExportFormat.XLSX) {
+                    YearMonth ym = filter.getMonth() != null && !filter.getMonth().isBlank()
+                            ? YearMonth.parse(filter.getMonth())
+                            : null;
+                    out.write(reservationService.exportExcel(
+                            filter.getDate(), ym, filter.getYear(), filter.getStatus(),
+                            filter.getVisitorType(), filter.getDni(), filter.getName(), false));
+                } else {
+                    reservationService.streamExport(filter, format, false, out, job.processedRows::set);
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.file = target;
+            // El estado se publica al final: quien ve DONE/FAILED ya ve el vencimiento y los archivos finales
+            job.finishedAt = Instant.now();
+            job.status = ExportJobDTO.Status.DONE;
+            log.info("Exportación terminada: id={}, filas={}, bytes={}, {} ms",
+                    job.id, job.processedRows.get(), Files.size(target), System.currentTimeMillis() - start);
+        } catch (Exception ex) {
+            job.error = ex instanceof ResponseStatusException rse && rse.getReason() != null
+                    ? rse.getReason()
+                    : "Error generando la exportación";
+            deleteQuietly(partial);
+            job.finishedAt = Instant.now();
+            job.status = ExportJobDTO.Status.FAILED;
+            log.error("Exportación fallida: id={}, error={}", job.id, ex.getMessage(), ex);
+        } finally {
+            active.remove(job.key, job);
+        }
+    }
+
+    /**
+     * Borra los trabajos terminados hace más que el TTL y sus archivos, y los
+     * archivos huérfanos del directorio (por ejemplo, de antes de un reinicio).
+     * Corre en todas las instancias, sin {@code @ClusterLock}: los trabajos y el
+     * directorio son de cada una.
+     */
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval:PT10M}")
+    public void purgeExpired() {
+        Instant limit = Instant.now().minus(ttl);
+        int removed = 0;
+        for (ExportJob job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.isBefore(limit) && jobs.remove(job.id, job)) {
+                if (job.file != null) {
+                    deleteQuietly(job.file);
+                }
+                removed++;
+            }
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(limit) && !isInUse(file)) {
+                    deleteQuietly(file);
+                    removed++;
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("No se pudo recorrer el directorio de exportaciones {}: {}", directory, ex.getMessage());
+        }
+        if (removed > 0) {
+            log.info("Exportaciones vencidas eliminadas: {}", removed);
+        }
+    }
+
+    private boolean isInUse(Path file) {
+        String name = file.getFileName().toString();
+        return jobs.values().stream().anyMatch(j -> name.startsWith(j.id.toString()));
+    }
+
+    private ExportJobDTO toDTO(ExportJob job) {
+        // Primero el estado: si es DONE/FAILED, finishedAt ya está asignado
+        ExportJobDTO.Status status = job.status;
+        Instant finishedAt = job.finishedAt;
+        return new ExportJobDTO(job.id, status, job.key.format(), job.processedRows.get(),
+                job.createdAt, finishedAt, finishedAt != null ? finishedAt.plus(ttl) : null, job.error);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("No se pudo borrar {}: {}", file, ex.getMessage());
+        }
+    }
+}
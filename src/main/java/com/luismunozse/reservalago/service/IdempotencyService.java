@@ -0,0 +1,167 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.config.ClusterLock;
+import com.luismunozse.reservalago.config.Workload;
+import com.luismunozse.reservalago.config.WorkloadPool;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.repo.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Almacén de claves de idempotencia para la creación de reservas.
+ * Usa la tabla idempotency_keys como fuente de verdad y un caché en memoria
+ * con TTL delante, para que los reintentos no vuelvan a tocar la base.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository keys;
+
+    private final Map<String, CachedKey> cache = new ConcurrentHashMap<>();
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    record CachedKey(String requestHash, UUID reservationId, Instant expiresAt) {
+        boolean isExpired(Instant now) {
+            return expiresAt.isBefore(now);
+        }
+    }
+
+    /**
+     * Busca una reserva ya creada con la misma clave. Si la clave existe pero
+     * se usó con otro cuerpo de solicitud, responde 422.
+     */
+    @Transactional(readOnly = true)
+    public Optional<UUID> findReplay(String key, CreateReservationRequest req) {
+        validateKey(key);
+        String requestHash = hash(req);
+        Instant now = Instant.now();
+
+        CachedKey cached = cache.get(key);
+        if (cached == null || cached.isExpired(now)) {
+            cached = keys.findById(key)
+                    .filter(k -> !k.getExpiresAt().isBefore(now))
+                    .map(k -> new CachedKey(k.getRequestHash(), k.getReservationId(), k.getExpiresAt()))
+                    .orElse(null);
+            if (cached == null) {
+                cache.remove(key);
+                return Optional.empty();
+            }
+            cachePut(key, cached);
+        }
+
+        if (!cached.requestHash().equals(requestHash)) {
+            log.warn("Idempotency-Key reutilizada con otra solicitud: key={}", key);
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "La Idempotency-Key ya fue utilizada con otra solicitud");
+        }
+        return Optional.of(cached.reservationId());
+    }
+
+    /**
+     * Registra la clave dentro de la transacción de creación de la reserva.
+     * El caché se actualiza recién cuando la transacción confirma.
+     */
+    public void register(String key, CreateReservationRequest req, UUID reservationId) {
+        validateKey(key);
+        Instant now = Instant.now();
+        CachedKey entry = new CachedKey(hash(req), reservationId, now.plus(ttl));
+
+        int inserted = keys.insertIfAbsent(key, entry.requestHash(), reservationId, now, entry.expiresAt());
+        if (inserted == 0) {
+            log.warn("Idempotency-Key ya registrada por otra solicitud: key={}", key);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Ya se procesó una solicitud con esa Idempotency-Key");
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cachePut(key, entry);
+                }
+            });
+        } else {
+            cachePut(key, entry);
+        }
+    }
+
+    /**
+     * El caché es de cada instancia, así que se limpia en todas.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:PT1H}")
+    public void evictExpiredFromCache() {
+        Instant now = Instant.now();
+        cache.values().removeIf(e -> e.isExpired(now));
+    }
+
+    /**
+     * La tabla es una sola: la purga la hace una instancia por intervalo.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:PT1H}")
+    @ClusterLock(value = "idempotency-purge", minInterval = "${app.idempotency.cleanup-interval:PT1H}")
+    @WorkloadPool(Workload.BACKGROUND)
+    @Transactional
+    public void purgeExpired() {
+        int deleted = keys.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Claves de idempotencia vencidas eliminadas: {}", deleted);
+        }
+    }
+
+    private void cachePut(String key, CachedKey entry) {
+        if (cache.size() >= cacheSize) {
+            Instant now = Instant.now();
+            cache.values().removeIf(e -> e.isExpired(now));
+            if (cache.size() >= cacheSize) {
+                // Caché lleno: la tabla sigue siendo la fuente de verdad
+                return;
+            }
+        }
+        cache.put(key, entry);
+    }
+
+    private static void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key inválida (máximo " + MAX_KEY_LENGTH + " caracteres)");
+        }
+    }
+
+    static String hash(CreateReservationRequest req) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(req.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
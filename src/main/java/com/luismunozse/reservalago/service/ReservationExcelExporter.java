@@ -2,6 +2,7 @@ package com.luismunozse.reservalago.service;
 
 import com.luismunozse.reservalago.model.Reservation;
 import com.luismunozse.reservalago.model.ReservationVisitor;
+import io.micrometer.core.annotation.Timed;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
@@ -29,6 +30,7 @@ public class ReservationExcelExporter {
      * y, si tiene visitantes, cada visitante se agrega en filas consecutivas debajo,
      * con las columnas principales vacías salvo la fecha y nombre del visitante.
      */
+    @Timed(value = "reservalago.export.excel", description = "Generación del XLSX de reservas")
     public byte[] exportExcel(List<Reservation> reservations, boolean maskContacts) {
         String[] headers = {
                 "ID",
@@ -175,8 +177,6 @@ public class ReservationExcelExporter {
     }
 
     private static String mask(String s) {
-        if (s == null || s.length() < 4) return "***";
-        int keep = Math.min(3, s.length());
-        return "***" + s.substring(s.length() - keep);
+        return ContactMasking.mask(s);
     }
 }
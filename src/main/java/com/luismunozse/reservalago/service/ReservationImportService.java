@@ -0,0 +1,274 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.ImportReservationsResponse;
+import com.luismunozse.reservalago.dto.ImportRowResult;
+import com.luismunozse.reservalago.dto.VisitorDTO;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.service.ReservationSpreadsheetReader.Format;
+import com.luismunozse.reservalago.service.ReservationSpreadsheetReader.SpreadsheetRow;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de reservas de instituciones educativas desde una planilla
+ * XLSX o CSV con una fila por visitante (alumno o docente). Las filas con la misma
+ * fecha y el mismo DNI de responsable forman una reserva.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationImportService {
+
+    static final int MAX_ROWS = 5000;
+
+    static final List<String> REQUIRED_COLUMNS = List.of(
+            "fecha", "institucion", "circuito",
+            "responsable_nombre", "responsable_apellido", "responsable_dni", "telefono", "email",
+            "nombre", "apellido", "dni");
+
+    private static final DateTimeFormatter DATE_AR = DateTimeFormatter.ofPattern("d/M/yyyy");
+
+    private final ReservationSpreadsheetReader spreadsheetReader;
+    private final ReservationService reservationService;
+    private final ReservationMapper reservationMapper;
+    private final Validator validator;
+
+    public ImportReservationsResponse importFile(MultipartFile file) {
+        Format format = detectFormat(file);
+        List<SpreadsheetRow> rows = readRows(file, format);
+        log.info("Importando reservas: archivo={}, formato={}, filas={}",
+                file.getOriginalFilename(), format, rows.size());
+
+        // Validación por fila en paralelo: no depende de la base ni del orden
+        List<ParsedRow> parsed = rows.parallelStream().map(this::parseRow).toList();
+
+        List<ImportRowResult> results = new ArrayList<>(parsed.size());
+        Map<GroupKey, List<ParsedRow>> groups = new LinkedHashMap<>();
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                results.add(rejected(row, row.error()));
+            } else {
+                groups.computeIfAbsent(new GroupKey(row.visitDate(), row.responsibleDni()), k -> new ArrayList<>())
+                        .add(row);
+            }
+        }
+
+        List<List<ParsedRow>> pending = new ArrayList<>();
+        List<CreateReservationRequest> requests = new ArrayList<>();
+        for (List<ParsedRow> group : groups.values()) {
+            List<ParsedRow> members = withoutRepeatedVisitors(group, results);
+            CreateReservationRequest request = toRequest(members);
+            String error = validate(request);
+            if (error != null) {
+                members.forEach(row -> results.add(rejected(row, error)));
+            } else {
+                pending.add(members);
+                requests.add(request);
+            }
+        }
+
+        int created = 0;
+        if (!requests.isEmpty()) {
+            List<ReservationService.ImportOutcome> outcomes = reservationService.importReservations(requests);
+            for (int i = 0; i < outcomes.size(); i++) {
+                ReservationService.ImportOutcome outcome = outcomes.get(i);
+                if (outcome.id() != null) {
+                    created++;
+                    pending.get(i).forEach(row -> results.add(new ImportRowResult(
+                            row.rowNumber(), ImportRowResult.Outcome.CREATED, outcome.id(), null)));
+                } else {
+                    pending.get(i).forEach(row -> results.add(rejected(row, outcome.error())));
+                }
+            }
+        }
+
+        results.sort(Comparator.comparingInt(ImportRowResult::row));
+        int rejectedRows = (int) results.stream()
+                .filter(r -> r.outcome() == ImportRowResult.Outcome.REJECTED)
+                .count();
+        log.info("Importación completada: filas={}, reservas creadas={}, filas rechazadas={}",
+                rows.size(), created, rejectedRows);
+        return new ImportReservationsResponse(rows.size(), created, rejectedRows, results);
+    }
+
+    private Format detectFormat(MultipartFile file) {
+        String name = file.getOriginalFilename() != null
+                ? file.getOriginalFilename().toLowerCase(Locale.ROOT)
+                : "";
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        if (name.endsWith(".xlsx") || contentType.contains("spreadsheetml")) {
+            return Format.XLSX;
+        }
+        if (name.endsWith(".csv") || contentType.startsWith("text/csv")) {
+            return Format.CSV;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado. Use XLSX o CSV");
+    }
+
+    /**
+     * El archivo se copia a disco para que POI lo abra sin cargarlo entero en memoria.
+     */
+    private List<SpreadsheetRow> readRows(MultipartFile file, Format format) {
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile("reservas-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            file.transferTo(tmp);
+
+            List<SpreadsheetRow> rows = new ArrayList<>();
+            List<String> headers = spreadsheetReader.read(tmp, format, row -> {
+                if (rows.size() >= MAX_ROWS) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Demasiadas filas. Límite: " + MAX_ROWS + " por archivo");
+                }
+                rows.add(row);
+            });
+
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !headers.contains(c)).toList();
+            if (!missing.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Faltan columnas obligatorias: " + String.join(", ", missing));
+            }
+            return rows;
+        } catch (IOException ex) {
+            log.warn("No se pudo leer el archivo de importación: {}", ex.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No se pudo leer el archivo", ex);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ex) {
+                    log.warn("No se pudo borrar el archivo temporal {}: {}", tmp, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    ParsedRow parseRow(SpreadsheetRow row) {
+        List<String> blank = REQUIRED_COLUMNS.stream().filter(c -> row.get(c) == null).toList();
+        if (!blank.isEmpty()) {
+            return ParsedRow.invalid(row.rowNumber(), "Faltan datos: " + String.join(", ", blank));
+        }
+
+        LocalDate date = parseDate(row.get("fecha"));
+        if (date == null) {
+            return ParsedRow.invalid(row.rowNumber(), "fecha inválida: " + row.get("fecha"));
+        }
+
+        Circuit circuit;
+        try {
+            circuit = Circuit.valueOf(row.get("circuito").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return ParsedRow.invalid(row.rowNumber(), "circuito inválido: " + row.get("circuito"));
+        }
+
+        String tipo = row.get("tipo");
+        boolean teacher;
+        if (tipo == null || tipo.equalsIgnoreCase("ALUMNO")) {
+            teacher = false;
+        } else if (tipo.equalsIgnoreCase("DOCENTE")) {
+            teacher = true;
+        } else {
+            return ParsedRow.invalid(row.rowNumber(), "tipo inválido: " + tipo + " (ALUMNO o DOCENTE)");
+        }
+
+        String responsibleDni = reservationMapper.normalizeDni(row.get("responsable_dni"));
+        String dni = reservationMapper.normalizeDni(row.get("dni"));
+        if (!responsibleDni.matches("\\d{8}") || !dni.matches("\\d{8}")) {
+            return ParsedRow.invalid(row.rowNumber(), "dni debe tener exactamente 8 digitos");
+        }
+
+        return new ParsedRow(row.rowNumber(), date, circuit, row.get("institucion"),
+                row.get("responsable_nombre"), row.get("responsable_apellido"), responsibleDni,
+                row.get("telefono"), row.get("email"), row.get("localidad"),
+                new VisitorDTO(row.get("nombre"), row.get("apellido"), dni, null), teacher, null);
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return value.contains("/") ? LocalDate.parse(value, DATE_AR) : LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Un mismo DNI solo puede figurar una vez por reserva: las repeticiones se rechazan.
+     */
+    private static List<ParsedRow> withoutRepeatedVisitors(List<ParsedRow> group, List<ImportRowResult> results) {
+        Set<String> seen = new HashSet<>();
+        List<ParsedRow> members = new ArrayList<>(group.size());
+        for (ParsedRow row : group) {
+            if (seen.add(row.visitor().dni())) {
+                members.add(row);
+            } else {
+                results.add(rejected(row, "El visitante está repetido en la misma reserva"));
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Los datos de la reserva se toman de la primera fila del grupo.
+     */
+    private static CreateReservationRequest toRequest(List<ParsedRow> group) {
+        ParsedRow first = group.get(0);
+        int teachers = (int) group.stream().filter(ParsedRow::teacher).count();
+        int students = group.size() - teachers;
+        return new CreateReservationRequest(
+                first.visitDate(), first.responsibleFirstName(), first.responsibleLastName(),
+                first.responsibleDni(), first.phone(), first.email(), null,
+                first.circuit(), VisitorType.EDUCATIONAL_INSTITUTION, first.institution(), students,
+                teachers, students, 0, 0, null, first.originLocation(), HowHeard.OTHER, true,
+                group.stream().map(ParsedRow::visitor).toList());
+    }
+
+    private String validate(CreateReservationRequest request) {
+        Set<ConstraintViolation<CreateReservationRequest>> violations = validator.validate(request);
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static ImportRowResult rejected(ParsedRow row, String error) {
+        return new ImportRowResult(row.rowNumber(), ImportRowResult.Outcome.REJECTED, null, error);
+    }
+
+    private record GroupKey(LocalDate visitDate, String responsibleDni) {}
+
+    record ParsedRow(int rowNumber, LocalDate visitDate, Circuit circuit, String institution,
+                     String responsibleFirstName, String responsibleLastName, String responsibleDni,
+                     String phone, String email, String originLocation,
+                     VisitorDTO visitor, boolean teacher, String error) {
+
+        static ParsedRow invalid(int rowNumber, String error) {
+            return new ParsedRow(rowNumber, null, null, null, null, null, null,
+                    null, null, null, null, false, error);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.model.VisitorType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Contadores de negocio de reservas, expuestos en /actuator/prometheus como
+ * reservalago_reservations_created_total y reservalago_reservations_rejected_total.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationMetrics {
+
+    public static final String REJECTED_CAPACITY = "capacity";
+    public static final String REJECTED_DUPLICATE = "duplicate";
+    public static final String REJECTED_PAST_DATE = "past_date";
+    public static final String REJECTED_ADVANCE_NOTICE = "advance_notice";
+    public static final String REJECTED_INSTITUTION = "institution";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Cuenta la reserva recién cuando la transacción confirma, para no sumar
+     * las que terminan revertidas por una falla de serialización.
+     */
+    public void bookingCreated(VisitorType visitorType) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementCreated(visitorType);
+                }
+            });
+        } else {
+            incrementCreated(visitorType);
+        }
+    }
+
+    private void incrementCreated(VisitorType visitorType) {
+        Counter.builder("reservalago.reservations.created")
+                .description("Reservas creadas")
+                .tag("visitor_type", visitorType.name())
+                .register(registry)
+                .increment();
+    }
+
+    public void bookingRejected(String reason) {
+        Counter.builder("reservalago.reservations.rejected")
+                .description("Reservas rechazadas por regla de negocio")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
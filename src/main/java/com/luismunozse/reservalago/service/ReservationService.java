@@ -1,12 +1,25 @@
 package com.luismunozse.reservalago.service;
 
+import com.luismunozse.reservalago.config.CacheInvalidation;
+import com.luismunozse.reservalago.config.CacheInvalidationBus;
+import com.luismunozse.reservalago.config.QueryTimeout;
+import com.luismunozse.reservalago.config.Workload;
+import com.luismunozse.reservalago.config.WorkloadPool;
 import com.luismunozse.reservalago.dto.*;
 import com.luismunozse.reservalago.model.*;
+import com.luismunozse.reservalago.repo.ReservationAdminListRepository;
+import com.luismunozse.reservalago.repo.ReservationExportRepository;
+import com.luismunozse.reservalago.repo.ReservationFilterSql;
 import com.luismunozse.reservalago.repo.ReservationRepository;
-import com.luismunozse.reservalago.repo.ReservationSpecifications;
-import org.springframework.data.domain.Page;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -14,10 +27,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
@@ -25,6 +45,8 @@ import java.time.ZoneId;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "reservalago.service", description = "Tiempo de los métodos de servicio")
+@WorkloadPool(Workload.BOOKING)
 public class ReservationService {
 
     private final ReservationRepository reservations;
@@ -33,6 +55,14 @@ public class ReservationService {
     private final ReservationExcelExporter reservationExcelExporter;
     private final AvailabilityService availabilityService;
     private final WhatsAppService whatsAppService;
+    private final IdempotencyService idempotencyService;
+    private final ReservationMetrics reservationMetrics;
+    private final ReservationExportRepository reservationExportRepository;
+    private final ReservationStreamExporter reservationStreamExporter;
+    private final ReservationAdminListRepository reservationAdminListRepository;
+    private final BookingTransactions bookingTransactions;
+    private final BookingSequencer bookingSequencer;
+    private final CacheInvalidationBus cacheInvalidation;
 
     private static final LocalTime VISIT_TIME = LocalTime.of(9, 30);
     private static final ZoneId ZONE_AR = ZoneId.of("America/Argentina/Buenos_Aires");
@@ -44,20 +74,31 @@ public class ReservationService {
         long hours = Duration.between(now, visitDateTime).toHours();
 
         if (hours < 24) {
+            reservationMetrics.bookingRejected(ReservationMetrics.REJECTED_ADVANCE_NOTICE);
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     "Las reservas deben realizarse con al menos 24 horas de anticipación." );
         }
     }
 
-    @Transactional(isolation = org.springframework.transaction.annotation.Isolation.SERIALIZABLE)
     public UUID create(CreateReservationRequest req) {
+        return create(req, null);
+    }
+
+    /**
+     * Crea la reserva y, si se recibe una Idempotency-Key, la registra en la misma
+     * transacción para que los reintentos del cliente devuelvan esta reserva. Las
+     * validaciones que no leen la base se hacen antes de abrir la transacción
+     * (ver {@link BookingTransactions}).
+     */
+    public UUID create(CreateReservationRequest req, String idempotencyKey) {
         log.info("Creando reserva: fecha={}, dni={}, tipo={}, pax={}",
                 req.visitDate(), req.dni(), req.visitorType(),
                 req.adults18Plus() + req.children2To17() + req.babiesLessThan2());
 
         // Fix #2: Validar que la fecha no sea en el pasado
         if (req.visitDate().isBefore(LocalDate.now())) {
+            reservationMetrics.bookingRejected(ReservationMetrics.REJECTED_PAST_DATE);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "No se pueden crear reservas para fechas pasadas");
         }
@@ -65,6 +106,116 @@ public class ReservationService {
         // Fix #3: Validar mínimo 24 horas de anticipación
         validateMin24Hours(req.visitDate());
 
+        if (bookingTransactions.concurrency() == BookingConcurrency.SEQUENCER) {
+            return bookingSequencer.submit(new BookingSequencer.Command(req, idempotencyKey), this::bookBatch);
+        }
+        return bookingTransactions.execute(List.of(req.visitDate()), () -> book(req, idempotencyKey));
+    }
+
+    /**
+     * Confirma un lote de reservas de una misma fecha (modo SEQUENCER) en una sola
+     * transacción: el cupo y los duplicados se leen una vez y se descuentan en
+     * memoria a medida que se acepta cada reserva. Si la transacción falla (índice
+     * único, Idempotency-Key repetida) se revierte el lote y se crean todas de a una,
+     * para que el error quede solo en la que lo provocó: los rechazos del lote se
+     * descartan porque contaban el cupo y los DNI de reservas que no se crearon.
+     */
+    private List<BookingSequencer.Outcome> bookBatch(List<BookingSequencer.Command> batch) {
+        LocalDate date = batch.get(0).request().visitDate();
+        BookingSequencer.Outcome[] outcomes = new BookingSequencer.Outcome[batch.size()];
+        String[] rejections = new String[batch.size()];
+
+        Reservation[] saved;
+        try {
+            saved = bookingTransactions.execute(List.of(date), () -> bookAll(date, batch, outcomes, rejections));
+        } catch (DataIntegrityViolationException | ResponseStatusException ex) {
+            log.warn("Lote de reservas revertido, se crean de a una: fecha={}, reservas={}, error={}",
+                    date, batch.size(), ex.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                outcomes[i] = bookOne(batch.get(i));
+            }
+            return Arrays.asList(outcomes);
+        }
+
+        int created = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (rejections[i] != null) {
+                reservationMetrics.bookingRejected(rejections[i]);
+            }
+            Reservation r = saved[i];
+            if (r != null) {
+                reservationMetrics.bookingCreated(r.getVisitorType());
+                whatsAppService.sendAdminNotification(r);
+                outcomes[i] = BookingSequencer.Outcome.created(r.getId());
+                created++;
+            }
+        }
+        log.info("Lote de reservas: fecha={}, solicitadas={}, creadas={}, rechazadas={}",
+                date, batch.size(), created, batch.size() - created);
+        return Arrays.asList(outcomes);
+    }
+
+    /**
+     * Valida y persiste el lote. Deja en {@code outcomes} las reservas rechazadas (y
+     * en {@code rejections} el motivo para la métrica, que se registra recién con el
+     * commit) y devuelve las creadas en la misma posición (null en las rechazadas).
+     */
+    private Reservation[] bookAll(LocalDate date, List<BookingSequencer.Command> batch,
+                                  BookingSequencer.Outcome[] outcomes, String[] rejections) {
+        List<String> dnis = batch.stream()
+                .map(command -> reservationMapper.normalizeDni(command.request().dni()))
+                .toList();
+
+        int capacity = availabilityService.capacityFor(date);
+        int used = reservations.totalPeopleForDate(date);
+        Set<String> lookup = new HashSet<>(dnis);
+        lookup.remove(null);
+        Set<String> taken = new HashSet<>();
+        if (!lookup.isEmpty()) {
+            reservations.findKeysByVisitDateInAndDniIn(List.of(date), lookup)
+                    .forEach(key -> taken.add(key.dni()));
+        }
+
+        Reservation[] saved = new Reservation[batch.size()];
+        List<Reservation> toSave = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            CreateReservationRequest req = batch.get(i).request();
+            String dni = dnis.get(i);
+            int index = i;
+            try {
+                checkBookable(req, used, capacity, () -> dni != null && !taken.add(dni),
+                        reason -> rejections[index] = reason);
+            } catch (ResponseStatusException ex) {
+                outcomes[i] = BookingSequencer.Outcome.failed(ex);
+                continue;
+            }
+            used += req.adults18Plus() + req.children2To17() + req.babiesLessThan2();
+            saved[i] = reservationMapper.fromCreateRequest(req, dni);
+            toSave.add(saved[i]);
+        }
+
+        reservations.saveAll(toSave);
+        reservations.flush();
+
+        for (int i = 0; i < batch.size(); i++) {
+            String idempotencyKey = batch.get(i).idempotencyKey();
+            if (saved[i] != null && idempotencyKey != null && !idempotencyKey.isBlank()) {
+                idempotencyService.register(idempotencyKey, batch.get(i).request(), saved[i].getId());
+            }
+        }
+        return saved;
+    }
+
+    private BookingSequencer.Outcome bookOne(BookingSequencer.Command command) {
+        try {
+            return BookingSequencer.Outcome.created(bookingTransactions.execute(
+                    List.of(command.request().visitDate()), () -> book(command.request(), command.idempotencyKey())));
+        } catch (RuntimeException ex) {
+            return BookingSequencer.Outcome.failed(ex);
+        }
+    }
+
+    private UUID book(CreateReservationRequest req, String idempotencyKey) {
         String dni = reservationMapper.normalizeDni(req.dni());
 
         int capacity = availabilityService.capacityFor(req.visitDate());
@@ -85,6 +236,44 @@ public class ReservationService {
         // }
 
         int used = reservations.totalPeopleForDate(req.visitDate());
+        checkBookable(req, used, capacity, () -> dni != null && reservations.existsByVisitDateAndDniAndStatusNot(
+                req.visitDate(), dni, ReservationStatus.CANCELLED), reservationMetrics::bookingRejected);
+
+        Reservation r = reservationMapper.fromCreateRequest(req, dni);
+
+        try {
+            // Flush explícito: la clave de idempotencia referencia a la reserva y el
+            // índice único (fecha + DNI) tiene que fallar dentro de este try
+            reservations.saveAndFlush(r);
+            log.info("Reserva creada exitosamente: id={}, fecha={}, dni={}",
+                    r.getId(), r.getVisitDate(), dni);
+
+            if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+                idempotencyService.register(idempotencyKey, req, r.getId());
+            }
+
+            reservationMetrics.bookingCreated(r.getVisitorType());
+
+            // Notificar a administradores por WhatsApp (asíncrono)
+            whatsAppService.sendAdminNotification(r);
+
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Error de integridad al crear reserva: dni={}, fecha={}, error={}",
+                    dni, req.visitDate(), ex.getMessage());
+            handleDataIntegrityViolation(ex);
+        }
+
+        return r.getId();
+    }
+
+    /**
+     * Reglas del alta contra el cupo ya usado de la fecha. Lanza el mismo error que
+     * recibe el cliente; el duplicado (fecha + DNI) se consulta recién al final,
+     * si pasaron las demás reglas. El motivo del rechazo para la métrica va a
+     * {@code rejected}.
+     */
+    private void checkBookable(CreateReservationRequest req, int used, int capacity, BooleanSupplier duplicate,
+                               Consumer<String> rejected) {
         int requested = req.adults18Plus() + req.children2To17() + req.babiesLessThan2();
 
         //Debe haber al menos una persona
@@ -95,6 +284,7 @@ public class ReservationService {
 
         //Sin cupo → error consistente
         if (used + requested > capacity) {
+            rejected.accept(ReservationMetrics.REJECTED_CAPACITY);
             throw new ResponseStatusException(HttpStatus.CONFLICT,
                     "No hay cupo disponible para esa fecha");
         }
@@ -102,6 +292,7 @@ public class ReservationService {
         //Reglas extra para instituciones educativas
         if (req.visitorType() == VisitorType.EDUCATIONAL_INSTITUTION) {
             if (!systemConfigService.isEducationalReservationsEnabled()) {
+                rejected.accept(ReservationMetrics.REJECTED_INSTITUTION);
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN,
                         "Las reservas para instituciones educativas no están habilitadas en este momento");
             }
@@ -115,31 +306,91 @@ public class ReservationService {
             }
         }
 
-
         // ✅ Pre-chequeo de duplicado (fecha + DNI, excluyendo canceladas)
-        if (dni != null && reservations.existsByVisitDateAndDniAndStatusNot(
-                req.visitDate(), dni, ReservationStatus.CANCELLED)) {
+        if (duplicate.getAsBoolean()) {
+            rejected.accept(ReservationMetrics.REJECTED_DUPLICATE);
             throw new ResponseStatusException(HttpStatus.CONFLICT,
                     "Ya existe una visita con ese DNI en esa fecha.");
         }
+    }
 
-        Reservation r = reservationMapper.fromCreateRequest(req, dni);
+    /**
+     * Resultado de una reserva importada: el id si se creó o el motivo del rechazo.
+     */
+    public record ImportOutcome(UUID id, String error) {
+        static ImportOutcome rejected(String error) {
+            return new ImportOutcome(null, error);
+        }
+    }
 
-        try {
-            reservations.save(r);
-            log.info("Reserva creada exitosamente: id={}, fecha={}, dni={}",
-                    r.getId(), r.getVisitDate(), dni);
+    /**
+     * Crea varias reservas ya validadas (importación masiva del panel) en una sola
+     * transacción: el cupo se consulta una vez por fecha, los duplicados en una sola
+     * consulta y las inserciones van en lotes JDBC. Una reserva rechazada no impide
+     * crear las demás. El resultado está alineado con la lista recibida.
+     */
+    @WorkloadPool(Workload.ADMIN)
+    public List<ImportOutcome> importReservations(List<CreateReservationRequest> requests) {
+        Set<LocalDate> dates = new HashSet<>();
+        requests.forEach(req -> dates.add(req.visitDate()));
+        return bookingTransactions.execute(dates, () -> importAll(requests, dates));
+    }
 
-            // Notificar a administradores por WhatsApp (asíncrono)
-            whatsAppService.sendAdminNotification(r);
+    private List<ImportOutcome> importAll(List<CreateReservationRequest> requests, Set<LocalDate> dates) {
+        List<String> dnis = requests.stream().map(req -> reservationMapper.normalizeDni(req.dni())).toList();
+
+        Map<LocalDate, Integer> remaining = new HashMap<>(availabilityService.remainingFor(dates));
+        Set<ReservationKeyDTO> taken = new HashSet<>(dnis.isEmpty()
+                ? List.of()
+                : reservations.findKeysByVisitDateInAndDniIn(dates, new HashSet<>(dnis)));
+
+        List<ImportOutcome> outcomes = new ArrayList<>(requests.size());
+        List<Reservation> toSave = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateReservationRequest req = requests.get(i);
+            int requested = req.adults18Plus() + req.children2To17() + req.babiesLessThan2();
+            int available = remaining.getOrDefault(req.visitDate(), 0);
+            ReservationKeyDTO key = new ReservationKeyDTO(req.visitDate(), dnis.get(i));
+
+            String error = null;
+            if (req.visitDate().isBefore(today)) {
+                error = "No se pueden crear reservas para fechas pasadas";
+            } else if (requested <= 0) {
+                error = "La reserva debe incluir al menos una persona";
+            } else if (!taken.add(key)) {
+                error = "Ya existe una visita con ese DNI en esa fecha.";
+            } else if (requested > available) {
+                error = "No hay cupo disponible para esa fecha (quedan " + available + ")";
+            }
 
-        } catch (DataIntegrityViolationException ex) {
-            log.warn("Error de integridad al crear reserva: dni={}, fecha={}, error={}",
-                    dni, req.visitDate(), ex.getMessage());
-            handleDataIntegrityViolation(ex);
+            if (error != null) {
+                outcomes.add(ImportOutcome.rejected(error));
+                continue;
+            }
+            remaining.put(req.visitDate(), available - requested);
+            Reservation r = reservationMapper.fromCreateRequest(req, dnis.get(i));
+            toSave.add(r);
+            outcomes.add(null);
         }
 
-        return r.getId();
+        // Los ids se asignan al persistir; con hibernate.jdbc.batch_size las
+        // reservas y sus visitantes se insertan en lotes
+        reservations.saveAll(toSave);
+        reservations.flush();
+
+        Iterator<Reservation> saved = toSave.iterator();
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == null) {
+                Reservation r = saved.next();
+                outcomes.set(i, new ImportOutcome(r.getId(), null));
+                reservationMetrics.bookingCreated(r.getVisitorType());
+            }
+        }
+
+        log.info("Importación de reservas: solicitadas={}, creadas={}, rechazadas={}",
+                requests.size(), toSave.size(), requests.size() - toSave.size());
+        return outcomes;
     }
 
     @Transactional
@@ -154,39 +405,15 @@ public class ReservationService {
 
 
 
+    @WorkloadPool(Workload.ADMIN)
+    @QueryTimeout("${app.query-timeout.export:PT60S}")
     @Transactional(readOnly = true)
     public byte[] exportExcel(LocalDate date, java.time.YearMonth month, Integer year,
                               ReservationStatus status, VisitorType visitorType,
                               String dni, String name, boolean maskContacts) {
-        String normalizedDni = reservationMapper.normalizeDni(dni);
-
-        // Calcular rangos para mes y año
-        LocalDate monthStart = null;
-        LocalDate monthEnd = null;
-        if (month != null) {
-            monthStart = month.atDay(1);
-            monthEnd = month.atEndOfMonth();
-        }
-
-        LocalDate yearStart = null;
-        LocalDate yearEnd = null;
-        if (year != null) {
-            yearStart = LocalDate.of(year, 1, 1);
-            yearEnd = LocalDate.of(year, 12, 31);
-        }
-
-        // Consulta optimizada en base de datos (native query requiere Strings para enums)
-        List<Reservation> list = reservations.findWithFilters(
-                date,
-                monthStart,
-                monthEnd,
-                yearStart,
-                yearEnd,
-                status != null ? status.name() : null,
-                visitorType != null ? visitorType.name() : null,
-                normalizedDni,
-                name
-        );
+        VisitDateRange range = VisitDateRange.of(date, month, year);
+        List<Reservation> list = reservations.findWithFilters(range.from(), range.to(), status, visitorType,
+                reservationMapper.normalizeDni(dni), name);
 
         // Límite de seguridad para evitar exportaciones masivas
         if (list.size() > 10000) {
@@ -200,11 +427,93 @@ public class ReservationService {
     }
 
 
+    /**
+     * Exporta en CSV o NDJSON escribiendo cada fila a medida que llega del cursor.
+     * No tiene el límite de 10,000 registros del XLSX: la memoria no crece con el
+     * rango exportado.
+     */
+    @WorkloadPool(Workload.ADMIN)
+    @QueryTimeout("${app.query-timeout.export:PT60S}")
+    @Transactional(readOnly = true)
+    public long streamExport(ExportReservationsFilter filter, ExportFormat format, boolean maskContacts,
+                             OutputStream out) throws IOException {
+        return streamExport(filter, format, maskContacts, out, rows -> { });
+    }
+
+    /**
+     * Igual que {@link #streamExport(ExportReservationsFilter, ExportFormat, boolean, OutputStream)},
+     * informando las filas escritas hasta el momento (para el progreso de los trabajos de exportación).
+     */
+    @WorkloadPool(Workload.ADMIN)
+    @QueryTimeout("${app.query-timeout.export:PT60S}")
+    @Transactional(readOnly = true)
+    public long streamExport(ExportReservationsFilter filter, ExportFormat format, boolean maskContacts,
+                             OutputStream out, LongConsumer progress) throws IOException {
+        VisitDateRange range = VisitDateRange.of(filter.getDate(),
+                filter.getMonth() != null && !filter.getMonth().isBlank()
+                        ? java.time.YearMonth.parse(filter.getMonth())
+                        : null,
+                filter.getYear());
+
+        long[] lines = {0};
+        try (ReservationStreamExporter.LineWriter writer = reservationStreamExporter.open(format, out)) {
+            reservationExportRepository.streamLines(range.from(), range.to(), filter.getStatus(), filter.getVisitorType(),
+                    reservationMapper.normalizeDni(filter.getDni()), filter.getName(), line -> {
+                        writer.write(maskContacts ? line.masked() : line);
+                        progress.accept(++lines[0]);
+                    });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        log.info("Exportadas {} filas en {}", lines[0], format);
+        return lines[0];
+    }
+
+    /**
+     * Rango de fechas de visita de una exportación: intersección de la fecha
+     * exacta, el mes y el año que se hayan informado (extremos null = abierto).
+     */
+    private record VisitDateRange(LocalDate from, LocalDate to) {
+
+        static VisitDateRange of(LocalDate date, java.time.YearMonth month, Integer year) {
+            LocalDate from = date;
+            LocalDate to = date;
+            if (month != null) {
+                from = latest(from, month.atDay(1));
+                to = earliest(to, month.atEndOfMonth());
+            }
+            if (year != null) {
+                from = latest(from, LocalDate.of(year, 1, 1));
+                to = earliest(to, LocalDate.of(year, 12, 31));
+            }
+            return new VisitDateRange(from, to);
+        }
+
+        private static LocalDate latest(LocalDate a, LocalDate b) {
+            return a == null || b.isAfter(a) ? b : a;
+        }
+
+        private static LocalDate earliest(LocalDate a, LocalDate b) {
+            return a == null || b.isBefore(a) ? b : a;
+        }
+    }
+
     public Reservation findById(UUID id){
         return reservations.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva no encontrada"));
     }
 
+    /**
+     * Resumen público de la reserva con una proyección: no carga la entidad
+     * ni sus visitantes.
+     */
+    public ReservationSummaryDTO findSummary(UUID id) {
+        return reservations.findSummaryById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva no encontrada"));
+    }
+
+    @WorkloadPool(Workload.ADMIN)
+    @QueryTimeout("${app.query-timeout.admin-list:PT15S}")
     @Transactional(readOnly = true)
     public List<AdminReservationDTO> adminList(LocalDate date, ReservationStatus status, String dni) {
         List<Reservation> list;
@@ -240,46 +549,73 @@ public class ReservationService {
                 .toList();
     }
 
+    /**
+     * Listado paginado del panel. El conteo depende de {@code countMode}: EXACT hace
+     * el count(*) de siempre, NONE devuelve un Slice (trae una fila de más para saber
+     * si hay otra página) y ESTIMATED, sin filtros, toma el total de la estadística
+     * de la tabla en vez de recorrerla; con filtros el conteo es exacto. Las filas
+     * salen ya proyectadas de {@link ReservationAdminListRepository}, sin entidades.
+     */
+    @WorkloadPool(Workload.ADMIN)
+    @QueryTimeout("${app.query-timeout.admin-list:PT15S}")
     @Transactional(readOnly = true)
-    public Page<AdminReservationDTO> adminListPaged(LocalDate date, ReservationStatus status, String dni, String name, Pageable pageable) {
-        String normalizedDni = reservationMapper.normalizeDni(dni);
-        var spec = ReservationSpecifications.withFilters(date, status, normalizedDni, name);
-        return reservations.findAll(spec, pageable)
-                .map(reservationMapper::toAdminDTO);
+    public Slice<AdminReservationDTO> adminListPaged(LocalDate date, ReservationStatus status, String dni, String name,
+                                                     Pageable pageable, PageCountMode countMode) {
+        ReservationFilterSql filter = ReservationFilterSql.forAdminList(
+                date, status, reservationMapper.normalizeDni(dni), name);
+
+        if (countMode == PageCountMode.EXACT || (countMode == PageCountMode.ESTIMATED && !filter.isEmpty())) {
+            List<AdminReservationDTO> content = reservationAdminListRepository.findPage(
+                    filter, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+            return PageableExecutionUtils.getPage(content, pageable,
+                    () -> reservationAdminListRepository.count(filter));
+        }
+
+        // Una fila de más indica si hay página siguiente sin contar
+        List<AdminReservationDTO> rows = reservationAdminListRepository.findPage(
+                filter, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<AdminReservationDTO> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        if (countMode == PageCountMode.NONE) {
+            return new SliceImpl<>(content, pageable, hasNext);
+        }
+        if (!hasNext) {
+            // Última página: el total se conoce sin contar
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+        }
+        // La estadística puede estar atrasada: nunca menos de lo que ya se sabe que existe
+        long known = pageable.getOffset() + content.size() + 1;
+        long total = reservations.estimatedCount().orElseGet(() -> reservationAdminListRepository.count(filter));
+        return new PageImpl<>(content, pageable, Math.max(total, known));
     }
 
     @Transactional
     public void confirmReservation(UUID id) {
         log.info("Confirmando reserva: id={}", id);
-        Reservation reservation = reservations.findById(id)
+        // UPDATE ... RETURNING: sin cargar la entidad ni sus visitantes
+        ReservationContactDTO contact = reservations.updateStatusReturningContact(id, ReservationStatus.CONFIRMED)
                 .orElseThrow(() -> {
                     log.warn("Reserva no encontrada para confirmar: id={}", id);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva no encontrada");
                 });
-        reservation.setStatus(ReservationStatus.CONFIRMED);
-        reservations.save(reservation);
-        log.info("Reserva confirmada: id={}, dni={}, fecha={}",
-                id, reservation.getDni(), reservation.getVisitDate());
+        log.info("Reserva confirmada: id={}, fecha={}", id, contact.visitDate());
 
         // Enviar notificación por WhatsApp (asíncrono)
-        whatsAppService.sendConfirmation(reservation);
+        whatsAppService.sendConfirmation(contact);
     }
 
     @Transactional
     public void cancelReservation(UUID id) {
         log.info("Cancelando reserva: id={}", id);
-        Reservation reservation = reservations.findById(id)
+        ReservationContactDTO contact = reservations.updateStatusReturningContact(id, ReservationStatus.CANCELLED)
                 .orElseThrow(() -> {
                     log.warn("Reserva no encontrada para cancelar: id={}", id);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva no encontrada");
                 });
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        reservations.save(reservation);
-        log.info("Reserva cancelada: id={}, dni={}, fecha={}",
-                id, reservation.getDni(), reservation.getVisitDate());
+        log.info("Reserva cancelada: id={}, fecha={}", id, contact.visitDate());
 
         // Enviar notificación de cancelación por WhatsApp (asíncrono)
-        whatsAppService.sendCancellation(reservation);
+        whatsAppService.sendCancellation(contact);
     }
 
     @Transactional
@@ -295,9 +631,100 @@ public class ReservationService {
                 id, reservation.getDni(), reservation.getVisitDate());
     }
 
+    /**
+     * Aplica una acción (confirmar, cancelar o eliminar) a varias reservas con una
+     * única sentencia UPDATE/DELETE y encola las notificaciones como un solo lote,
+     * después del commit. Las canceladas cuya fecha + DNI ya tiene otra reserva
+     * activa no se confirman (CONFLICT), para que una no revierta a todas.
+     */
+    @Transactional
+    public BulkReservationResponse bulkAction(BulkReservationRequest req) {
+        Set<UUID> ids = new LinkedHashSet<>(req.ids());
+        log.info("Operación masiva: accion={}, reservas={}", req.action(), ids.size());
+
+        Map<UUID, ReservationContactDTO> found = new HashMap<>();
+        for (ReservationContactDTO contact : reservations.findContactsByIdIn(ids)) {
+            found.put(contact.id(), contact);
+        }
+
+        ReservationStatus target = switch (req.action()) {
+            case CONFIRM -> ReservationStatus.CONFIRMED;
+            case CANCEL -> ReservationStatus.CANCELLED;
+            case DELETE -> null;
+        };
+
+        Set<UUID> conflicts = new HashSet<>();
+        if (target == ReservationStatus.CONFIRMED) {
+            List<UUID> cancelled = found.values().stream()
+                    .filter(contact -> contact.status() == ReservationStatus.CANCELLED)
+                    .map(ReservationContactDTO::id)
+                    .toList();
+            if (!cancelled.isEmpty()) {
+                conflicts.addAll(reservations.findReactivationConflicts(cancelled));
+            }
+        }
+        Set<UUID> targets = new HashSet<>(found.keySet());
+        targets.removeAll(conflicts);
+
+        int affected = 0;
+        if (!targets.isEmpty()) {
+            affected = target == null
+                    ? reservations.deleteByIdIn(targets)
+                    : reservations.updateStatusByIdIn(targets, target, Instant.now());
+        }
+        if (affected > 0) {
+            // La sentencia masiva vacía la región de reservas en esta instancia; las demás, con el commit
+            cacheInvalidation.publish(CacheInvalidation.all(CacheInvalidation.Type.RESERVATION));
+        }
+
+        List<BulkReservationResult> results = new ArrayList<>(ids.size());
+        List<ReservationContactDTO> toNotify = new ArrayList<>();
+        for (UUID id : ids) {
+            ReservationContactDTO contact = found.get(id);
+            if (contact == null) {
+                results.add(new BulkReservationResult(id, BulkReservationResult.Outcome.NOT_FOUND));
+            } else if (conflicts.contains(id)) {
+                results.add(new BulkReservationResult(id, BulkReservationResult.Outcome.CONFLICT));
+            } else if (target == null) {
+                results.add(new BulkReservationResult(id, BulkReservationResult.Outcome.DELETED));
+            } else if (contact.status() == target) {
+                results.add(new BulkReservationResult(id, BulkReservationResult.Outcome.UNCHANGED));
+            } else {
+                results.add(new BulkReservationResult(id, BulkReservationResult.Outcome.UPDATED));
+                toNotify.add(contact);
+            }
+        }
+
+        log.info("Operación masiva completada: accion={}, afectadas={}, no encontradas={}, en conflicto={}",
+                req.action(), affected, ids.size() - found.size(), conflicts.size());
+
+        // Notificaciones por WhatsApp en un único lote asíncrono, solo si el cambio se confirma
+        if (target == ReservationStatus.CONFIRMED) {
+            afterCommit(() -> whatsAppService.sendConfirmations(toNotify));
+        } else if (target == ReservationStatus.CANCELLED) {
+            afterCommit(() -> whatsAppService.sendCancellations(toNotify));
+        }
+
+        return new BulkReservationResponse(req.action(), affected, results);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     private void handleDataIntegrityViolation(DataIntegrityViolationException ex) {
         String root = ex.getMessage() != null ? ex.getMessage() : "";
         if (root.contains("ux_reservations_date_dni")) {
+            reservationMetrics.bookingRejected(ReservationMetrics.REJECTED_DUPLICATE);
             throw new ResponseStatusException(HttpStatus.CONFLICT,
                     "Ya existe una visita con ese DNI en esa fecha.");
         }
@@ -0,0 +1,236 @@
+package com.luismunozse.reservalago.service;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lee planillas XLSX o CSV fila por fila sin cargar el archivo completo: el XLSX
+ * se procesa con el modelo de eventos de POI (SAX sobre la primera hoja) y el CSV
+ * línea por línea. La primera fila es el encabezado; cada fila siguiente se entrega
+ * como un mapa columna → valor, con los nombres de columna normalizados
+ * (minúsculas, sin acentos, espacios como "_").
+ */
+@Component
+public class ReservationSpreadsheetReader {
+
+    public enum Format { XLSX, CSV }
+
+    public record SpreadsheetRow(int rowNumber, Map<String, String> values) {
+
+        public String get(String column) {
+            String value = values.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        boolean isBlank() {
+            return values.values().stream().allMatch(v -> v == null || v.isBlank());
+        }
+    }
+
+    /**
+     * @return los nombres de columna normalizados del encabezado
+     */
+    public List<String> read(Path file, Format format, Consumer<SpreadsheetRow> rows) throws IOException {
+        return switch (format) {
+            case XLSX -> readXlsx(file, rows);
+            case CSV -> readCsv(file, rows);
+        };
+    }
+
+    static String normalizeHeader(String header) {
+        String plain = Normalizer.normalize(header.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return plain.toLowerCase(Locale.ROOT).replaceAll("[\\s-]+", "_");
+    }
+
+    // ---------------------------------------------------------------- XLSX
+
+    private List<String> readXlsx(Path file, Consumer<SpreadsheetRow> rows) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El archivo no tiene hojas");
+            }
+            try (InputStream sheet = sheets.next()) {
+                RowCollector collector = new RowCollector(rows);
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, null, strings, collector, new IsoDateFormatter(), false));
+                parser.parse(new InputSource(sheet));
+                return List.copyOf(collector.headers.values());
+            }
+        } catch (ResponseStatusException | IOException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No se pudo leer el archivo XLSX", ex);
+        }
+    }
+
+    /**
+     * Arma cada fila a partir de los eventos de celda. Las celdas vacías no generan
+     * evento, así que el valor se ubica por la columna de su referencia (A1, B1…).
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<SpreadsheetRow> rows;
+        private final Map<Integer, String> headers = new HashMap<>();
+        private Map<String, String> current;
+        private boolean headerRow = true;
+
+        RowCollector(Consumer<SpreadsheetRow> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            current = new HashMap<>();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (headerRow) {
+                if (formattedValue != null && !formattedValue.isBlank()) {
+                    headers.put(column, normalizeHeader(formattedValue));
+                }
+            } else {
+                String header = headers.get(column);
+                if (header != null) {
+                    current.put(header, formattedValue);
+                }
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headerRow) {
+                headerRow = false;
+                return;
+            }
+            SpreadsheetRow row = new SpreadsheetRow(rowNum + 1, current);
+            if (!row.isBlank()) {
+                rows.accept(row);
+            }
+        }
+    }
+
+    /**
+     * Las fechas se entregan en ISO (yyyy-MM-dd) sin importar el formato de la
+     * celda, para no depender de la configuración regional de quien armó la planilla.
+     */
+    private static final class IsoDateFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                LocalDate date = DateUtil.getLocalDateTime(value).toLocalDate();
+                return date.toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+    }
+
+    // ---------------------------------------------------------------- CSV
+
+    private List<String> readCsv(Path file, Consumer<SpreadsheetRow> rows) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return List.of();
+            }
+            if (headerLine.startsWith("\uFEFF")) {
+                headerLine = headerLine.substring(1);
+            }
+            // Excel en español exporta CSV separado por ';'
+            char separator = count(headerLine, ';') > count(headerLine, ',') ? ';' : ',';
+            List<String> headers = splitCsvLine(headerLine, separator).stream()
+                    .map(ReservationSpreadsheetReader::normalizeHeader)
+                    .toList();
+
+            String line;
+            int rowNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                List<String> cells = splitCsvLine(line, separator);
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < headers.size() && i < cells.size(); i++) {
+                    values.put(headers.get(i), cells.get(i));
+                }
+                SpreadsheetRow row = new SpreadsheetRow(rowNumber, values);
+                if (!row.isBlank()) {
+                    rows.accept(row);
+                }
+            }
+            return headers;
+        }
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas dobles ("" dentro de un campo
+     * entrecomillado es una comilla literal). No admite saltos de línea dentro de
+     * un campo.
+     */
+    static List<String> splitCsvLine(String line, char separator) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static int count(String s, char c) {
+        return (int) s.chars().filter(ch -> ch == c).count();
+    }
+}
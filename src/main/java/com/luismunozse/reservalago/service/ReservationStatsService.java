@@ -0,0 +1,126 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.config.Workload;
+import com.luismunozse.reservalago.config.WorkloadPool;
+import com.luismunozse.reservalago.dto.ReservationStatsDTO;
+import com.luismunozse.reservalago.dto.ReservationStatsDTO.Count;
+import com.luismunozse.reservalago.dto.ReservationStatsDTO.DailyCount;
+import com.luismunozse.reservalago.dto.ReservationStatsRow;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.repo.ReservationStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Estadísticas del tablero de administración. Lee la vista materializada
+ * reservation_daily_stats, que se refresca periódicamente, en lugar de
+ * recorrer la tabla de reservas en cada consulta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationStatsService {
+
+    static final long MAX_RANGE_DAYS = 731; // dos años
+
+    private final ReservationStatsRepository statsRepository;
+
+    private final AtomicReference<Instant> refreshedAt = new AtomicReference<>();
+
+    @Scheduled(fixedDelayString = "${app.stats.refresh-interval:PT5M}")
+    @WorkloadPool(Workload.BACKGROUND)
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        try {
+            // En un cluster refresca una sola instancia; todas toman la hora del último refresco
+            statsRepository.refresh();
+            Instant lastRefresh = statsRepository.lastRefresh();
+            if (lastRefresh != null) {
+                refreshedAt.set(lastRefresh);
+            }
+            log.debug("Estadísticas refrescadas en {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Error refrescando estadísticas: {}", e.getMessage());
+        }
+    }
+
+    @WorkloadPool(Workload.ADMIN)
+    public ReservationStatsDTO getStats(LocalDate from, LocalDate to) {
+        // Por defecto: el mes de la fecha indicada (o el mes actual)
+        if (from == null && to == null) {
+            from = LocalDate.now().withDayOfMonth(1);
+            to = from.withDayOfMonth(from.lengthOfMonth());
+        } else if (from == null) {
+            from = to.withDayOfMonth(1);
+        } else if (to == null) {
+            to = from.withDayOfMonth(from.lengthOfMonth());
+        }
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "'to' debe ser posterior o igual a 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El rango máximo de estadísticas es de " + MAX_RANGE_DAYS + " días");
+        }
+
+        List<ReservationStatsRow> rows = statsRepository.findBetween(from, to);
+
+        Count total = new Count(0, 0);
+        Map<String, Count> byStatus = emptyCounts(ReservationStatus.values());
+        Map<String, Count> byCircuit = emptyCounts(Circuit.values());
+        Map<String, Count> byVisitorType = emptyCounts(VisitorType.values());
+        Map<String, Count> byHowHeard = emptyCounts(HowHeard.values());
+        Map<LocalDate, Count> byDay = new TreeMap<>();
+
+        for (ReservationStatsRow row : rows) {
+            long reservations = row.reservations();
+            long people = row.people();
+            byStatus.merge(row.status().name(), new Count(reservations, people), ReservationStatsService::sum);
+
+            if (row.status() == ReservationStatus.CANCELLED) {
+                continue;
+            }
+            total = total.plus(reservations, people);
+            byCircuit.merge(row.circuit().name(), new Count(reservations, people), ReservationStatsService::sum);
+            byVisitorType.merge(row.visitorType().name(), new Count(reservations, people), ReservationStatsService::sum);
+            byHowHeard.merge(row.howHeard().name(), new Count(reservations, people), ReservationStatsService::sum);
+            byDay.merge(row.visitDate(), new Count(reservations, people), ReservationStatsService::sum);
+        }
+
+        List<DailyCount> days = byDay.entrySet().stream()
+                .map(e -> new DailyCount(e.getKey(), e.getValue().reservations(), e.getValue().people()))
+                .toList();
+
+        return new ReservationStatsDTO(from, to, total, byStatus, byCircuit, byVisitorType, byHowHeard,
+                days, refreshedAt.get());
+    }
+
+    private static Map<String, Count> emptyCounts(Enum<?>[] values) {
+        Map<String, Count> map = new LinkedHashMap<>();
+        for (Enum<?> value : values) {
+            map.put(value.name(), new Count(0, 0));
+        }
+        return map;
+    }
+
+    private static Count sum(Count a, Count b) {
+        return a.plus(b.reservations(), b.people());
+    }
+}
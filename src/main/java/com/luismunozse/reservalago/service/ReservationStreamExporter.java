@@ -0,0 +1,150 @@
+package com.luismunozse.reservalago.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.luismunozse.reservalago.dto.ExportFormat;
+import com.luismunozse.reservalago.dto.ReservationExportLine;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escribe la exportación de reservas en CSV o NDJSON a medida que llegan las filas,
+ * sin acumularlas: la memoria usada no depende de la cantidad de reservas.
+ */
+@Component
+public class ReservationStreamExporter {
+
+    // Mismas columnas que el XLSX
+    static final String[] CSV_HEADERS = {
+            "ID", "Rol", "Fecha de visita", "Estado", "Nombre", "Apellido", "DNI", "Email", "Teléfono",
+            "Patente", "Tipo de visitante", "Circuito", "Procedencia", "Adultos 18+", "Menores 2-17",
+            "Bebés <2", "Movilidad reducida", "Creada"
+    };
+
+    private final ObjectWriter jsonWriter;
+
+    public ReservationStreamExporter(ObjectMapper objectMapper) {
+        this.jsonWriter = objectMapper.writerFor(ReservationExportLine.class);
+    }
+
+    /**
+     * Abre un escritor sobre la salida. Al cerrarlo se vacía el buffer pero la
+     * salida queda abierta.
+     */
+    public LineWriter open(ExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        return switch (format) {
+            case CSV -> new CsvLineWriter(writer);
+            case NDJSON -> new NdjsonLineWriter(writer, jsonWriter);
+            case XLSX -> throw new IllegalArgumentException("XLSX no se exporta en streaming");
+        };
+    }
+
+    public interface LineWriter extends Flushable, AutoCloseable {
+
+        /**
+         * @throws UncheckedIOException si falla la escritura (por ejemplo, el cliente cortó la descarga)
+         */
+        void write(ReservationExportLine line);
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private abstract static class BufferedLineWriter implements LineWriter {
+
+        protected final Writer writer;
+
+        BufferedLineWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ReservationExportLine line) {
+            try {
+                append(line);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        abstract void append(ReservationExportLine line) throws IOException;
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class CsvLineWriter extends BufferedLineWriter {
+
+        CsvLineWriter(Writer writer) {
+            super(writer);
+            try {
+                writer.write(String.join(",", CSV_HEADERS));
+                writer.write("\r\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        void append(ReservationExportLine l) throws IOException {
+            Object[] values = {
+                    l.id(), l.role(), l.visitDate(), l.status(), l.firstName(), l.lastName(), l.dni(),
+                    l.email(), l.phone(), l.vehiclePlate(), l.visitorType(), l.circuit(), l.originLocation(),
+                    l.adults18Plus(), l.children2To17(), l.babiesLessThan2(), l.reducedMobility(), l.createdAt()
+            };
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * RFC 4180: entre comillas si el valor tiene coma, comillas o salto de línea.
+     */
+    static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static final class NdjsonLineWriter extends BufferedLineWriter {
+
+        private final ObjectWriter jsonWriter;
+
+        NdjsonLineWriter(Writer writer, ObjectWriter jsonWriter) {
+            super(writer);
+            this.jsonWriter = jsonWriter;
+        }
+
+        @Override
+        void append(ReservationExportLine line) throws IOException {
+            writer.write(jsonWriter.writeValueAsString(line));
+            writer.write('\n');
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.luismunozse.reservalago.service;
 
+import com.luismunozse.reservalago.dto.ReservationContactDTO;
 import com.luismunozse.reservalago.model.Reservation;
 import com.luismunozse.reservalago.repo.UserRepository;
 import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.api.v2010.account.MessageCreator;
 import com.twilio.type.PhoneNumber;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,9 +16,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
+import java.util.UUID;
 
 @Service
 @Slf4j
@@ -22,6 +28,7 @@ import java.util.Locale;
 public class WhatsAppService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.whatsapp.enabled:false}")
     private boolean enabled;
@@ -58,9 +65,9 @@ public class WhatsAppService {
     }
 
     @Async
-    public void sendConfirmation(Reservation reservation) {
+    public void sendConfirmation(ReservationContactDTO contact) {
         if (!enabled) {
-            log.debug("WhatsApp disabled, skipping notification for reservation {}", reservation.getId());
+            log.debug("WhatsApp disabled, skipping notification for reservation {}", contact.id());
             return;
         }
 
@@ -69,70 +76,122 @@ public class WhatsAppService {
             return;
         }
 
+        deliverConfirmation(contact.id(), contact.visitDate(), contact.phone());
+    }
+
+    /**
+     * Envía las confirmaciones de una operación masiva en una única tarea asíncrona.
+     */
+    @Async
+    public void sendConfirmations(List<ReservationContactDTO> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            log.debug("WhatsApp disabled, skipping {} confirmation notifications", contacts.size());
+            return;
+        }
+
+        if (accountSid.isBlank() || authToken.isBlank()) {
+            log.warn("Twilio credentials not configured, skipping WhatsApp notifications");
+            return;
+        }
+
+        for (ReservationContactDTO contact : contacts) {
+            deliverConfirmation(contact.id(), contact.visitDate(), contact.phone());
+        }
+    }
+
+    @Async
+    public void sendCancellation(ReservationContactDTO contact) {
+        if (!enabled) {
+            log.debug("WhatsApp disabled, skipping cancellation notification for reservation {}", contact.id());
+            return;
+        }
+
+        if (accountSid.isBlank() || authToken.isBlank()) {
+            log.warn("Twilio credentials not configured, skipping WhatsApp cancellation notification");
+            return;
+        }
+
+        deliverCancellation(contact.id(), contact.phone());
+    }
+
+    /**
+     * Envía las cancelaciones de una operación masiva en una única tarea asíncrona.
+     */
+    @Async
+    public void sendCancellations(List<ReservationContactDTO> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            log.debug("WhatsApp disabled, skipping {} cancellation notifications", contacts.size());
+            return;
+        }
+
+        if (accountSid.isBlank() || authToken.isBlank()) {
+            log.warn("Twilio credentials not configured, skipping WhatsApp cancellation notifications");
+            return;
+        }
+
+        for (ReservationContactDTO contact : contacts) {
+            deliverCancellation(contact.id(), contact.phone());
+        }
+    }
+
+    private void deliverConfirmation(UUID reservationId, LocalDate visitDate, String phone) {
         try {
-            String toNumber = normalizePhoneNumber(reservation.getPhone());
+            String toNumber = normalizePhoneNumber(phone);
 
             // Variables para el template:
             // {{1}} = código de reserva
             // {{2}} = fecha de visita
             // {{3}} = link a detalles
-            String reservationCode = reservation.getId().toString().substring(0, 8).toUpperCase();
-            String formattedDate = reservation.getVisitDate().format(DATE_FORMATTER);
-            String reservationUrl = frontendUrl + "/reserva/" + reservation.getId();
+            String reservationCode = reservationId.toString().substring(0, 8).toUpperCase();
+            String formattedDate = visitDate.format(DATE_FORMATTER);
+            String reservationUrl = frontendUrl + "/reserva/" + reservationId;
 
             String contentVariables = String.format(
                 "{\"1\":\"%s\",\"2\":\"%s\",\"3\":\"%s\"}",
                 reservationCode, formattedDate, reservationUrl
             );
 
-            Message message = Message.creator(
+            Message message = send("confirmation", Message.creator(
                     new PhoneNumber("whatsapp:" + toNumber),
                     new PhoneNumber(fromNumber),
                     "" // Body vacío cuando se usa template
             )
             .setContentSid(CONFIRMATION_TEMPLATE_SID)
-            .setContentVariables(contentVariables)
-            .create();
+            .setContentVariables(contentVariables));
 
             log.info("WhatsApp confirmation sent to {} for reservation {}. SID: {}",
-                    toNumber, reservation.getId(), message.getSid());
+                    toNumber, reservationId, message.getSid());
 
         } catch (Exception e) {
             log.error("Failed to send WhatsApp confirmation for reservation {}: {}",
-                    reservation.getId(), e.getMessage());
+                    reservationId, e.getMessage());
         }
     }
 
-    @Async
-    public void sendCancellation(Reservation reservation) {
-        if (!enabled) {
-            log.debug("WhatsApp disabled, skipping cancellation notification for reservation {}", reservation.getId());
-            return;
-        }
-
-        if (accountSid.isBlank() || authToken.isBlank()) {
-            log.warn("Twilio credentials not configured, skipping WhatsApp cancellation notification");
-            return;
-        }
-
+    private void deliverCancellation(UUID reservationId, String phone) {
         try {
-            String toNumber = normalizePhoneNumber(reservation.getPhone());
+            String toNumber = normalizePhoneNumber(phone);
 
             // Template sin variables
-            Message message = Message.creator(
+            Message message = send("cancellation", Message.creator(
                     new PhoneNumber("whatsapp:" + toNumber),
                     new PhoneNumber(fromNumber),
                     "" // Body vacío cuando se usa template
             )
-            .setContentSid(CANCELLATION_TEMPLATE_SID)
-            .create();
+            .setContentSid(CANCELLATION_TEMPLATE_SID));
 
             log.info("WhatsApp cancellation sent to {} for reservation {}. SID: {}",
-                    toNumber, reservation.getId(), message.getSid());
+                    toNumber, reservationId, message.getSid());
 
         } catch (Exception e) {
             log.error("Failed to send WhatsApp cancellation for reservation {}: {}",
-                    reservation.getId(), e.getMessage());
+                    reservationId, e.getMessage());
         }
     }
 
@@ -161,11 +220,11 @@ public class WhatsAppService {
             try {
                 String toNumber = normalizePhoneNumber(phone);
 
-                Message message = Message.creator(
+                Message message = send("admin", Message.creator(
                         new PhoneNumber("whatsapp:" + toNumber),
                         new PhoneNumber(fromNumber),
                         messageBody
-                ).create();
+                ));
 
                 log.info("WhatsApp admin notification sent to {} for reservation {}. SID: {}",
                         toNumber, reservation.getId(), message.getSid());
@@ -177,6 +236,26 @@ public class WhatsAppService {
         }
     }
 
+    /**
+     * Envía el mensaje a Twilio midiendo la latencia de la llamada
+     * (reservalago.whatsapp.send, por template y resultado).
+     */
+    private Message send(String template, MessageCreator creator) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Message message = creator.create();
+            outcome = "success";
+            return message;
+        } finally {
+            sample.stop(Timer.builder("reservalago.whatsapp.send")
+                    .description("Latencia de envíos de WhatsApp vía Twilio")
+                    .tag("template", template)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
     private String buildAdminNotificationMessage(Reservation reservation) {
         String fullName = reservation.getFirstName() + " " + reservation.getLastName();
         String formattedDate = reservation.getVisitDate().format(DATE_FORMATTER);
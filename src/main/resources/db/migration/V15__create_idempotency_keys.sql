@@ -0,0 +1,12 @@
+-- Claves de idempotencia para POST /api/reservations.
+-- Permite que un reintento del cliente con la misma Idempotency-Key
+-- devuelva la reserva original sin volver a ejecutar la creación.
+CREATE TABLE idempotency_keys (
+    idem_key       VARCHAR(100) PRIMARY KEY,
+    request_hash   VARCHAR(64)  NOT NULL,
+    reservation_id UUID         NOT NULL REFERENCES reservations(id) ON DELETE CASCADE,
+    created_at     TIMESTAMP    NOT NULL DEFAULT NOW(),
+    expires_at     TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX ix_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,17 @@
+-- Agregados diarios para el tablero de estadísticas (/api/admin/stats).
+-- Se usa una vista materializada refrescada periódicamente por la aplicación
+-- para no agregar escrituras (ni conflictos de serialización) en la creación de reservas.
+CREATE MATERIALIZED VIEW reservation_daily_stats AS
+SELECT visit_date,
+       circuit,
+       visitor_type,
+       how_heard,
+       status,
+       COUNT(*)                                                        AS reservations,
+       COALESCE(SUM(adults_18_plus + children_2_to_17 + babies_less_than_2), 0) AS people
+FROM reservations
+GROUP BY visit_date, circuit, visitor_type, how_heard, status;
+
+-- Requerido por REFRESH MATERIALIZED VIEW CONCURRENTLY
+CREATE UNIQUE INDEX ux_reservation_daily_stats
+    ON reservation_daily_stats (visit_date, circuit, visitor_type, how_heard, status);
@@ -0,0 +1,15 @@
+-- Índices para las búsquedas por filtros (exportación y listado).
+-- ux_reservations_date_dni es parcial (status <> 'CANCELLED') y no sirve para
+-- filtrar solo por fecha; este índice cubre los rangos y el orden del listado.
+CREATE INDEX IF NOT EXISTS ix_reservations_visit_date_created_at
+ON reservations (visit_date, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS ix_reservations_dni
+ON reservations (dni);
+
+-- EXISTS por visitante y carga de visitantes por reserva: la FK no crea índice
+CREATE INDEX IF NOT EXISTS ix_reservation_visitors_reservation_id
+ON reservation_visitors (reservation_id);
+
+CREATE INDEX IF NOT EXISTS ix_reservation_visitors_dni
+ON reservation_visitors (dni);
@@ -0,0 +1,13 @@
+-- Locks de las tareas programadas (@ClusterLock): cada tarea corre en una
+-- sola instancia a la vez. La instancia que la toma la tiene hasta
+-- locked_until y la renueva mientras la tarea sigue corriendo; si se cae, el
+-- lock vence solo. Los tiempos son los del reloj de la base, con zona para
+-- que no dependan de la zona de cada sesión.
+CREATE TABLE scheduled_job_locks (
+    name              VARCHAR(100) PRIMARY KEY,
+    locked_until      TIMESTAMPTZ  NOT NULL,
+    locked_at         TIMESTAMPTZ  NOT NULL,
+    locked_by         VARCHAR(255) NOT NULL,
+    -- Fin de la última ejecución sin errores, de cualquier instancia
+    last_completed_at TIMESTAMPTZ
+);
@@ -0,0 +1,161 @@
+package com.luismunozse.reservalago.config;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import com.luismunozse.reservalago.service.SystemConfigService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Invalidación del cache de segundo nivel entre instancias por LISTEN/NOTIFY.
+ * La "otra instancia" es el test, que escribe por JDBC (sin pasar por Hibernate)
+ * y publica en el canal como lo haría ella.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "app.cache.invalidation.enabled=true")
+class CacheInvalidationBusTest extends IntegrationTest {
+
+    private static final String OTHER_INSTANCE = "otra-instancia|";
+
+    @Autowired
+    private SystemConfigService systemConfigService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int originalCapacity;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        await(() -> meterRegistry.get("reservalago.cache.invalidation.connected").gauge().value() == 1);
+        originalCapacity = systemConfigService.getDefaultCapacity();
+        systemConfigService.setDefaultCapacity(originalCapacity);
+    }
+
+    @AfterEach
+    void tearDown() {
+        systemConfigService.setDefaultCapacity(originalCapacity);
+    }
+
+    @Test
+    @DisplayName("Un cambio de configuración se publica en el canal al hacer commit")
+    void publishesChangesOnCommit() throws Exception {
+        try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+            connection.createStatement().execute("LISTEN " + CacheInvalidationBus.CHANNEL);
+
+            systemConfigService.setDefaultCapacity(originalCapacity + 1);
+
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(5000);
+            assertThat(notifications).isNotNull();
+            assertThat(notifications[0].getParameter()).endsWith("|SYSTEM_CONFIG:" + configId());
+        }
+    }
+
+    @Test
+    @DisplayName("La invalidación de otra instancia descarta la configuración cacheada")
+    void evictsOnInvalidationFromOtherInstance() throws InterruptedException {
+        int changed = originalCapacity + 7;
+        awaitCachedDefaultCapacity();
+        jdbcTemplate.update("UPDATE system_config SET config_value = ? WHERE config_key = ?",
+                String.valueOf(changed), SystemConfigService.DEFAULT_CAPACITY);
+        assertThat(systemConfigService.getDefaultCapacity()).isEqualTo(originalCapacity);
+
+        notifyAsOtherInstance("SYSTEM_CONFIG:" + configId());
+
+        await(() -> systemConfigService.getDefaultCapacity() == changed);
+        assertThat(systemConfigService.getDefaultCapacity()).isEqualTo(changed);
+    }
+
+    @Test
+    @DisplayName("Una ráfaga de invalidaciones se aplica en un solo lote")
+    void coalescesBursts() throws InterruptedException {
+        double flushes = flushes();
+        double received = received("AVAILABILITY_RULE");
+
+        List<String> payloads = new ArrayList<>();
+        for (long id = 1_000_000; id < 1_000_020; id++) {
+            payloads.add("AVAILABILITY_RULE:" + id);
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                payloads.forEach(this::notifyAsOtherInstance));
+
+        await(() -> received("AVAILABILITY_RULE") - received == payloads.size());
+        assertThat(received("AVAILABILITY_RULE") - received).isEqualTo(payloads.size());
+        assertThat(flushes() - flushes).isEqualTo(1);
+    }
+
+    /**
+     * Lee la capacidad hasta que salga del cache de consultas: un resultado
+     * guardado en el mismo milisegundo que la última escritura no cuenta como vigente.
+     */
+    private void awaitCachedDefaultCapacity() throws InterruptedException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        await(() -> {
+            long hits = statistics.getQueryCacheHitCount();
+            systemConfigService.getDefaultCapacity();
+            return statistics.getQueryCacheHitCount() > hits;
+        });
+    }
+
+    private long configId() {
+        return jdbcTemplate.queryForObject("SELECT id FROM system_config WHERE config_key = ?",
+                Long.class, SystemConfigService.DEFAULT_CAPACITY);
+    }
+
+    private void notifyAsOtherInstance(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CacheInvalidationBus.CHANNEL, OTHER_INSTANCE + payload);
+    }
+
+    private double flushes() {
+        return meterRegistry.get("reservalago.cache.invalidation.flushes").counter().count();
+    }
+
+    private double received(String type) {
+        Counter counter = meterRegistry.find("reservalago.cache.invalidation.received").tag("type", type).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
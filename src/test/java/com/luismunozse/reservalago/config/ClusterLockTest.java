@@ -0,0 +1,167 @@
+package com.luismunozse.reservalago.config;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Locks de tareas programadas contra PostgreSQL real. La "otra instancia" es
+ * una fila de scheduled_job_locks escrita por el test.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Import(ClusterLockTest.Jobs.class)
+class ClusterLockTest extends IntegrationTest {
+
+    @Autowired
+    private Jobs jobs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM scheduled_job_locks WHERE name LIKE 'test-%'");
+        jobs.reset();
+    }
+
+    @Test
+    @DisplayName("Si otra instancia tiene el lock, la ejecución se salta y se cuenta")
+    void skipsWhileOtherInstanceHoldsLock() {
+        lockAsOtherInstance("test-job", "1 hour");
+        double skipped = runs("test-job", "skipped");
+
+        jobs.run();
+
+        assertThat(jobs.runs()).isEqualTo(0);
+        assertThat(runs("test-job", "skipped") - skipped).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un lock vencido se toma y al terminar queda libre, con la hora de la última ejecución")
+    void takesExpiredLockAndReleasesIt() {
+        lockAsOtherInstance("test-job", "-1 second");
+
+        jobs.run();
+        jobs.run();
+
+        assertThat(jobs.runs()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT locked_by <> 'otra-instancia' AND locked_until <= now() AND last_completed_at IS NOT NULL
+                FROM scheduled_job_locks WHERE name = 'test-job'
+                """, Boolean.class)).isTrue();
+    }
+
+    @Test
+    @DisplayName("minInterval retiene el lock después de terminar")
+    void keepsLockForMinInterval() {
+        jobs.spaced();
+        jobs.spaced();
+
+        assertThat(jobs.runs()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Una tarea larga renueva el lease y nadie más la toma mientras corre")
+    void renewsLeaseOfLongJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Void> longJob = CompletableFuture.runAsync(() -> jobs.longRun(started, finish));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // El lease es de 300 ms: sin renovar, ya habría vencido
+        Thread.sleep(1000);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT locked_until > now() FROM scheduled_job_locks WHERE name = 'test-long-job'", Boolean.class))
+                .isTrue();
+        jobs.longRun(new CountDownLatch(1), new CountDownLatch(0));
+        assertThat(jobs.runs()).isEqualTo(1);
+
+        finish.countDown();
+        longJob.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Si la tarea falla, el lock se libera sin marcarla como completada")
+    void releasesLockOnFailure() {
+        double failed = runs("test-failing-job", "failed");
+
+        assertThatThrownBy(jobs::failing).isInstanceOf(IllegalStateException.class);
+
+        assertThat(runs("test-failing-job", "failed") - failed).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT locked_until <= now() AND last_completed_at IS NULL
+                FROM scheduled_job_locks WHERE name = 'test-failing-job'
+                """, Boolean.class)).isTrue();
+    }
+
+    private void lockAsOtherInstance(String name, String remaining) {
+        jdbcTemplate.update("""
+                INSERT INTO scheduled_job_locks (name, locked_until, locked_at, locked_by)
+                VALUES (?, now() + CAST(? AS INTERVAL), now(), 'otra-instancia')
+                """, name, remaining);
+    }
+
+    private double runs(String job, String outcome) {
+        Counter counter = meterRegistry.find("reservalago.jobs.runs").tag("job", job).tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Component
+    static class Jobs {
+
+        private final AtomicInteger runs = new AtomicInteger();
+
+        public int runs() {
+            return runs.get();
+        }
+
+        public void reset() {
+            runs.set(0);
+        }
+
+        @ClusterLock("test-job")
+        public void run() {
+            runs.incrementAndGet();
+        }
+
+        @ClusterLock(value = "test-spaced-job", minInterval = "PT1H")
+        public void spaced() {
+            runs.incrementAndGet();
+        }
+
+        @ClusterLock(value = "test-long-job", lease = "PT0.3S")
+        public void longRun(CountDownLatch started, CountDownLatch finish) {
+            runs.incrementAndGet();
+            started.countDown();
+            try {
+                finish.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @ClusterLock("test-failing-job")
+        public void failing() {
+            throw new IllegalStateException("falla");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.luismunozse.reservalago.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = filter(1, 1);
+    }
+
+    private ConcurrencyLimitFilter filter(int initialLimit, int minLimit) {
+        registry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter created = new ConcurrencyLimitFilter(registry);
+        ReflectionTestUtils.setField(created, "initialLimit", initialLimit);
+        ReflectionTestUtils.setField(created, "minLimit", minLimit);
+        created.start();
+        return created;
+    }
+
+    @Test
+    @DisplayName("Con el límite ocupado responde 503 con Retry-After sin llegar al controlador")
+    void shedsBeyondLimit() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(booking(), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    await(release);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(booking(), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("muchas reservas");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(registry.get("reservalago.booking.limiter.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("reservalago.booking.limiter.inflight").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(registry.get("reservalago.booking.limiter.inflight").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Solo limita el alta de reservas")
+    void ignoresOtherEndpoints() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(booking(), new MockHttpServletResponse(), (req, res) -> await(release));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/availability"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Un 5xx del alta baja el límite")
+    void lowersLimitOnServerError() throws Exception {
+        filter = filter(20, 2);
+
+        filter.doFilter(booking(), new MockHttpServletResponse(),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(503));
+
+        assertThat(registry.get("reservalago.booking.limiter.limit").gauge().value()).isEqualTo(18);
+    }
+
+    private static MockHttpServletRequest booking() {
+        return new MockHttpServletRequest("POST", "/api/reservations");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
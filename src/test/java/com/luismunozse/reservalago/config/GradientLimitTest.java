@@ -0,0 +1,76 @@
+package com.luismunozse.reservalago.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradientLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    @DisplayName("Sube el límite mientras la latencia se mantiene con el límite en uso")
+    void growsWhileLatencyIsStable() {
+        GradientLimit limit = new GradientLimit(10, 2, 40);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, limit.limit());
+        }
+
+        assertThat(limit.limit()).isGreaterThan(10).isLessThanOrEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Baja el límite cuando las respuestas tardan más que el promedio")
+    void shrinksWhenLatencyGrows() {
+        GradientLimit limit = new GradientLimit(20, 2, 40);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(FAST, 20);
+        }
+        int before = limit.limit();
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(SLOW, limit.limit());
+        }
+
+        assertThat(limit.limit()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("Con poca carga no sube el límite aunque la latencia sea buena")
+    void doesNotGrowWhenUnderused() {
+        GradientLimit limit = new GradientLimit(10, 2, 40);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, 1);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Una respuesta fallida baja el límite un 10%, sin pasar del mínimo")
+    void backsOffOnDrop() {
+        GradientLimit limit = new GradientLimit(20, 15, 40);
+
+        limit.onDropped();
+        assertThat(limit.limit()).isEqualTo(18);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onDropped();
+        }
+        assertThat(limit.limit()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("Rechaza límites inconsistentes")
+    void rejectsInvalidBounds() {
+        assertThatThrownBy(() -> new GradientLimit(50, 2, 40)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new GradientLimit(10, 0, 40)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
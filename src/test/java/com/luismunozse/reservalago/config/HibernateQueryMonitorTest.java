@@ -0,0 +1,90 @@
+package com.luismunozse.reservalago.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HibernateQueryMonitorTest {
+
+    private final HibernateQueryMonitor monitor = new HibernateQueryMonitor();
+
+    @AfterEach
+    void tearDown() {
+        QueryContext.end();
+    }
+
+    @Nested
+    @DisplayName("recordSlowQuery()")
+    class RecordSlowQuery {
+
+        @Test
+        @DisplayName("Debe guardar la forma de la consulta sin literales")
+        void shouldStripLiterals() {
+            monitor.recordSlowQuery(
+                    "select r1_0.id from reservations r1_0 where r1_0.dni='12345678' and r1_0.adults_18_plus>2",
+                    350, "AdminController#listReservations");
+
+            assertThat(monitor.slowQueries()).singleElement().satisfies(q -> {
+                assertThat(q.sql()).isEqualTo(
+                        "select r1_0.id from reservations r1_0 where r1_0.dni=? and r1_0.adults_18_plus>?");
+                assertThat(q.durationMs()).isEqualTo(350);
+                assertThat(q.handler()).isEqualTo("AdminController#listReservations");
+            });
+        }
+
+        @Test
+        @DisplayName("Debe conservar solo las consultas más recientes")
+        void shouldKeepBoundedBuffer() {
+            for (int i = 0; i < 150; i++) {
+                monitor.recordSlowQuery("select " + i, i, QueryContext.NO_REQUEST);
+            }
+
+            assertThat(monitor.slowQueries()).hasSize(100);
+            assertThat(monitor.slowQueries().get(0).durationMs()).isEqualTo(149);
+        }
+    }
+
+    @Nested
+    @DisplayName("recordRequest()")
+    class RecordRequest {
+
+        @Test
+        @DisplayName("Debe acumular sentencias y cargas perezosas por handler")
+        void shouldAggregatePerHandler() {
+            simulateRequest("AdminController#listReservations", 21, 20);
+            simulateRequest("AdminController#listReservations", 3, 0);
+            simulateRequest("PublicController#availability", 2, 0);
+
+            assertThat(monitor.handlerStats()).first().satisfies(s -> {
+                assertThat(s.handler()).isEqualTo("AdminController#listReservations");
+                assertThat(s.requests()).isEqualTo(2);
+                assertThat(s.avgStatements()).isEqualTo(12.0);
+                assertThat(s.maxStatements()).isEqualTo(21);
+                assertThat(s.maxCollectionFetches()).isEqualTo(20);
+            });
+        }
+
+        @Test
+        @DisplayName("Debe ignorar sentencias fuera de un request")
+        void shouldIgnoreStatementsWithoutContext() {
+            QueryContext.statementPrepared();
+
+            assertThat(QueryContext.currentHandler()).isEqualTo(QueryContext.NO_REQUEST);
+            assertThat(QueryContext.end()).isNull();
+        }
+
+        private void simulateRequest(String handler, int statements, int collectionFetches) {
+            QueryContext.begin(handler);
+            for (int i = 0; i < statements; i++) {
+                QueryContext.statementPrepared();
+            }
+            for (int i = 0; i < collectionFetches; i++) {
+                QueryContext.collectionFetched();
+            }
+            monitor.recordRequest(QueryContext.end());
+        }
+    }
+}
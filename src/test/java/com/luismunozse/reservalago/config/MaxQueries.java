@@ -0,0 +1,21 @@
+package com.luismunozse.reservalago.config;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias SQL que puede ejecutar el cuerpo del test. Un batch JDBC
+ * cuenta como una sola (un viaje a la base). Requiere el DataSource instrumentado
+ * por {@link QueryCountConfig}, o uno armado con {@code ProxyDataSourceBuilder.countQuery()}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface MaxQueries {
+
+    int value();
+}
@@ -0,0 +1,64 @@
+package com.luismunozse.reservalago.config;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Optional;
+
+/**
+ * Falla el test si su cuerpo ejecutó más sentencias SQL que las indicadas en
+ * {@link MaxQueries}. Cuenta solo el método de test: los @BeforeEach que
+ * preparan datos quedan afuera.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCountHolder.clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        try {
+            if (context.getExecutionException().isPresent()) {
+                return;
+            }
+            Optional<MaxQueries> limit = findLimit(context);
+            if (limit.isEmpty()) {
+                return;
+            }
+            QueryCount count = QueryCountHolder.getGrandTotal();
+            int max = limit.get().value();
+            if (count.getTotal() > max) {
+                throw new AssertionError(String.format(
+                        "Se esperaban como máximo %d sentencias SQL pero se ejecutaron %d "
+                                + "(por fila de batch: select=%d, insert=%d, update=%d, delete=%d, other=%d)",
+                        max, count.getTotal(), count.getSelect(), count.getInsert(),
+                        count.getUpdate(), count.getDelete(), count.getOther()));
+            }
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+
+    private static Optional<MaxQueries> findLimit(ExtensionContext context) {
+        Optional<MaxQueries> onMethod = AnnotationSupport.findAnnotation(context.getTestMethod(), MaxQueries.class);
+        if (onMethod.isPresent()) {
+            return onMethod;
+        }
+        // Anotación en la clase de test o en alguna clase contenedora (@Nested)
+        Optional<ExtensionContext> current = Optional.of(context);
+        while (current.isPresent()) {
+            Optional<MaxQueries> onClass = AnnotationSupport.findAnnotation(current.get().getTestClass(), MaxQueries.class);
+            if (onClass.isPresent()) {
+                return onClass;
+            }
+            current = current.get().getParent();
+        }
+        return Optional.empty();
+    }
+}
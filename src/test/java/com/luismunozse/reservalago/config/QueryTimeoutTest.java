@@ -0,0 +1,150 @@
+package com.luismunozse.reservalago.config;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * statement_timeout por método y cancelación de consultas de requests
+ * asíncronos contra PostgreSQL real.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Import({QueryTimeoutTest.SlowQueries.class, QueryTimeoutTest.Report.class})
+class QueryTimeoutTest extends IntegrationTest {
+
+    @Autowired
+    private SlowQueries slowQueries;
+
+    @Autowired
+    private Report report;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("El tiempo rige dentro de la transacción del método y la sesión vuelve a su valor")
+    void appliesTimeoutToTransaction() {
+        assertThat(slowQueries.currentTimeout()).isEqualTo("300ms");
+        assertThat(jdbcTemplate.queryForObject("SHOW statement_timeout", String.class)).isEqualTo("0");
+    }
+
+    @Test
+    @DisplayName("PostgreSQL corta la consulta que excede el tiempo, por JDBC y por JPA")
+    void cancelsSlowQueries() {
+        long start = System.nanoTime();
+        assertThatThrownBy(slowQueries::sleepJdbc).isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(slowQueries::sleepJpa).isInstanceOf(QueryTimeoutException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(3));
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción con otro tiempo, el método anotado usa el suyo y después se repone")
+    void restoresOuterTimeout() {
+        assertThat(report.timeouts()).containsExactly("5s", "300ms", "5s");
+    }
+
+    @Test
+    @DisplayName("Si el request asíncrono vence, la consulta en curso se cancela")
+    void cancelsRunningQueryOnAsyncTimeout() throws Exception {
+        QueryCancellationInterceptor interceptor = new QueryCancellationInterceptor();
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/admin/reservations/export-stream"));
+        Callable<Void> task = () -> null;
+
+        CompletableFuture<Integer> export = CompletableFuture.supplyAsync(() -> {
+            interceptor.preProcess(request, task);
+            try {
+                return jdbcTemplate.queryForObject("SELECT 1 FROM pg_sleep(30)", Integer.class);
+            } finally {
+                interceptor.postProcess(request, task, null);
+            }
+        });
+        awaitRunning("pg_sleep(30)");
+        interceptor.handleTimeout(request, task);
+
+        assertThatThrownBy(() -> export.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(QueryTimeoutException.class);
+    }
+
+    private void awaitRunning(String query) throws InterruptedException {
+        String sql = "SELECT count(*) FROM pg_stat_activity WHERE state = 'active' AND query LIKE ?";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject(sql, Integer.class, "%" + query + "%") == 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Repository
+    static class SlowQueries {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        SlowQueries(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @QueryTimeout("PT0.3S")
+        @Transactional(readOnly = true)
+        public String currentTimeout() {
+            return jdbcTemplate.queryForObject("SHOW statement_timeout", String.class);
+        }
+
+        @QueryTimeout("${app.query-timeout.test:300ms}")
+        @Transactional(readOnly = true)
+        public void sleepJdbc() {
+            jdbcTemplate.queryForObject("SELECT 1 FROM pg_sleep(2)", Integer.class);
+        }
+
+        @QueryTimeout("PT0.3S")
+        @Transactional(readOnly = true)
+        public Object sleepJpa() {
+            return entityManager.createNativeQuery("SELECT 1 FROM pg_sleep(2)").getSingleResult();
+        }
+    }
+
+    @Component
+    static class Report {
+
+        private final SlowQueries slowQueries;
+        private final JdbcTemplate jdbcTemplate;
+
+        Report(SlowQueries slowQueries, JdbcTemplate jdbcTemplate) {
+            this.slowQueries = slowQueries;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @QueryTimeout("PT5S")
+        @Transactional(readOnly = true)
+        public List<String> timeouts() {
+            String before = jdbcTemplate.queryForObject("SHOW statement_timeout", String.class);
+            String inner = slowQueries.currentTimeout();
+            String after = jdbcTemplate.queryForObject("SHOW statement_timeout", String.class);
+            return List.of(before, inner, after);
+        }
+    }
+}
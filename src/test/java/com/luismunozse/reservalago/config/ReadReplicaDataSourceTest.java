@@ -0,0 +1,156 @@
+package com.luismunozse.reservalago.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadReplicaDataSourceTest {
+
+    private final Map<Workload, HikariDataSource> primaryPools = new EnumMap<>(Workload.class);
+    private final Map<Object, String> owners = new IdentityHashMap<>();
+    private HikariDataSource replica;
+    private SimpleMeterRegistry registry;
+    private ReadReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        for (Workload workload : Workload.values()) {
+            primaryPools.put(workload, pool("primary-" + workload.configName()));
+        }
+        replica = pool("replica-1");
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica);
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(primaryPools);
+        routing.afterPropertiesSet();
+        registry = new SimpleMeterRegistry();
+        dataSource = new ReadReplicaDataSource(routing, replicas,
+                Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ofSeconds(10), registry);
+        dataSource.lagMeasured("replica-1", 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Las lecturas readOnly del panel van a la réplica y las de reservas al primario")
+    void routesAdminReadsToReplica() {
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(true))).isEqualTo("replica-1");
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.BACKGROUND, () -> target(true))).isEqualTo("replica-1");
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.BOOKING, () -> target(true))).isEqualTo("primary-booking");
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(false))).isEqualTo("primary-admin");
+        assertThat(registry.get("reservalago.datasource.replica.reads").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Con la réplica atrasada más que el máximo las lecturas vuelven al primario")
+    void fallsBackWhenReplicaLags() {
+        dataSource.lagMeasured("replica-1", 30);
+
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(true))).isEqualTo("primary-admin");
+        assertThat(registry.get("reservalago.datasource.replica.available").gauge().value()).isZero();
+        assertThat(registry.get("reservalago.datasource.replica.fallback").tag("reason", "unavailable")
+                .counter().count()).isEqualTo(1);
+
+        dataSource.lagMeasured("replica-1", 1);
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(true))).isEqualTo("replica-1");
+    }
+
+    @Test
+    @DisplayName("Quien acaba de escribir lee del primario; los demás usuarios siguen en la réplica")
+    void readYourWrites() {
+        authenticate("admin@lago.com");
+        WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(false));
+
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(true))).isEqualTo("primary-admin");
+
+        authenticate("otro@lago.com");
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(true))).isEqualTo("replica-1");
+    }
+
+    @Test
+    @DisplayName("El control de réplicas poda las ventanas de leer-lo-escrito ya vencidas")
+    void prunesExpiredStickyClients() throws SQLException {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(primaryPools);
+        routing.afterPropertiesSet();
+        ReadReplicaDataSource instant = new ReadReplicaDataSource(routing, Map.of("replica-1", replica),
+                Duration.ofSeconds(5), Duration.ofSeconds(2), Duration.ZERO, new SimpleMeterRegistry());
+        authenticate("admin@lago.com");
+        try (Connection con = instant.getConnection()) {
+            con.setReadOnly(false);
+            con.createStatement();
+        }
+        assertThat(instant.stickyClients()).isEqualTo(1);
+
+        instant.checkReplicas();
+
+        assertThat(instant.stickyClients()).isZero();
+    }
+
+    @Test
+    @DisplayName("Las réplicas no aceptan otras credenciales")
+    void rejectsExplicitCredentials() throws SQLException {
+        try (Connection con = dataSource.getConnection("otro", "secreto")) {
+            con.setReadOnly(true);
+            assertThatThrownBy(con::createStatement).isInstanceOf(SQLFeatureNotSupportedException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Si la réplica no da conexión, la lectura sigue en el primario y la réplica sale de servicio")
+    void fallsBackWhenReplicaFails() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.ADMIN, () -> target(true))).isEqualTo("primary-admin");
+        assertThat(registry.get("reservalago.datasource.replica.available").gauge().value()).isZero();
+    }
+
+    /**
+     * Abre una conexión como lo hace el manejador de transacciones y devuelve el pool del que salió.
+     */
+    private String target(boolean readOnly) {
+        try (Connection con = dataSource.getConnection()) {
+            con.setReadOnly(readOnly);
+            con.createStatement();
+            return owners.get(((ConnectionProxy) con).getTargetConnection());
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HikariDataSource pool(String name) throws SQLException {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        Connection con = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(con);
+        owners.put(con, name);
+        return pool;
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+}
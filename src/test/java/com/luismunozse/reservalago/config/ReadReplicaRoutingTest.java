@@ -0,0 +1,182 @@
+package com.luismunozse.reservalago.config;
+
+import com.luismunozse.reservalago.service.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primario y réplica por streaming en dos contenedores de PostgreSQL: las
+ * lecturas readOnly del panel van a la réplica, las de reservas y las escrituras
+ * al primario, y se vuelve al primario si la réplica se atrasa o si el usuario
+ * acaba de escribir.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ReadReplicaRoutingTest {
+
+    private static final Network network = Network.newNetwork();
+
+    @Container
+    static final PostgreSQLContainer<?> primary = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16"))
+            .withNetwork(network)
+            .withNetworkAliases("primary")
+            .withDatabaseName("lago_test")
+            .withUsername("test")
+            .withPassword("test")
+            .withEnv("TZ", "UTC")
+            .withCopyToContainer(Transferable.of("echo 'host replication all all trust' >> \"$PGDATA/pg_hba.conf\"\n"),
+                    "/docker-entrypoint-initdb.d/replication.sh")
+            .withCommand("-c", "timezone=UTC");
+
+    @Container
+    static final GenericContainer<?> replica = new GenericContainer<>(DockerImageName.parse("postgres:16"))
+            .withNetwork(network)
+            .dependsOn(primary)
+            .withEnv("TZ", "UTC")
+            .withExposedPorts(5432)
+            .withCommand("bash", "-c",
+                    "until gosu postgres pg_basebackup -h primary -U test -D /tmp/replica -R -X stream; do sleep 1; done;"
+                            + " exec gosu postgres postgres -D /tmp/replica -c timezone=UTC")
+            .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+                    .withStartupTimeout(Duration.ofMinutes(2)));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> primary.getJdbcUrl() + "&options=-c%20timezone=UTC");
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("app.datasource.replica.urls", () -> "jdbc:postgresql://" + replica.getHost() + ":"
+                + replica.getMappedPort(5432) + "/lago_test?options=-c%20timezone=UTC");
+        registry.add("app.datasource.replica.max-lag", () -> "PT1S");
+        registry.add("app.datasource.replica.check-interval", () -> "PT0.2S");
+    }
+
+    @BeforeEach
+    void waitForReplica() throws InterruptedException {
+        awaitReplicaAvailable(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Las lecturas readOnly del panel van a la réplica; las de reservas y las escrituras, al primario")
+    void routesReadOnlyAdminTransactionsToReplica() {
+        assertThat(inRecovery(Workload.ADMIN, true)).isTrue();
+        assertThat(inRecovery(Workload.BACKGROUND, true)).isTrue();
+        assertThat(inRecovery(Workload.BOOKING, true)).isFalse();
+        assertThat(inRecovery(Workload.ADMIN, false)).isFalse();
+
+        double before = replicaReads();
+        reservationService.adminList(LocalDate.now(), null, null);
+        assertThat(replicaReads()).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Con la réplica atrasada más que el máximo, las lecturas vuelven al primario")
+    void fallsBackToPrimaryWhileReplicaLags() throws Exception {
+        try (var replicaConnection = DriverManager.getConnection(replicaUrl(), "test", "test")) {
+            replicaConnection.createStatement().execute("SELECT pg_wal_replay_pause()");
+            try {
+                jdbcTemplate.update("CREATE TABLE IF NOT EXISTS replica_lag_probe (id int)");
+                jdbcTemplate.update("INSERT INTO replica_lag_probe VALUES (1)");
+                awaitReplicaAvailable(false);
+
+                assertThat(inRecovery(Workload.ADMIN, true)).isFalse();
+            } finally {
+                replicaConnection.createStatement().execute("SELECT pg_wal_replay_resume()");
+                jdbcTemplate.update("DROP TABLE IF EXISTS replica_lag_probe");
+            }
+        }
+
+        awaitReplicaAvailable(true);
+        assertThat(inRecovery(Workload.ADMIN, true)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Quien acaba de escribir lee del primario; otro usuario sigue leyendo de la réplica")
+    void readsYourWritesFromPrimary() {
+        authenticate("admin@lago.com");
+        WorkloadRoutingDataSource.runAs(Workload.ADMIN, () -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> jdbcTemplate.queryForObject("SELECT 1", Integer.class)));
+
+        assertThat(inRecovery(Workload.ADMIN, true)).isFalse();
+
+        authenticate("otro@lago.com");
+        assertThat(inRecovery(Workload.ADMIN, true)).isTrue();
+    }
+
+    private boolean inRecovery(Workload workload, boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        return WorkloadRoutingDataSource.callAs(workload, () -> tx.execute(
+                status -> jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get("reservalago.datasource.replica.reads").counter().count();
+    }
+
+    private void awaitReplicaAvailable(boolean available) throws InterruptedException {
+        double expected = available ? 1 : 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (meterRegistry.get("reservalago.datasource.replica.available").gauge().value() != expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(meterRegistry.get("reservalago.datasource.replica.available").gauge().value()).isEqualTo(expected);
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + replica.getHost() + ":" + replica.getMappedPort(5432) + "/lago_test";
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+}
@@ -0,0 +1,69 @@
+package com.luismunozse.reservalago.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RunningStatementsTest {
+
+    @AfterEach
+    void tearDown() {
+        RunningStatements.close();
+    }
+
+    @Test
+    @DisplayName("Fuera de un request asíncrono la conexión no se envuelve")
+    void leavesConnectionUntouchedWithoutScope() {
+        Connection connection = mock(Connection.class);
+
+        assertThat(RunningStatements.track(connection)).isSameAs(connection);
+    }
+
+    @Test
+    @DisplayName("Cancela las sentencias de las conexiones abiertas y rechaza las nuevas")
+    void cancelsOpenStatements() throws SQLException {
+        RunningStatements statements = RunningStatements.open();
+        PreparedStatement running = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(running);
+
+        Connection tracked = RunningStatements.track(connection);
+        tracked.prepareStatement("SELECT 1");
+        statements.cancel();
+
+        verify(running).cancel();
+        assertThatThrownBy(() -> tracked.prepareStatement("SELECT 2"))
+                .isInstanceOf(SQLException.class)
+                .extracting(ex -> ((SQLException) ex).getSQLState())
+                .isEqualTo("57014");
+    }
+
+    @Test
+    @DisplayName("Las sentencias de una conexión ya devuelta al pool no se cancelan")
+    void forgetsClosedConnections() throws SQLException {
+        RunningStatements statements = RunningStatements.open();
+        PreparedStatement finished = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(finished);
+
+        Connection tracked = RunningStatements.track(connection);
+        tracked.prepareStatement("SELECT 1");
+        tracked.close();
+        statements.cancel();
+
+        verify(connection).close();
+        verify(finished, never()).cancel();
+    }
+}
@@ -0,0 +1,68 @@
+package com.luismunozse.reservalago.config;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import com.luismunozse.reservalago.service.AvailabilityService;
+import com.luismunozse.reservalago.service.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pools por carga contra PostgreSQL real: cada servicio toma sus conexiones del
+ * pool que declara y todos los pools reciben la configuración común.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class WorkloadDataSourceTest extends IntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Los listados del panel usan el pool de administración y la disponibilidad el de reservas")
+    void routesEachServiceToItsPool() {
+        double admin = acquired(Workload.ADMIN);
+        double booking = acquired(Workload.BOOKING);
+
+        reservationService.adminList(LocalDate.now(), null, null);
+        assertThat(acquired(Workload.ADMIN)).isGreaterThan(admin);
+        assertThat(acquired(Workload.BOOKING)).isEqualTo(booking);
+
+        availabilityService.availabilityFor(LocalDate.now().plusDays(1));
+        assertThat(acquired(Workload.BOOKING)).isGreaterThan(booking);
+    }
+
+    @Test
+    @DisplayName("Cada pool aplica la configuración común de spring.datasource.hikari")
+    void appliesCommonHikariSettings() {
+        for (Workload workload : Workload.values()) {
+            String timeZone = WorkloadRoutingDataSource.callAs(workload,
+                    () -> jdbcTemplate.queryForObject("SHOW TIME ZONE", String.class));
+            assertThat(timeZone).as(workload.name()).isEqualTo("UTC");
+        }
+    }
+
+    private double acquired(Workload workload) {
+        // Hikari arranca cada pool (y registra sus métricas) con la primera conexión
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire")
+                .tag("pool", "reservalago-" + workload.configName())
+                .timer();
+        return acquire != null ? acquire.count() : 0;
+    }
+}
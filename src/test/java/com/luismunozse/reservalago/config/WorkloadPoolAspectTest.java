@@ -0,0 +1,134 @@
+package com.luismunozse.reservalago.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.sql.Connection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkloadPoolAspectTest {
+
+    private Bookings bookings;
+    private Reports reports;
+
+    @BeforeEach
+    void setUp() {
+        bookings = proxy(new Bookings());
+        reports = proxy(new Reports(bookings));
+    }
+
+    @Test
+    @DisplayName("Usa la carga de la clase y la del método tiene prioridad")
+    void resolvesClassAndMethodWorkload() {
+        assertThat(reports.list()).isEqualTo(Workload.ADMIN);
+        assertThat(reports.refresh()).isEqualTo(Workload.BACKGROUND);
+        assertThat(bookings.book()).isEqualTo(Workload.BOOKING);
+    }
+
+    @Test
+    @DisplayName("La carga la decide el primer método anotado de la llamada")
+    void outerWorkloadWins() {
+        assertThat(reports.throughBookings()).isEqualTo(Workload.ADMIN);
+        assertThat(WorkloadRoutingDataSource.callAs(Workload.BACKGROUND, reports::list))
+                .isEqualTo(Workload.BACKGROUND);
+    }
+
+    @Test
+    @DisplayName("Al terminar la llamada el hilo vuelve al pool de reservas, aunque haya fallado")
+    void clearsWorkloadAfterCall() {
+        try {
+            reports.fail();
+        } catch (IllegalStateException expected) {
+            // la carga se limpia igual
+        }
+
+        assertThat(WorkloadRoutingDataSource.current()).isEqualTo(Workload.BOOKING);
+        assertThat(bookings.book()).isEqualTo(Workload.BOOKING);
+    }
+
+    @Test
+    @DisplayName("Las conexiones salen del pool de la carga del hilo")
+    void routesConnectionsToWorkloadPool() throws Exception {
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            HikariDataSource pool = mock(HikariDataSource.class);
+            when(pool.getConnection()).thenReturn(mock(Connection.class));
+            pools.put(workload, pool);
+        }
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(pools);
+        dataSource.afterPropertiesSet();
+
+        WorkloadRoutingDataSource.runAs(Workload.ADMIN, () -> {
+            try {
+                dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        dataSource.getConnection();
+
+        verify(pools.get(Workload.ADMIN)).getConnection();
+        verify(pools.get(Workload.BOOKING)).getConnection();
+        verify(pools.get(Workload.BACKGROUND), never()).getConnection();
+
+        dataSource.close();
+        pools.values().forEach(pool -> verify(pool).close());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new WorkloadPoolAspect());
+        return (T) factory.getProxy();
+    }
+
+    @WorkloadPool(Workload.BOOKING)
+    static class Bookings {
+
+        public Workload book() {
+            return WorkloadRoutingDataSource.current();
+        }
+    }
+
+    @WorkloadPool(Workload.ADMIN)
+    static class Reports {
+
+        private final Bookings bookings;
+
+        Reports() {
+            this(null);
+        }
+
+        Reports(Bookings bookings) {
+            this.bookings = bookings;
+        }
+
+        public Workload list() {
+            return WorkloadRoutingDataSource.current();
+        }
+
+        @WorkloadPool(Workload.BACKGROUND)
+        public Workload refresh() {
+            return WorkloadRoutingDataSource.current();
+        }
+
+        public Workload throughBookings() {
+            return bookings.book();
+        }
+
+        public Workload fail() {
+            throw new IllegalStateException("falla");
+        }
+    }
+}
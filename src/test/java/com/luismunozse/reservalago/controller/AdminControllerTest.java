@@ -4,15 +4,29 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 // TestSecurityConfig is in the same package
 import com.luismunozse.reservalago.dto.AdminReservationDTO;
 import com.luismunozse.reservalago.dto.AdminVisitorDTO;
+import com.luismunozse.reservalago.dto.BulkReservationRequest;
+import com.luismunozse.reservalago.dto.BulkReservationResponse;
+import com.luismunozse.reservalago.dto.BulkReservationResult;
 import com.luismunozse.reservalago.dto.CapacityRequest;
 import com.luismunozse.reservalago.dto.CreateEventRequest;
 import com.luismunozse.reservalago.dto.EducationalReservationsRequest;
+import com.luismunozse.reservalago.dto.ExportFormat;
+import com.luismunozse.reservalago.dto.ExportJobDTO;
+import com.luismunozse.reservalago.dto.ExportReservationsFilter;
+import com.luismunozse.reservalago.dto.ImportReservationsResponse;
+import com.luismunozse.reservalago.dto.ImportRowResult;
+import com.luismunozse.reservalago.dto.PageCountMode;
+import com.luismunozse.reservalago.dto.ReservationStatsDTO;
 import com.luismunozse.reservalago.model.AvailabilityRule;
 import com.luismunozse.reservalago.model.ReservationStatus;
 import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
+import com.luismunozse.reservalago.service.ExportJobService;
 import com.luismunozse.reservalago.service.JwtService;
+import com.luismunozse.reservalago.service.ReservationImportService;
 import com.luismunozse.reservalago.service.ReservationService;
+import com.luismunozse.reservalago.service.ReservationStatsService;
 import com.luismunozse.reservalago.service.SystemConfigService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.junit.jupiter.api.Nested;
@@ -22,24 +36,38 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AdminController.class)
-@Import(TestSecurityConfig.class)
+// Los filtros de la app (límite de concurrencia) publican métricas
+@Import({TestSecurityConfig.class, SimpleMeterRegistry.class})
 class AdminControllerTest {
 
     @Autowired
@@ -57,6 +85,15 @@ class AdminControllerTest {
     @MockitoBean
     private SystemConfigService systemConfigService;
 
+    @MockitoBean
+    private ReservationStatsService reservationStatsService;
+
+    @MockitoBean
+    private ReservationImportService reservationImportService;
+
+    @MockitoBean
+    private ExportJobService exportJobService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -188,6 +225,134 @@ class AdminControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/admin/reservations/export/stream")
+    class ExportReservationsStream {
+
+        private void stubStream(String content) throws Exception {
+            when(reservationService.streamExport(any(), any(), eq(false), any())).thenAnswer(inv -> {
+                OutputStream out = inv.getArgument(3);
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+        }
+
+        @Test
+        @DisplayName("Debe exportar CSV en streaming")
+        void shouldStreamCsv() throws Exception {
+            stubStream("ID,Rol\n");
+
+            MvcResult result = mockMvc.perform(get("/api/admin/reservations/export/stream").param("month", "2025-09"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"reservas_2025-09.csv\""))
+                    .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                    .andExpect(content().string("ID,Rol\n"));
+            verify(reservationService).streamExport(any(), eq(ExportFormat.CSV), eq(false), any());
+        }
+
+        @Test
+        @DisplayName("Debe comprimir con gzip si el cliente lo acepta")
+        void shouldGzipWhenAccepted() throws Exception {
+            stubStream("{\"role\":\"Titular\"}\n");
+
+            MvcResult result = mockMvc.perform(get("/api/admin/reservations/export/stream")
+                            .param("format", "ndjson")
+                            .header("Accept-Encoding", "gzip, deflate"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            byte[] body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            try (var in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"role\":\"Titular\"}\n");
+            }
+        }
+
+        @Test
+        @DisplayName("Debe rechazar formatos no soportados")
+        void shouldRejectUnknownFormat() throws Exception {
+            mockMvc.perform(get("/api/admin/reservations/export/stream").param("format", "pdf"))
+                    .andExpect(status().isBadRequest());
+
+            verify(reservationService, never()).streamExport(any(), any(), anyBoolean(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/admin/reservations/export/jobs")
+    class ExportJobs {
+
+        private final UUID jobId = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+        @Test
+        @DisplayName("Debe encolar la exportación y devolver 202 con Location")
+        void shouldSubmitJob() throws Exception {
+            when(exportJobService.submit(any(), eq(ExportFormat.CSV))).thenReturn(new ExportJobDTO(
+                    jobId, ExportJobDTO.Status.QUEUED, ExportFormat.CSV, 0, Instant.now(), null, null, null));
+
+            mockMvc.perform(post("/api/admin/reservations/export/jobs")
+                            .param("format", "csv")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"year\":2025}"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/api/admin/reservations/export/jobs/" + jobId))
+                    .andExpect(jsonPath("$.status").value("QUEUED"));
+
+            ExportReservationsFilter expected = new ExportReservationsFilter();
+            expected.setYear(2025);
+            verify(exportJobService).submit(expected, ExportFormat.CSV);
+        }
+
+        @Test
+        @DisplayName("Debe devolver el estado y el progreso")
+        void shouldReturnStatus() throws Exception {
+            when(exportJobService.status(jobId)).thenReturn(new ExportJobDTO(
+                    jobId, ExportJobDTO.Status.RUNNING, ExportFormat.XLSX, 1500, Instant.now(), null, null, null));
+
+            mockMvc.perform(get("/api/admin/reservations/export/jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("RUNNING"))
+                    .andExpect(jsonPath("$.processedRows").value(1500));
+        }
+
+        @Test
+        @DisplayName("Debe descargar el archivo terminado")
+        void shouldDownloadFile() throws Exception {
+            Path file = Files.createTempFile("export-job", ".csv");
+            Files.writeString(file, "ID,Rol\r\n");
+            ExportReservationsFilter filter = new ExportReservationsFilter();
+            filter.setMonth("2025-09");
+            when(exportJobService.artifact(jobId))
+                    .thenReturn(new ExportJobService.Artifact(file, ExportFormat.CSV, filter));
+
+            try {
+                mockMvc.perform(get("/api/admin/reservations/export/jobs/{id}/file", jobId))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Disposition", "attachment; filename=\"reservas_2025-09.csv\""))
+                        .andExpect(content().string("ID,Rol\r\n"));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        @Test
+        @DisplayName("Debe responder 409 si el archivo todavía no está listo")
+        void shouldRejectDownloadWhileRunning() throws Exception {
+            when(exportJobService.artifact(jobId))
+                    .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, "La exportación todavía no está lista"));
+
+            mockMvc.perform(get("/api/admin/reservations/export/jobs/{id}/file", jobId))
+                    .andExpect(status().isConflict());
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/admin/reservations")
     class ListReservations {
@@ -215,7 +380,7 @@ class AdminControllerTest {
                     List.of()
             );
 
-            when(reservationService.adminListPaged(any(), any(), any(), any(), any(Pageable.class)))
+            when(reservationService.adminListPaged(any(), any(), any(), any(), any(Pageable.class), any()))
                     .thenReturn(new PageImpl<>(List.of(reservation)));
 
             mockMvc.perform(get("/api/admin/reservations"))
@@ -229,46 +394,46 @@ class AdminControllerTest {
         @DisplayName("Debe filtrar por fecha")
         void shouldFilterByDate() throws Exception {
             LocalDate filterDate = LocalDate.of(2025, 9, 15);
-            when(reservationService.adminListPaged(eq(filterDate), any(), any(), any(), any(Pageable.class)))
+            when(reservationService.adminListPaged(eq(filterDate), any(), any(), any(), any(Pageable.class), any()))
                     .thenReturn(new PageImpl<>(List.of()));
 
             mockMvc.perform(get("/api/admin/reservations")
                             .param("date", "2025-09-15"))
                     .andExpect(status().isOk());
 
-            verify(reservationService).adminListPaged(eq(filterDate), any(), any(), any(), any(Pageable.class));
+            verify(reservationService).adminListPaged(eq(filterDate), any(), any(), any(), any(Pageable.class), any());
         }
 
         @Test
         @DisplayName("Debe filtrar por estado")
         void shouldFilterByStatus() throws Exception {
-            when(reservationService.adminListPaged(any(), eq(ReservationStatus.CONFIRMED), any(), any(), any(Pageable.class)))
+            when(reservationService.adminListPaged(any(), eq(ReservationStatus.CONFIRMED), any(), any(), any(Pageable.class), any()))
                     .thenReturn(new PageImpl<>(List.of()));
 
             mockMvc.perform(get("/api/admin/reservations")
                             .param("status", "CONFIRMED"))
                     .andExpect(status().isOk());
 
-            verify(reservationService).adminListPaged(any(), eq(ReservationStatus.CONFIRMED), any(), any(), any(Pageable.class));
+            verify(reservationService).adminListPaged(any(), eq(ReservationStatus.CONFIRMED), any(), any(), any(Pageable.class), any());
         }
 
         @Test
         @DisplayName("Debe filtrar por DNI")
         void shouldFilterByDni() throws Exception {
-            when(reservationService.adminListPaged(any(), any(), eq("12345678"), any(), any(Pageable.class)))
+            when(reservationService.adminListPaged(any(), any(), eq("12345678"), any(), any(Pageable.class), any()))
                     .thenReturn(new PageImpl<>(List.of()));
 
             mockMvc.perform(get("/api/admin/reservations")
                             .param("dni", "12345678"))
                     .andExpect(status().isOk());
 
-            verify(reservationService).adminListPaged(any(), any(), eq("12345678"), any(), any(Pageable.class));
+            verify(reservationService).adminListPaged(any(), any(), eq("12345678"), any(), any(Pageable.class), any());
         }
 
         @Test
         @DisplayName("Debe retornar página vacía si no hay reservas")
         void shouldReturnEmptyPage() throws Exception {
-            when(reservationService.adminListPaged(any(), any(), any(), any(), any(Pageable.class)))
+            when(reservationService.adminListPaged(any(), any(), any(), any(), any(Pageable.class), any()))
                     .thenReturn(new PageImpl<>(List.of()));
 
             mockMvc.perform(get("/api/admin/reservations"))
@@ -276,6 +441,32 @@ class AdminControllerTest {
                     .andExpect(jsonPath("$.content").isEmpty())
                     .andExpect(jsonPath("$.totalElements").value(0));
         }
+
+        @Test
+        @DisplayName("Debe usar conteo estimado por defecto y respetar count=none")
+        void shouldPassCountMode() throws Exception {
+            when(reservationService.adminListPaged(any(), any(), any(), any(), any(Pageable.class), any()))
+                    .thenReturn(new SliceImpl<>(List.of(), Pageable.ofSize(20), false));
+
+            mockMvc.perform(get("/api/admin/reservations"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/admin/reservations").param("count", "none"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.last").value(true))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+            verify(reservationService).adminListPaged(any(), any(), any(), any(), any(Pageable.class),
+                    eq(PageCountMode.ESTIMATED));
+            verify(reservationService).adminListPaged(any(), any(), any(), any(), any(Pageable.class),
+                    eq(PageCountMode.NONE));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar un modo de conteo desconocido")
+        void shouldRejectUnknownCountMode() throws Exception {
+            mockMvc.perform(get("/api/admin/reservations").param("count", "approx"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -336,6 +527,100 @@ class AdminControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/admin/reservations/bulk")
+    class BulkReservations {
+
+        @Test
+        @DisplayName("Debe aplicar la operación masiva y devolver el resultado por id")
+        void shouldApplyBulkAction() throws Exception {
+            UUID updated = UUID.randomUUID();
+            UUID missing = UUID.randomUUID();
+            BulkReservationRequest request = new BulkReservationRequest(
+                    BulkReservationRequest.Action.CONFIRM, List.of(updated, missing));
+
+            when(reservationService.bulkAction(any(BulkReservationRequest.class)))
+                    .thenReturn(new BulkReservationResponse(BulkReservationRequest.Action.CONFIRM, 1, List.of(
+                            new BulkReservationResult(updated, BulkReservationResult.Outcome.UPDATED),
+                            new BulkReservationResult(missing, BulkReservationResult.Outcome.NOT_FOUND))));
+
+            mockMvc.perform(post("/api/admin/reservations/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.affected").value(1))
+                    .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+                    .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar lista de ids vacía")
+        void shouldRejectEmptyIds() throws Exception {
+            mockMvc.perform(post("/api/admin/reservations/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"action\":\"CANCEL\",\"ids\":[]}"))
+                    .andExpect(status().isBadRequest());
+
+            verify(reservationService, never()).bulkAction(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/admin/reservations/import")
+    class ImportReservations {
+
+        @Test
+        @DisplayName("Debe procesar el archivo y devolver el resultado por fila")
+        void shouldImportFile() throws Exception {
+            UUID reservationId = UUID.randomUUID();
+            MockMultipartFile file = new MockMultipartFile(
+                    "file", "escuela.csv", "text/csv", "fecha;institucion\n".getBytes());
+            when(reservationImportService.importFile(any())).thenReturn(new ImportReservationsResponse(2, 1, 1, List.of(
+                    new ImportRowResult(2, ImportRowResult.Outcome.CREATED, reservationId, null),
+                    new ImportRowResult(3, ImportRowResult.Outcome.REJECTED, null, "fecha inválida: 31/02/2025"))));
+
+            mockMvc.perform(multipart("/api/admin/reservations/import").file(file))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reservationsCreated").value(1))
+                    .andExpect(jsonPath("$.results[0].reservationId").value(reservationId.toString()))
+                    .andExpect(jsonPath("$.results[1].outcome").value("REJECTED"));
+        }
+
+        @Test
+        @DisplayName("Debe retornar 400 si falta el archivo")
+        void shouldRejectMissingFile() throws Exception {
+            mockMvc.perform(multipart("/api/admin/reservations/import"))
+                    .andExpect(status().isBadRequest());
+
+            verify(reservationImportService, never()).importFile(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/admin/stats")
+    class Stats {
+
+        @Test
+        @DisplayName("Debe retornar estadísticas del rango solicitado")
+        void shouldReturnStatsForRange() throws Exception {
+            LocalDate from = LocalDate.of(2025, 9, 1);
+            LocalDate to = LocalDate.of(2025, 9, 30);
+            var total = new ReservationStatsDTO.Count(12, 40);
+            when(reservationStatsService.getStats(from, to)).thenReturn(new ReservationStatsDTO(
+                    from, to, total, java.util.Map.of("PENDING", total), java.util.Map.of("A", total),
+                    java.util.Map.of("INDIVIDUAL", total), java.util.Map.of("SOCIAL", total),
+                    List.of(new ReservationStatsDTO.DailyCount(from, 12, 40)), null));
+
+            mockMvc.perform(get("/api/admin/stats")
+                            .param("from", "2025-09-01")
+                            .param("to", "2025-09-30"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.total.people").value(40))
+                    .andExpect(jsonPath("$.byCircuit.A.reservations").value(12))
+                    .andExpect(jsonPath("$.byDay[0].date").value("2025-09-01"));
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/admin/eventos")
     class CreateEvent {
@@ -3,6 +3,7 @@ package com.luismunozse.reservalago.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.luismunozse.reservalago.dto.LoginRequest;
 import com.luismunozse.reservalago.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -30,7 +31,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
-@Import(TestSecurityConfig.class)
+// Los filtros de la app (límite de concurrencia) publican métricas
+@Import({TestSecurityConfig.class, SimpleMeterRegistry.class})
 class AuthControllerTest {
 
     @Autowired
@@ -0,0 +1,288 @@
+package com.luismunozse.reservalago.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luismunozse.reservalago.IntegrationTest;
+import com.luismunozse.reservalago.config.MaxQueries;
+import com.luismunozse.reservalago.config.QueryCountConfig;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.VisitorDTO;
+import com.luismunozse.reservalago.model.AvailabilityRule;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
+import com.luismunozse.reservalago.repo.ReservationRepository;
+import com.luismunozse.reservalago.service.ReservationMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cantidad máxima de sentencias SQL por endpoint, contra PostgreSQL real.
+ * Complementa a AdminControllerTest/PublicControllerTest (que usan servicios
+ * mockeados): una carga perezosa nueva o una consulta dentro de un bucle hace
+ * fallar el build. Sin Docker queda el control de ReservationAdminListQueryCountTest.
+ */
+@AutoConfigureMockMvc
+@Import(QueryCountConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ControllerQueryCountTest extends IntegrationTest {
+
+    private static final int RESERVATIONS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    private final List<UUID> created = new ArrayList<>();
+    private final List<Long> rules = new ArrayList<>();
+    private LocalDate visitDate;
+
+    @BeforeEach
+    void setUp() {
+        visitDate = LocalDate.now().plusDays(10);
+        for (int i = 0; i < RESERVATIONS; i++) {
+            int dni = 90_000_000 + i * 10;
+            Reservation r = reservationMapper.fromCreateRequest(request(visitDate, dni), String.valueOf(dni));
+            created.add(reservationRepository.save(r).getId());
+        }
+        // Cupo para la reserva grupal, al día siguiente
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setDay(visitDate.plusDays(1));
+        rule.setCapacity(100);
+        rules.add(availabilityRuleRepository.save(rule).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(created);
+        availabilityRuleRepository.deleteAllById(rules);
+        created.clear();
+        rules.clear();
+    }
+
+    @Nested
+    @DisplayName("Endpoints públicos")
+    class PublicEndpoints {
+
+        @Test
+        @MaxQueries(3)
+        @DisplayName("GET /api/availability?date: regla, capacidad por defecto y ocupación")
+        void availabilityForDay() throws Exception {
+            mockMvc.perform(get("/api/availability").param("date", visitDate.toString()))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(3)
+        @DisplayName("GET /api/availability?month: mismas consultas para todo el mes")
+        void availabilityForMonth() throws Exception {
+            mockMvc.perform(get("/api/availability").param("month", visitDate.toString().substring(0, 7)))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(1)
+        @DisplayName("GET /api/reservations/{id}: proyección del resumen")
+        void reservationSummary() throws Exception {
+            mockMvc.perform(get("/api/reservations/{id}", created.get(0)))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(8)
+        @DisplayName("POST /api/reservations con dos visitantes")
+        void createReservation() throws Exception {
+            CreateReservationRequest req = request(visitDate, 91_000_000);
+            String response = mockMvc.perform(post("/api/reservations")
+                            .header("X-Forwarded-For", "10.34.0.1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(req)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            created.add(UUID.fromString(objectMapper.readTree(response).get("id").asText()));
+        }
+
+        @Test
+        @MaxQueries(8)
+        @DisplayName("POST /api/reservations con 40 visitantes: los visitantes van en un solo lote")
+        void createGroupReservation() throws Exception {
+            CreateReservationRequest req = request(visitDate.plusDays(1), 92_000_000, 40);
+            String response = mockMvc.perform(post("/api/reservations")
+                            .header("X-Forwarded-For", "10.34.0.2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(req)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            created.add(UUID.fromString(objectMapper.readTree(response).get("id").asText()));
+        }
+
+        @Test
+        @MaxQueries(8)
+        @DisplayName("POST /api/reservations con Idempotency-Key: reserva y clave en la misma transacción")
+        void createReservationWithIdempotencyKey() throws Exception {
+            CreateReservationRequest req = request(visitDate, 93_000_000);
+            String response = mockMvc.perform(post("/api/reservations")
+                            .header("X-Forwarded-For", "10.34.0.3")
+                            .header("Idempotency-Key", UUID.randomUUID().toString())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(req)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            created.add(UUID.fromString(objectMapper.readTree(response).get("id").asText()));
+        }
+    }
+
+    @Nested
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("Endpoints de administración")
+    class AdminEndpoints {
+
+        // Los listados y exportaciones suman una sentencia: el set_config de @QueryTimeout
+        @Test
+        @MaxQueries(2)
+        @DisplayName("GET /api/admin/reservations: página con visitantes (json_agg) y conteo")
+        void listReservations() throws Exception {
+            mockMvc.perform(get("/api/admin/reservations").param("date", visitDate.toString()))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(2)
+        @DisplayName("GET /api/admin/reservations?count=none: una sola consulta, sin conteo")
+        void listReservationsWithoutCount() throws Exception {
+            mockMvc.perform(get("/api/admin/reservations").param("count", "none").param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(2))
+                    .andExpect(jsonPath("$.last").value(false));
+        }
+
+        @Test
+        @MaxQueries(2)
+        @DisplayName("GET /api/admin/reservations?dni=: DNI de un visitante por EXISTS, sin filas repetidas")
+        void listReservationsByVisitorDni() throws Exception {
+            mockMvc.perform(get("/api/admin/reservations").param("dni", "90000021"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].id").value(created.get(2).toString()))
+                    .andExpect(jsonPath("$.totalElements").value(1));
+        }
+
+        @Test
+        @MaxQueries(3)
+        @DisplayName("GET /api/admin/reservations/export: reservas y visitantes en lote")
+        void exportReservations() throws Exception {
+            mockMvc.perform(get("/api/admin/reservations/export").param("date", visitDate.toString()))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(6)
+        @DisplayName("POST /api/admin/reservations/import: cupo y duplicados una vez, inserts en lote")
+        void importReservations() throws Exception {
+            StringBuilder csv = new StringBuilder("fecha,institucion,circuito,responsable_nombre,responsable_apellido,"
+                    + "responsable_dni,telefono,email,nombre,apellido,dni,tipo\n");
+            for (int school = 0; school < 2; school++) {
+                int responsible = 94_000_000 + school * 100;
+                for (int i = 0; i < 20; i++) {
+                    csv.append(String.join(",", visitDate.plusDays(1).toString(), "Escuela " + school, "A",
+                                    "Marta", "Lopez", String.valueOf(responsible), "1155667788", "escuela@test.com",
+                                    "Alumno", String.valueOf(i), String.valueOf(responsible + i),
+                                    i == 0 ? "DOCENTE" : "ALUMNO"))
+                            .append('\n');
+                }
+            }
+            MockMultipartFile file = new MockMultipartFile("file", "escuelas.csv", "text/csv",
+                    csv.toString().getBytes(StandardCharsets.UTF_8));
+
+            String response = mockMvc.perform(multipart("/api/admin/reservations/import").file(file))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reservationsCreated").value(2))
+                    .andReturn().getResponse().getContentAsString();
+            Set<UUID> ids = new HashSet<>();
+            objectMapper.readTree(response).get("results").forEach(r ->
+                    ids.add(UUID.fromString(r.get("reservationId").asText())));
+            created.addAll(ids);
+        }
+
+        @Test
+        @MaxQueries(1)
+        @DisplayName("GET /api/admin/stats: una consulta a la vista materializada")
+        void stats() throws Exception {
+            mockMvc.perform(get("/api/admin/stats"))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(1)
+        @DisplayName("POST /api/admin/reservations/{id}/confirm: un UPDATE ... RETURNING")
+        void confirmReservation() throws Exception {
+            mockMvc.perform(post("/api/admin/reservations/{id}/confirm", created.get(0)))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @MaxQueries(2)
+        @DisplayName("POST /api/admin/reservations/bulk: contactos y un UPDATE")
+        void bulkConfirm() throws Exception {
+            String body = objectMapper.writeValueAsString(Map.of("action", "CONFIRM", "ids", created));
+            mockMvc.perform(post("/api/admin/reservations/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private static CreateReservationRequest request(LocalDate date, int dni) {
+        return request(date, dni, 2);
+    }
+
+    private static CreateReservationRequest request(LocalDate date, int dni, int visitors) {
+        List<VisitorDTO> group = new ArrayList<>();
+        group.add(new VisitorDTO("Ana", "Gomez", String.valueOf(dni), null));
+        for (int i = 1; i < visitors; i++) {
+            group.add(new VisitorDTO("Visitante", String.valueOf(i), String.valueOf(dni + i), null));
+        }
+        return new CreateReservationRequest(
+                date, "Ana", "Gomez", String.valueOf(dni), "1155667788", "ana" + dni + "@test.com", null,
+                Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                visitors, 0, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true, group);
+    }
+}
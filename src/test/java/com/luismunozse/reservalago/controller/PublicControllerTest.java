@@ -2,10 +2,13 @@ package com.luismunozse.reservalago.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.ReservationSummaryDTO;
 import com.luismunozse.reservalago.model.*;
 import com.luismunozse.reservalago.service.AvailabilityService;
+import com.luismunozse.reservalago.service.IdempotencyService;
 import com.luismunozse.reservalago.service.JwtService;
 import com.luismunozse.reservalago.service.ReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -22,9 +25,13 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -32,7 +39,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PublicController.class)
-@Import(TestSecurityConfig.class)
+// Los filtros de la app (límite de concurrencia) publican métricas
+@Import({TestSecurityConfig.class, SimpleMeterRegistry.class})
 class PublicControllerTest {
 
     @Autowired
@@ -47,6 +55,9 @@ class PublicControllerTest {
     @MockitoBean
     private AvailabilityService availabilityService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -147,6 +158,59 @@ class PublicControllerTest {
                     .andExpect(jsonPath("$.status").value("PENDING"));
         }
 
+        @Test
+        @WithMockUser
+        @DisplayName("Debe devolver la reserva original ante un reintento con la misma Idempotency-Key")
+        void shouldReplayWithIdempotencyKey() throws Exception {
+            UUID originalId = UUID.randomUUID();
+            when(idempotencyService.findReplay(eq("retry-key-1"), any())).thenReturn(Optional.of(originalId));
+
+            var request = new CreateReservationRequest(
+                    LocalDate.now().plusDays(7),
+                    "Juan", "Perez", "12345678", "1155667788", "juan@test.com", null,
+                    Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                    2, 1, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true, List.of()
+            );
+
+            mockMvc.perform(post("/api/reservations")
+                            .with(csrf())
+                            .header("X-Forwarded-For", "10.0.0.101")
+                            .header("Idempotency-Key", "retry-key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(originalId.toString()))
+                    .andExpect(jsonPath("$.status").value("PENDING"));
+
+            verify(reservationService, never()).create(any(), any());
+            verify(reservationService, never()).create(any());
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("Debe crear la reserva registrando la Idempotency-Key en el primer intento")
+        void shouldCreateWithIdempotencyKey() throws Exception {
+            UUID expectedId = UUID.randomUUID();
+            when(idempotencyService.findReplay(eq("retry-key-2"), any())).thenReturn(Optional.empty());
+            when(reservationService.create(any(), eq("retry-key-2"))).thenReturn(expectedId);
+
+            var request = new CreateReservationRequest(
+                    LocalDate.now().plusDays(7),
+                    "Juan", "Perez", "12345678", "1155667788", "juan@test.com", null,
+                    Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                    2, 1, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true, List.of()
+            );
+
+            mockMvc.perform(post("/api/reservations")
+                            .with(csrf())
+                            .header("X-Forwarded-For", "10.0.0.102")
+                            .header("Idempotency-Key", "retry-key-2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(expectedId.toString()));
+        }
+
         @Test
         @WithMockUser
         @DisplayName("Debe rechazar DNI con formato inválido")
@@ -232,15 +296,11 @@ class PublicControllerTest {
         @DisplayName("Debe retornar reserva si existe")
         void shouldReturnReservation() throws Exception {
             UUID id = UUID.randomUUID();
-            Reservation reservation = new Reservation();
-            reservation.setId(id);
-            reservation.setVisitDate(LocalDate.of(2025, 9, 15));
-            reservation.setFirstName("Juan");
-            reservation.setLastName("Perez");
-            reservation.setStatus(ReservationStatus.PENDING);
-            reservation.setCircuit(Circuit.A);
+            ReservationSummaryDTO summary = new ReservationSummaryDTO(
+                    id, LocalDate.of(2025, 9, 15), 2, 0, 0, 0, null, null,
+                    ReservationStatus.PENDING, VisitorType.INDIVIDUAL, Circuit.A, null, null);
 
-            when(reservationService.findById(id)).thenReturn(reservation);
+            when(reservationService.findSummary(id)).thenReturn(summary);
 
             mockMvc.perform(get("/api/reservations/{id}", id))
                     .andExpect(status().isOk())
@@ -253,7 +313,7 @@ class PublicControllerTest {
         @DisplayName("Debe retornar 404 si no existe")
         void shouldReturn404WhenNotFound() throws Exception {
             UUID id = UUID.randomUUID();
-            when(reservationService.findById(id))
+            when(reservationService.findSummary(id))
                     .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva no encontrada"));
 
             mockMvc.perform(get("/api/reservations/{id}", id))
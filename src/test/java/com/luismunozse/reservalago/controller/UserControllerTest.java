@@ -6,6 +6,7 @@ import com.luismunozse.reservalago.dto.UpdateUserRequest;
 import com.luismunozse.reservalago.dto.UserResponse;
 import com.luismunozse.reservalago.service.JwtService;
 import com.luismunozse.reservalago.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -30,7 +31,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
-@Import(TestSecurityConfig.class)
+// Los filtros de la app (límite de concurrencia) publican métricas
+@Import({TestSecurityConfig.class, SimpleMeterRegistry.class})
 class UserControllerTest {
 
     @Autowired
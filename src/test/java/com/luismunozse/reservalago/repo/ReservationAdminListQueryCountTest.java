@@ -0,0 +1,96 @@
+package com.luismunozse.reservalago.repo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luismunozse.reservalago.config.MaxQueries;
+import com.luismunozse.reservalago.dto.AdminReservationDTO;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tope de sentencias del listado del panel sin base de datos: el driver JDBC es
+ * un mock envuelto en el mismo proxy que cuenta en ControllerQueryCountTest, así
+ * que el control corre en el build normal aunque no haya Docker. Si alguien
+ * vuelve a cargar los visitantes fila por fila, la cuenta crece con la página.
+ */
+class ReservationAdminListQueryCountTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private final ReservationAdminListRepository repository = new ReservationAdminListRepository(
+            new JdbcTemplate(countingDatabase()), new ObjectMapper());
+
+    @Test
+    @MaxQueries(1)
+    @DisplayName("Una página de 50 reservas con sus visitantes es una sola consulta")
+    void pageIsSingleQuery() {
+        List<AdminReservationDTO> rows = repository.findPage(filter(), NEWEST_FIRST, 0, PAGE_SIZE);
+
+        assertThat(rows).hasSize(PAGE_SIZE);
+    }
+
+    @Test
+    @MaxQueries(2)
+    @DisplayName("Página y conteo exacto: dos consultas")
+    void pageAndCount() {
+        repository.findPage(filter(), NEWEST_FIRST, 0, PAGE_SIZE);
+
+        assertThat(repository.count(filter())).isZero();
+    }
+
+    private static ReservationFilterSql filter() {
+        return ReservationFilterSql.forAdminList(LocalDate.of(2025, 9, 15), ReservationStatus.PENDING, null, null);
+    }
+
+    /**
+     * Cada sentencia devuelve {@link #PAGE_SIZE} filas con columnas nulas; el
+     * conteo lee una sola columna.
+     */
+    private static DataSource countingDatabase() {
+        try {
+            Connection con = mock(Connection.class);
+            when(con.prepareStatement(anyString(), anyInt(), anyInt())).thenAnswer(inv -> statement(PAGE_SIZE));
+            when(con.prepareStatement(anyString())).thenAnswer(inv -> statement(1));
+            DataSource dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenReturn(con);
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name("admin-list")
+                    .countQuery()
+                    .build();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static PreparedStatement statement(int rows) throws SQLException {
+        AtomicInteger remaining = new AtomicInteger(rows);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(inv -> remaining.getAndDecrement() > 0);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        when(rs.getMetaData()).thenReturn(metaData);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(ps.executeQuery()).thenReturn(rs);
+        return ps;
+    }
+}
@@ -0,0 +1,127 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import com.luismunozse.reservalago.dto.AdminReservationDTO;
+import com.luismunozse.reservalago.dto.AdminVisitorDTO;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.VisitorDTO;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.service.ReservationMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Modelo de lectura del listado contra PostgreSQL real: columnas proyectadas,
+ * visitantes por json_agg y filtros parciales por DNI.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationAdminListRepositoryTest extends IntegrationTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    @Autowired
+    private ReservationAdminListRepository adminListRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    private final List<UUID> created = new ArrayList<>();
+    private LocalDate visitDate;
+
+    @BeforeEach
+    void setUp() {
+        visitDate = LocalDate.now().plusDays(41);
+        created.add(save("94000000", "Ana", List.of(
+                new VisitorDTO("carla", "Sosa", "94000002", "1144556677"),
+                new VisitorDTO("Bruno", "Diaz", "94000001", null))));
+        created.add(save("94000010", "Eva", List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(created);
+        created.clear();
+    }
+
+    @Test
+    @DisplayName("Proyecta la fila del panel con sus visitantes ordenados por nombre")
+    void projectsRowWithVisitors() {
+        List<AdminReservationDTO> rows = adminListRepository.findPage(filter(null, null), NEWEST_FIRST, 0, 10);
+
+        assertThat(rows).extracting(AdminReservationDTO::id).containsExactly(created.get(1), created.get(0));
+        assertThat(rows.get(0).visitors()).isEmpty();
+
+        AdminReservationDTO ana = rows.get(1);
+        assertThat(ana.firstName()).isEqualTo("Ana");
+        assertThat(ana.circuit()).isEqualTo("B");
+        assertThat(ana.status()).isEqualTo("PENDING");
+        assertThat(ana.originLocation()).isEqualTo("Córdoba");
+        assertThat(ana.createdAt()).isNotNull();
+        assertThat(ana.visitors()).containsExactly(
+                new AdminVisitorDTO("Bruno", "Diaz", "94000001", null),
+                new AdminVisitorDTO("carla", "Sosa", "94000002", "1144556677"));
+    }
+
+    @Test
+    @DisplayName("Respeta el orden pedido y recorta con LIMIT/OFFSET")
+    void sortsAndLimits() {
+        Sort byName = Sort.by("firstName");
+
+        assertThat(adminListRepository.findPage(filter(null, null), byName, 0, 1))
+                .extracting(AdminReservationDTO::firstName).containsExactly("Ana");
+        assertThat(adminListRepository.findPage(filter(null, null), byName, 1, 1))
+                .extracting(AdminReservationDTO::firstName).containsExactly("Eva");
+        assertThat(adminListRepository.count(filter(null, null))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("DNI parcial de un visitante y nombre sin distinguir mayúsculas")
+    void filtersByPartialDniAndName() {
+        assertThat(adminListRepository.findPage(filter("4000002", null), NEWEST_FIRST, 0, 10))
+                .extracting(AdminReservationDTO::id).containsExactly(created.get(0));
+        assertThat(adminListRepository.findPage(filter(null, "EVA"), NEWEST_FIRST, 0, 10))
+                .extracting(AdminReservationDTO::id).containsExactly(created.get(1));
+        assertThat(adminListRepository.count(filter("4000002", null))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rechaza ordenar por una propiedad fuera de la grilla")
+    void rejectsUnknownSortProperty() {
+        assertThatThrownBy(() -> adminListRepository.findPage(
+                filter(null, null), Sort.by("institutionName"), 0, 10))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasMessageContaining("institutionName");
+    }
+
+    private ReservationFilterSql filter(String dni, String name) {
+        return ReservationFilterSql.forAdminList(visitDate, ReservationStatus.PENDING, dni, name);
+    }
+
+    private UUID save(String dni, String firstName, List<VisitorDTO> visitors) {
+        CreateReservationRequest req = new CreateReservationRequest(
+                visitDate, firstName, "Gomez", dni, "1155667788", "list@test.com", null,
+                Circuit.B, VisitorType.INDIVIDUAL, null, null,
+                1, visitors.size(), 0, 0, null, "Córdoba", HowHeard.SOCIAL, true, visitors);
+        return reservationRepository.save(reservationMapper.fromCreateRequest(req, dni)).getId();
+    }
+}
@@ -0,0 +1,109 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.ReservationExportLine;
+import com.luismunozse.reservalago.dto.VisitorDTO;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.service.ReservationMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exportación en streaming contra PostgreSQL real: orden titular → visitantes y
+ * filtros por DNI o nombre de un visitante.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationExportRepositoryTest extends IntegrationTest {
+
+    @Autowired
+    private ReservationExportRepository exportRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<UUID> created = new ArrayList<>();
+    private LocalDate visitDate;
+
+    @BeforeEach
+    void setUp() {
+        visitDate = LocalDate.now().plusDays(40);
+        created.add(save("93000000", "Ana", List.of(
+                new VisitorDTO("Bruno", "Diaz", "93000001", null),
+                new VisitorDTO("Carla", "Sosa", "93000002", "1144556677"))));
+        created.add(save("93000010", "Eva", List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(created);
+        created.clear();
+    }
+
+    @Test
+    @DisplayName("Emite cada titular seguido de sus visitantes")
+    void streamsHolderThenVisitors() {
+        List<ReservationExportLine> lines = stream(null, null);
+
+        // Misma fecha: primero la reserva más reciente
+        assertThat(lines).extracting(ReservationExportLine::role).containsExactly(
+                "Titular", "Titular", "Visitante", "Visitante");
+        assertThat(lines).extracting(ReservationExportLine::id).containsExactly(
+                created.get(1), created.get(0), created.get(0), created.get(0));
+        assertThat(lines.get(1).adults18Plus()).isEqualTo(1);
+        assertThat(lines.get(1).createdAt()).isNotNull();
+        assertThat(lines.get(2).lastName()).isEqualTo("Diaz");
+        assertThat(lines.get(3).phone()).isEqualTo("1144556677");
+    }
+
+    @Test
+    @DisplayName("El filtro por DNI de un visitante devuelve la reserva completa")
+    void filtersByVisitorDni() {
+        List<ReservationExportLine> lines = stream("93000002", null);
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines).extracting(ReservationExportLine::id).containsOnly(created.get(0));
+    }
+
+    @Test
+    @DisplayName("El filtro por nombre no distingue mayúsculas")
+    void filtersByName() {
+        assertThat(stream(null, "EVA")).extracting(ReservationExportLine::id).containsExactly(created.get(1));
+    }
+
+    private List<ReservationExportLine> stream(String dni, String name) {
+        List<ReservationExportLine> lines = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(tx -> exportRepository.streamLines(
+                visitDate, visitDate, ReservationStatus.PENDING, null, dni, name, lines::add));
+        return lines;
+    }
+
+    private UUID save(String dni, String firstName, List<VisitorDTO> visitors) {
+        CreateReservationRequest req = new CreateReservationRequest(
+                visitDate, firstName, "Gomez", dni, "1155667788", "export@test.com", null,
+                Circuit.B, VisitorType.INDIVIDUAL, null, null,
+                1, visitors.size(), 0, 0, null, "Córdoba", HowHeard.SOCIAL, true, visitors);
+        return reservationRepository.save(reservationMapper.fromCreateRequest(req, dni)).getId();
+    }
+}
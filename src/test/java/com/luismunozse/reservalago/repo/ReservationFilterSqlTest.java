@@ -0,0 +1,67 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationFilterSqlTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 9, 30);
+
+    @Test
+    @DisplayName("Sin filtros no agrega WHERE")
+    void emptyWithoutFilters() {
+        ReservationFilterSql sql = ReservationFilterSql.of(null, null, null, null, " ", null);
+
+        assertThat(sql.where()).isEmpty();
+        assertThat(sql.args()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Solo incluye los filtros informados, con un parámetro por predicado")
+    void onlySuppliedPredicates() {
+        ReservationFilterSql sql = ReservationFilterSql.of(FROM, TO, ReservationStatus.CONFIRMED,
+                VisitorType.INDIVIDUAL, null, null);
+
+        assertThat(sql.where()).isEqualTo(
+                " WHERE r.visit_date >= ? AND r.visit_date <= ? AND r.status = ? AND r.visitor_type = ?");
+        assertThat(sql.args()).containsExactly(FROM, TO, "CONFIRMED", "INDIVIDUAL");
+    }
+
+    @Test
+    @DisplayName("Un rango de un solo día se busca por igualdad")
+    void singleDayUsesEquality() {
+        ReservationFilterSql sql = ReservationFilterSql.of(FROM, FROM, null, null, null, null);
+
+        assertThat(sql.where()).isEqualTo(" WHERE r.visit_date = ?");
+        assertThat(sql.args()).containsExactly(FROM);
+    }
+
+    @Test
+    @DisplayName("Visitantes por subconsulta, sin JOIN, y nombre en minúsculas")
+    void visitorsWithoutJoin() {
+        ReservationFilterSql sql = ReservationFilterSql.of(null, TO, null, null, "12345678", "Gómez");
+
+        assertThat(sql.where()).startsWith(" WHERE r.visit_date <= ? AND r.id IN (")
+                .contains("EXISTS (SELECT 1 FROM reservation_visitors vn")
+                .doesNotContain("JOIN");
+        assertThat(sql.args()).containsExactly(TO, "12345678", "12345678",
+                "%gómez%", "%gómez%", "%gómez%", "%gómez%");
+    }
+
+    @Test
+    @DisplayName("Listado del panel: DNI parcial en titular y visitantes")
+    void adminListPartialDni() {
+        ReservationFilterSql sql = ReservationFilterSql.forAdminList(FROM, null, "4567", null);
+
+        assertThat(sql.where()).startsWith(" WHERE r.visit_date = ? AND (r.dni LIKE ? OR EXISTS (");
+        assertThat(sql.args()).containsExactly(FROM, "%4567%", "%4567%");
+        assertThat(ReservationFilterSql.forAdminList(null, null, "", null).isEmpty()).isTrue();
+    }
+}
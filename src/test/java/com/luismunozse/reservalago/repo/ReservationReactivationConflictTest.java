@@ -0,0 +1,106 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import com.luismunozse.reservalago.dto.BulkReservationRequest;
+import com.luismunozse.reservalago.dto.BulkReservationResponse;
+import com.luismunozse.reservalago.dto.BulkReservationResult;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.service.ReservationMapper;
+import com.luismunozse.reservalago.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confirmación masiva de canceladas contra el índice único parcial
+ * ux_reservations_date_dni de PostgreSQL real.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationReactivationConflictTest extends IntegrationTest {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    private final List<UUID> created = new ArrayList<>();
+    private LocalDate visitDate;
+
+    @BeforeEach
+    void setUp() {
+        visitDate = LocalDate.now().plusDays(45);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAllById(created);
+        created.clear();
+    }
+
+    @Test
+    @DisplayName("Detecta canceladas con una reserva activa del mismo DNI y las repetidas entre sí")
+    void findsConflicts() {
+        UUID withActive = save("95000001", ReservationStatus.CANCELLED);
+        save("95000001", ReservationStatus.PENDING);
+        UUID firstRepeated = save("95000002", ReservationStatus.CANCELLED);
+        UUID secondRepeated = save("95000002", ReservationStatus.CANCELLED);
+        UUID free = save("95000003", ReservationStatus.CANCELLED);
+
+        assertThat(reservationRepository.findReactivationConflicts(
+                List.of(withActive, firstRepeated, secondRepeated, free)))
+                .containsExactlyInAnyOrder(withActive, secondRepeated);
+    }
+
+    @Test
+    @DisplayName("La confirmación masiva deja en CONFLICT la cancelada que violaría el índice y confirma las demás")
+    void bulkConfirmSkipsConflicts() {
+        UUID conflicting = save("95000011", ReservationStatus.CANCELLED);
+        save("95000011", ReservationStatus.CONFIRMED);
+        UUID pending = save("95000012", ReservationStatus.PENDING);
+        UUID cancelled = save("95000013", ReservationStatus.CANCELLED);
+
+        BulkReservationResponse response = reservationService.bulkAction(new BulkReservationRequest(
+                BulkReservationRequest.Action.CONFIRM, List.of(conflicting, pending, cancelled)));
+
+        assertThat(response.affected()).isEqualTo(2);
+        assertThat(response.results()).extracting(BulkReservationResult::outcome).containsExactly(
+                BulkReservationResult.Outcome.CONFLICT,
+                BulkReservationResult.Outcome.UPDATED,
+                BulkReservationResult.Outcome.UPDATED);
+        assertThat(reservationRepository.findById(conflicting)).get()
+                .extracting(Reservation::getStatus).isEqualTo(ReservationStatus.CANCELLED);
+        assertThat(reservationRepository.findById(cancelled)).get()
+                .extracting(Reservation::getStatus).isEqualTo(ReservationStatus.CONFIRMED);
+    }
+
+    private UUID save(String dni, ReservationStatus status) {
+        CreateReservationRequest req = new CreateReservationRequest(
+                visitDate, "Ana", "Gomez", dni, "1155667788", "bulk@test.com", null,
+                Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                1, 0, 0, 0, null, "Córdoba", HowHeard.SOCIAL, true, List.of());
+        Reservation r = reservationMapper.fromCreateRequest(req, dni);
+        r.setStatus(status);
+        UUID id = reservationRepository.saveAndFlush(r).getId();
+        created.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,136 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import com.luismunozse.reservalago.config.MaxQueries;
+import com.luismunozse.reservalago.config.QueryCountConfig;
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.VisitorDTO;
+import com.luismunozse.reservalago.model.AvailabilityRule;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.Reservation;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.service.ReservationMapper;
+import com.luismunozse.reservalago.service.ReservationService;
+import com.luismunozse.reservalago.service.SystemConfigService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de segundo nivel contra PostgreSQL real: las lecturas repetidas no llegan
+ * a la base y las escrituras (incluidas las que no pasan por Hibernate) invalidan
+ * lo cacheado.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@Import(QueryCountConfig.class)
+class SecondLevelCacheTest extends IntegrationTest {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SystemConfigService systemConfigService;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID reservationId;
+    private LocalDate visitDate;
+
+    @BeforeEach
+    void setUp() {
+        visitDate = LocalDate.now().plusDays(20);
+        Reservation r = reservationMapper.fromCreateRequest(request(visitDate), "92000000");
+        reservationId = reservationRepository.save(r).getId();
+        // Precarga: las pruebas miden solo las lecturas siguientes
+        reservationRepository.findById(reservationId);
+        systemConfigService.getDefaultCapacity();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteById(reservationId);
+        availabilityRuleRepository.findByDay(visitDate).ifPresent(availabilityRuleRepository::delete);
+    }
+
+    @Nested
+    @DisplayName("Lecturas cacheadas")
+    class CachedReads {
+
+        @Test
+        @MaxQueries(0)
+        @DisplayName("findById de una reserva ya leída no consulta la base")
+        void reservationById() {
+            assertThat(reservationRepository.findById(reservationId)).isPresent();
+        }
+
+        @Test
+        @MaxQueries(0)
+        @DisplayName("La capacidad por defecto sale del cache de consultas")
+        void defaultCapacity() {
+            systemConfigService.getDefaultCapacity();
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidación")
+    class Invalidation {
+
+        @Test
+        @DisplayName("Confirmar con UPDATE directo quita la reserva del cache")
+        void confirmEvictsReservation() {
+            assertThat(entityManagerFactory.getCache().contains(Reservation.class, reservationId)).isTrue();
+
+            reservationService.confirmReservation(reservationId);
+
+            assertThat(entityManagerFactory.getCache().contains(Reservation.class, reservationId)).isFalse();
+            assertThat(reservationRepository.findById(reservationId))
+                    .get().extracting(Reservation::getStatus).isEqualTo(ReservationStatus.CONFIRMED);
+        }
+
+        @Test
+        @DisplayName("Guardar una regla invalida la consulta cacheada por fecha")
+        void savingRuleInvalidatesQueryCache() {
+            assertThat(availabilityRuleRepository.findByDay(visitDate)).isEmpty();
+
+            AvailabilityRule rule = new AvailabilityRule();
+            rule.setDay(visitDate);
+            rule.setCapacity(12);
+            availabilityRuleRepository.save(rule);
+
+            assertThat(availabilityRuleRepository.findByDay(visitDate))
+                    .get().extracting(AvailabilityRule::getCapacity).isEqualTo(12);
+        }
+    }
+
+    private static CreateReservationRequest request(LocalDate date) {
+        return new CreateReservationRequest(
+                date, "Ana", "Gomez", "92000000", "1155667788", "cache@test.com", null,
+                Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                1, 0, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true,
+                List.of(new VisitorDTO("Ana", "Gomez", "92000000", null)));
+    }
+}
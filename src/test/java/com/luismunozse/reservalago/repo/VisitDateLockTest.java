@@ -0,0 +1,73 @@
+package com.luismunozse.reservalago.repo;
+
+import com.luismunozse.reservalago.IntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lock de asesoramiento por fecha contra PostgreSQL real: una segunda
+ * transacción para la misma fecha espera y la de otra fecha no.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class VisitDateLockTest extends IntegrationTest {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Serializa solo las transacciones de la misma fecha hasta que la primera termina")
+    void serializesSameDateOnly() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(60);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> inTransaction(() -> {
+                reservationRepository.lockVisitDate(date);
+                locked.countDown();
+                await(release);
+            }), executor);
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture<Void> sameDate = CompletableFuture.runAsync(
+                    () -> inTransaction(() -> reservationRepository.lockVisitDate(date)), executor);
+            CompletableFuture<Void> otherDate = CompletableFuture.runAsync(
+                    () -> inTransaction(() -> reservationRepository.lockVisitDate(date.plusDays(1))), executor);
+
+            otherDate.get(10, TimeUnit.SECONDS);
+            Thread.sleep(300);
+            assertThat(sameDate).as("misma fecha mientras el lock está tomado").isNotDone();
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            sameDate.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void inTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> work.run());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.luismunozse.reservalago.service;
 
+import com.luismunozse.reservalago.dto.DailyPeopleDTO;
 import com.luismunozse.reservalago.model.AvailabilityRule;
 import com.luismunozse.reservalago.repo.AvailabilityRuleRepository;
 import com.luismunozse.reservalago.repo.ReservationRepository;
@@ -20,6 +21,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -125,8 +128,8 @@ class AvailabilityServiceTest {
         @DisplayName("Debe retornar disponibilidad para todos los días del mes")
         void shouldReturnAvailabilityForAllDaysInMonth() {
             LocalDate september = LocalDate.of(2025, 9, 1);
-            when(availabilityRuleRepository.findByDay(any())).thenReturn(Optional.empty());
-            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(availabilityRuleRepository.findByDayBetween(any(), any())).thenReturn(List.of());
+            when(reservationRepository.totalPeopleByDateBetween(any(), any())).thenReturn(List.of());
 
             List<Map<String, Object>> result = availabilityService.availabilityForMonth(september);
 
@@ -138,8 +141,8 @@ class AvailabilityServiceTest {
         @DisplayName("Debe formatear correctamente las fechas")
         void shouldFormatDatesCorrectly() {
             LocalDate september = LocalDate.of(2025, 9, 1);
-            when(availabilityRuleRepository.findByDay(any())).thenReturn(Optional.empty());
-            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(availabilityRuleRepository.findByDayBetween(any(), any())).thenReturn(List.of());
+            when(reservationRepository.totalPeopleByDateBetween(any(), any())).thenReturn(List.of());
 
             List<Map<String, Object>> result = availabilityService.availabilityForMonth(september);
 
@@ -151,8 +154,9 @@ class AvailabilityServiceTest {
         @DisplayName("Debe incluir totalCapacity y remainingCapacity")
         void shouldIncludeCapacityFields() {
             LocalDate september = LocalDate.of(2025, 9, 1);
-            when(availabilityRuleRepository.findByDay(any())).thenReturn(Optional.empty());
-            when(reservationRepository.totalPeopleForDate(any())).thenReturn(10);
+            when(availabilityRuleRepository.findByDayBetween(any(), any())).thenReturn(List.of());
+            when(reservationRepository.totalPeopleByDateBetween(any(), any()))
+                    .thenReturn(List.of(new DailyPeopleDTO(september, 10)));
 
             List<Map<String, Object>> result = availabilityService.availabilityForMonth(september);
 
@@ -167,8 +171,8 @@ class AvailabilityServiceTest {
         @DisplayName("Debe manejar febrero correctamente (28 días)")
         void shouldHandleFebruaryCorrectly() {
             LocalDate february = LocalDate.of(2025, 2, 1);
-            when(availabilityRuleRepository.findByDay(any())).thenReturn(Optional.empty());
-            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(availabilityRuleRepository.findByDayBetween(any(), any())).thenReturn(List.of());
+            when(reservationRepository.totalPeopleByDateBetween(any(), any())).thenReturn(List.of());
 
             List<Map<String, Object>> result = availabilityService.availabilityForMonth(february);
 
@@ -180,14 +184,34 @@ class AvailabilityServiceTest {
         @DisplayName("Debe manejar año bisiesto")
         void shouldHandleLeapYear() {
             LocalDate february = LocalDate.of(2024, 2, 1);
-            when(availabilityRuleRepository.findByDay(any())).thenReturn(Optional.empty());
-            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(availabilityRuleRepository.findByDayBetween(any(), any())).thenReturn(List.of());
+            when(reservationRepository.totalPeopleByDateBetween(any(), any())).thenReturn(List.of());
 
             List<Map<String, Object>> result = availabilityService.availabilityForMonth(february);
 
             // 2024 es bisiesto
             assertThat(result).hasSize(29);
         }
+
+        @Test
+        @DisplayName("Debe usar la regla del día si existe y la capacidad por defecto en el resto")
+        void shouldCombineRulesAndDefaultCapacity() {
+            LocalDate september = LocalDate.of(2025, 9, 1);
+            AvailabilityRule rule = new AvailabilityRule();
+            rule.setDay(LocalDate.of(2025, 9, 2));
+            rule.setCapacity(50);
+            when(availabilityRuleRepository.findByDayBetween(september, LocalDate.of(2025, 9, 30)))
+                    .thenReturn(List.of(rule));
+            when(reservationRepository.totalPeopleByDateBetween(september, LocalDate.of(2025, 9, 30)))
+                    .thenReturn(List.of(new DailyPeopleDTO(LocalDate.of(2025, 9, 2), 45)));
+
+            List<Map<String, Object>> result = availabilityService.availabilityForMonth(september);
+
+            assertThat(result.get(0)).containsEntry("totalCapacity", 30).containsEntry("remainingCapacity", 30);
+            assertThat(result.get(1)).containsEntry("totalCapacity", 50).containsEntry("remainingCapacity", 5);
+            verify(availabilityRuleRepository, never()).findByDay(any());
+            verify(reservationRepository, never()).totalPeopleForDate(any());
+        }
     }
 
     @Nested
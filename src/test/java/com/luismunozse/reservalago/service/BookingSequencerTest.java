@@ -0,0 +1,192 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.VisitorType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingSequencerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 1);
+
+    private SimpleMeterRegistry registry;
+    private BookingSequencer sequencer;
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        sequencer = new BookingSequencer(registry);
+        ReflectionTestUtils.setField(sequencer, "batchSize", 3);
+    }
+
+    @Test
+    @DisplayName("Agrupa lo que se encola mientras corre un lote y responde a cada uno con su resultado")
+    void batchesQueuedBookings() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<UUID> first = submitAsync(executor, "1");
+            awaitBatches(1);
+            List<CompletableFuture<UUID>> queued = new ArrayList<>();
+            for (String dni : List.of("2", "3", "4", "5")) {
+                queued.add(submitAsync(executor, dni));
+            }
+            awaitGauge("reservalago.booking.sequencer.queued", 4);
+
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(idFor("1"));
+            for (int i = 0; i < queued.size(); i++) {
+                assertThat(queued.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(idFor(String.valueOf(i + 2)));
+            }
+        }
+        assertThat(batches).containsExactly(List.of("1"), List.of("2", "3", "4"), List.of("5"));
+        assertThat(registry.get("reservalago.booking.sequencer.batch").summary().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Un rechazo del lote le llega solo a esa reserva, con la misma excepción")
+    void failsOnlyTheRejectedBooking() {
+        release.countDown();
+        ResponseStatusException noRoom = new ResponseStatusException(HttpStatus.CONFLICT, "No hay cupo");
+        Function<List<BookingSequencer.Command>, List<BookingSequencer.Outcome>> rejectFirst =
+                commands -> commands.stream().map(c -> c.request().dni().equals("1")
+                        ? BookingSequencer.Outcome.failed(noRoom)
+                        : BookingSequencer.Outcome.created(idFor(c.request().dni()))).toList();
+
+        assertThatThrownBy(() -> sequencer.submit(command("1"), rejectFirst)).isSameAs(noRoom);
+        assertThat(sequencer.submit(command("2"), rejectFirst)).isEqualTo(idFor("2"));
+    }
+
+    @Test
+    @DisplayName("Si vence la espera antes de entrar a un lote, se descarta con 503 y no se crea")
+    void abandonsOnTimeout() throws Exception {
+        ReflectionTestUtils.setField(sequencer, "timeout", Duration.ofMillis(200));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<UUID> first = submitAsync(executor, "1");
+            awaitBatches(1);
+
+            assertThatThrownBy(() -> sequencer.submit(command("2"), this::handle))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .satisfies(ex -> assertThat(((ResponseStatusException) ex).getStatusCode())
+                            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+            // La primera ya estaba en proceso: espera a que el lote termine
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(idFor("1"));
+            assertThat(sequencer.submit(command("3"), this::handle)).isEqualTo(idFor("3"));
+        }
+        assertThat(batches).containsExactly(List.of("1"), List.of("3"));
+        assertThat(registry.get("reservalago.booking.sequencer.rejected").tag("reason", "timeout")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Con la cola de la fecha llena rechaza con 503 sin esperar")
+    void rejectsWhenQueueIsFull() throws Exception {
+        ReflectionTestUtils.setField(sequencer, "queueCapacity", 1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<UUID> first = submitAsync(executor, "1");
+            awaitBatches(1);
+            CompletableFuture<UUID> second = submitAsync(executor, "2");
+            awaitGauge("reservalago.booking.sequencer.queued", 1);
+
+            assertThatThrownBy(() -> sequencer.submit(command("3"), this::handle))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("muchas reservas");
+            // Otra fecha tiene su propia cola y su propio lote en curso
+            CompletableFuture<UUID> otherDate = CompletableFuture.supplyAsync(
+                    () -> sequencer.submit(command("4", DAY.plusDays(1)), this::handle), executor);
+            awaitBatches(2);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(idFor("1"));
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(idFor("2"));
+            assertThat(otherDate.get(5, TimeUnit.SECONDS)).isEqualTo(idFor("4"));
+        }
+        assertThat(registry.get("reservalago.booking.sequencer.rejected").tag("reason", "queue_full")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("La cola de una fecha se retira al quedar inactiva y se vuelve a crear con la próxima reserva")
+    void retiresIdleLanes() throws Exception {
+        ReflectionTestUtils.setField(sequencer, "idle", Duration.ofMillis(50));
+        release.countDown();
+
+        assertThat(sequencer.submit(command("1"), this::handle)).isEqualTo(idFor("1"));
+        awaitGauge("reservalago.booking.sequencer.lanes", 0);
+
+        assertThat(sequencer.submit(command("2"), this::handle)).isEqualTo(idFor("2"));
+    }
+
+    private List<BookingSequencer.Outcome> handle(List<BookingSequencer.Command> commands) {
+        List<String> dnis = commands.stream().map(c -> c.request().dni()).toList();
+        batches.add(dnis);
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return dnis.stream().map(dni -> BookingSequencer.Outcome.created(idFor(dni))).toList();
+    }
+
+    private CompletableFuture<UUID> submitAsync(ExecutorService executor, String dni) {
+        return CompletableFuture.supplyAsync(() -> sequencer.submit(command(dni), this::handle), executor);
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(batches).hasSize(count);
+    }
+
+    private void awaitGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get(name).gauge().value() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(registry.get(name).gauge().value()).isEqualTo(expected);
+    }
+
+    private static UUID idFor(String dni) {
+        return UUID.nameUUIDFromBytes(dni.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BookingSequencer.Command command(String dni) {
+        return command(dni, DAY);
+    }
+
+    private static BookingSequencer.Command command(String dni, LocalDate date) {
+        return new BookingSequencer.Command(new CreateReservationRequest(
+                date, "Ana", "Gomez", dni, "1155667788", "ana@test.com", null,
+                Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                1, 0, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true, List.of()), null);
+    }
+}
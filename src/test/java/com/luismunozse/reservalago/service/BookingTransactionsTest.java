@@ -0,0 +1,88 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.repo.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingTransactionsTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2030, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2030, 3, 2);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingTransactions bookingTransactions;
+
+    @BeforeEach
+    void setUp() {
+        bookingTransactions = new BookingTransactions(reservationRepository, transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("SERIALIZABLE: transacción serializable y sin locks por fecha")
+    void serializableByDefault() {
+        String result = bookingTransactions.execute(List.of(DAY_1), () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(isolation()).isEqualTo(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        verify(reservationRepository, never()).lockVisitDate(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("ADVISORY_LOCK: READ COMMITTED y un lock por fecha, en orden ascendente")
+    void locksEachDateInOrder() {
+        ReflectionTestUtils.setField(bookingTransactions, "concurrency", BookingConcurrency.ADVISORY_LOCK);
+
+        bookingTransactions.execute(List.of(DAY_2, DAY_1, DAY_2), () -> null);
+
+        assertThat(isolation()).isEqualTo(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        InOrder inOrder = inOrder(reservationRepository);
+        inOrder.verify(reservationRepository).lockVisitDate(DAY_1);
+        inOrder.verify(reservationRepository).lockVisitDate(DAY_2);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("Una excepción del trabajo revierte la transacción y se propaga sin envolver")
+    void rollsBackOnException() {
+        ReflectionTestUtils.setField(bookingTransactions, "concurrency", BookingConcurrency.ADVISORY_LOCK);
+        IllegalStateException failure = new IllegalStateException("sin cupo");
+
+        assertThatThrownBy(() -> bookingTransactions.execute(List.of(DAY_1), () -> {
+            throw failure;
+        })).isSameAs(failure);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private int isolation() {
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        return definition.getValue().getIsolationLevel();
+    }
+}
@@ -0,0 +1,183 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.dto.ExportFormat;
+import com.luismunozse.reservalago.dto.ExportJobDTO;
+import com.luismunozse.reservalago.dto.ExportReservationsFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ReservationService reservationService;
+    private ExportJobService service;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reservationService = mock(ReservationService.class);
+        service = new ExportJobService(reservationService);
+        ReflectionTestUtils.setField(service, "directory", directory);
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        service.stop();
+    }
+
+    private static ExportReservationsFilter filter(int year) {
+        ExportReservationsFilter filter = new ExportReservationsFilter();
+        filter.setYear(year);
+        return filter;
+    }
+
+    /** La exportación escribe dos filas y, si se pide, espera a que el test la libere. */
+    private void stubStream(boolean block) throws Exception {
+        when(reservationService.streamExport(any(), any(), anyBoolean(), any(), any())).thenAnswer(inv -> {
+            if (block) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            OutputStream out = inv.getArgument(3);
+            LongConsumer progress = inv.getArgument(4);
+            out.write("a\nb\n".getBytes(StandardCharsets.UTF_8));
+            progress.accept(2);
+            return 2L;
+        });
+    }
+
+    private ExportJobDTO awaitFinished(UUID id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            ExportJobDTO job = service.status(id);
+            if (job.status() == ExportJobDTO.Status.DONE || job.status() == ExportJobDTO.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("La exportación no terminó");
+    }
+
+    @Nested
+    @DisplayName("submit()")
+    class Submit {
+
+        @Test
+        @DisplayName("Genera el archivo y reporta las filas escritas")
+        void shouldGenerateFile() throws Exception {
+            stubStream(false);
+
+            ExportJobDTO job = service.submit(filter(2025), ExportFormat.CSV);
+            ExportJobDTO finished = awaitFinished(job.id());
+
+            assertThat(finished.status()).isEqualTo(ExportJobDTO.Status.DONE);
+            assertThat(finished.processedRows()).isEqualTo(2);
+            assertThat(finished.expiresAt()).isAfter(finished.finishedAt());
+            ExportJobService.Artifact artifact = service.artifact(job.id());
+            assertThat(artifact.path()).hasFileName(job.id() + ".csv");
+            assertThat(Files.readString(artifact.path())).isEqualTo("a\nb\n");
+            verify(reservationService).streamExport(eq(filter(2025)), eq(ExportFormat.CSV), eq(false), any(), any());
+        }
+
+        @Test
+        @DisplayName("Un pedido idéntico mientras el primero está en curso reutiliza el trabajo")
+        void shouldDeduplicateConcurrentRequests() throws Exception {
+            stubStream(true);
+
+            ExportJobDTO first = service.submit(filter(2025), ExportFormat.CSV);
+            ExportJobDTO second = service.submit(filter(2025), ExportFormat.CSV);
+            ExportJobDTO otherFormat = service.submit(filter(2025), ExportFormat.NDJSON);
+
+            assertThat(second.id()).isEqualTo(first.id());
+            assertThat(otherFormat.id()).isNotEqualTo(first.id());
+        }
+
+        @Test
+        @DisplayName("Rechaza con 503 cuando la cola está llena")
+        void shouldRejectWhenQueueIsFull() throws Exception {
+            stubStream(true);
+            service.submit(filter(2023), ExportFormat.CSV);  // worker
+            service.submit(filter(2024), ExportFormat.CSV);  // cola
+
+            assertThatThrownBy(() -> service.submit(filter(2025), ExportFormat.CSV))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("503");
+        }
+
+        @Test
+        @DisplayName("Informa el motivo si la exportación falla")
+        void shouldReportFailure() throws Exception {
+            when(reservationService.exportExcel(any(), any(), any(), any(), any(), any(), any(), eq(false)))
+                    .thenThrow(new ResponseStatusException(org.springframework.http.HttpStatus.BAD_REQUEST,
+                            "Demasiados registros"));
+
+            ExportJobDTO finished = awaitFinished(service.submit(filter(2025), ExportFormat.XLSX).id());
+
+            assertThat(finished.status()).isEqualTo(ExportJobDTO.Status.FAILED);
+            assertThat(finished.error()).isEqualTo("Demasiados registros");
+            try (var files = Files.list(directory)) {
+                assertThat(files).isEmpty();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("artifact() y purgeExpired()")
+    class ArtifactAndCleanup {
+
+        @Test
+        @DisplayName("Responde 409 mientras el trabajo no terminó")
+        void shouldRejectDownloadWhileRunning() throws Exception {
+            stubStream(true);
+            UUID id = service.submit(filter(2025), ExportFormat.CSV).id();
+
+            assertThatThrownBy(() -> service.artifact(id))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("409");
+        }
+
+        @Test
+        @DisplayName("Al vencer el TTL borra el trabajo y su archivo")
+        void shouldPurgeExpiredJobs() throws Exception {
+            stubStream(false);
+            UUID id = service.submit(filter(2025), ExportFormat.CSV).id();
+            awaitFinished(id);
+            Path file = service.artifact(id).path();
+
+            ReflectionTestUtils.setField(service, "ttl", Duration.ofMillis(-1));
+            service.purgeExpired();
+
+            assertThat(file).doesNotExist();
+            assertThatThrownBy(() -> service.status(id))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("404");
+        }
+    }
+}
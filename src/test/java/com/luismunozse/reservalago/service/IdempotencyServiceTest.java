@@ -0,0 +1,147 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.model.*;
+import com.luismunozse.reservalago.repo.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository keyRepository;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private CreateReservationRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new CreateReservationRequest(
+                LocalDate.now().plusDays(7),
+                "Juan", "Perez", "12345678", "1155667788", "juan@test.com", null,
+                Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                2, 1, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true, List.of()
+        );
+    }
+
+    @Nested
+    @DisplayName("findReplay()")
+    class FindReplay {
+
+        @Test
+        @DisplayName("Debe retornar vacío si la clave no existe")
+        void shouldReturnEmptyWhenUnknown() {
+            when(keyRepository.findById("k1")).thenReturn(Optional.empty());
+
+            assertThat(idempotencyService.findReplay("k1", request)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Debe retornar la reserva original y cachearla")
+        void shouldReturnOriginalAndCache() {
+            UUID id = UUID.randomUUID();
+            IdempotencyKey stored = new IdempotencyKey();
+            stored.setKey("k1");
+            stored.setRequestHash(IdempotencyService.hash(request));
+            stored.setReservationId(id);
+            stored.setExpiresAt(Instant.now().plusSeconds(3600));
+            when(keyRepository.findById("k1")).thenReturn(Optional.of(stored));
+
+            assertThat(idempotencyService.findReplay("k1", request)).contains(id);
+            assertThat(idempotencyService.findReplay("k1", request)).contains(id);
+
+            verify(keyRepository, times(1)).findById("k1");
+        }
+
+        @Test
+        @DisplayName("Debe ignorar claves vencidas")
+        void shouldIgnoreExpiredKeys() {
+            IdempotencyKey stored = new IdempotencyKey();
+            stored.setKey("k1");
+            stored.setRequestHash(IdempotencyService.hash(request));
+            stored.setReservationId(UUID.randomUUID());
+            stored.setExpiresAt(Instant.now().minusSeconds(1));
+            when(keyRepository.findById("k1")).thenReturn(Optional.of(stored));
+
+            assertThat(idempotencyService.findReplay("k1", request)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Debe rechazar la clave reutilizada con otra solicitud")
+        void shouldRejectKeyReusedWithDifferentBody() {
+            when(keyRepository.insertIfAbsent(any(), any(), any(), any(), any())).thenReturn(1);
+            idempotencyService.register("k1", request, UUID.randomUUID());
+
+            var other = new CreateReservationRequest(
+                    LocalDate.now().plusDays(8),
+                    "Juan", "Perez", "12345678", "1155667788", "juan@test.com", null,
+                    Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                    2, 1, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true, List.of()
+            );
+
+            assertThatThrownBy(() -> idempotencyService.findReplay("k1", other))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("otra solicitud");
+        }
+
+        @Test
+        @DisplayName("Debe rechazar claves demasiado largas")
+        void shouldRejectTooLongKey() {
+            String key = "x".repeat(IdempotencyService.MAX_KEY_LENGTH + 1);
+
+            assertThatThrownBy(() -> idempotencyService.findReplay(key, request))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("Idempotency-Key inválida");
+        }
+    }
+
+    @Nested
+    @DisplayName("register()")
+    class Register {
+
+        @Test
+        @DisplayName("Debe registrar la clave y servir reintentos desde el caché")
+        void shouldRegisterAndServeFromCache() {
+            UUID id = UUID.randomUUID();
+            when(keyRepository.insertIfAbsent(eq("k1"), anyString(), eq(id), any(), any())).thenReturn(1);
+
+            idempotencyService.register("k1", request, id);
+
+            assertThat(idempotencyService.findReplay("k1", request)).contains(id);
+            verify(keyRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Debe responder 409 si otra solicitud ya registró la clave")
+        void shouldRejectWhenAlreadyRegistered() {
+            when(keyRepository.insertIfAbsent(any(), any(), any(), any(), any())).thenReturn(0);
+
+            assertThatThrownBy(() -> idempotencyService.register("k1", request, UUID.randomUUID()))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("Idempotency-Key");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.ImportReservationsResponse;
+import com.luismunozse.reservalago.dto.ImportRowResult;
+import com.luismunozse.reservalago.model.VisitorType;
+import jakarta.validation.Validation;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ReservationImportServiceTest {
+
+    private static final String HEADER =
+            "Fecha;Institución;Circuito;Responsable nombre;Responsable apellido;Responsable DNI;Teléfono;Email;Nombre;Apellido;DNI;Tipo";
+
+    private ReservationService reservationService;
+    private ReservationImportService importService;
+    private LocalDate visitDate;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(ReservationService.class);
+        importService = new ReservationImportService(new ReservationSpreadsheetReader(), reservationService,
+                new ReservationMapper(), Validation.buildDefaultValidatorFactory().getValidator());
+        visitDate = LocalDate.now().plusDays(15);
+    }
+
+    private String row(String responsibleDni, String name, String dni, String type) {
+        return String.join(";", visitDate.toString(), "Escuela N°1", "A", "Marta", "Lopez", responsibleDni,
+                "1155667788", "escuela@test.com", name, "Perez", dni, type);
+    }
+
+    private MockMultipartFile csv(String... lines) {
+        String content = HEADER + "\n" + String.join("\n", lines) + "\n";
+        return new MockMultipartFile("file", "escuela.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<CreateReservationRequest>> requestsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    @Nested
+    @DisplayName("CSV")
+    class Csv {
+
+        @Test
+        @DisplayName("Agrupa las filas por fecha y responsable en una reserva educativa")
+        void shouldGroupRowsIntoReservations() {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            when(reservationService.importReservations(anyList())).thenReturn(List.of(
+                    new ReservationService.ImportOutcome(first, null),
+                    new ReservationService.ImportOutcome(second, null)));
+
+            ImportReservationsResponse response = importService.importFile(csv(
+                    row("20.000.001", "Docente", "20000001", "DOCENTE"),
+                    row("20.000.001", "Ana", "40000001", "ALUMNO"),
+                    row("20.000.001", "Beto", "40000002", ""),
+                    row("20000009", "Carla", "40000003", "ALUMNO")));
+
+            ArgumentCaptor<List<CreateReservationRequest>> captor = requestsCaptor();
+            verify(reservationService).importReservations(captor.capture());
+            List<CreateReservationRequest> requests = captor.getValue();
+            assertThat(requests).hasSize(2);
+            CreateReservationRequest school = requests.get(0);
+            assertThat(school.dni()).isEqualTo("20000001");
+            assertThat(school.visitorType()).isEqualTo(VisitorType.EDUCATIONAL_INSTITUTION);
+            assertThat(school.adults18Plus()).isEqualTo(1);
+            assertThat(school.children2To17()).isEqualTo(2);
+            assertThat(school.institutionStudents()).isEqualTo(2);
+            assertThat(school.visitors()).hasSize(3);
+
+            assertThat(response.rows()).isEqualTo(4);
+            assertThat(response.reservationsCreated()).isEqualTo(2);
+            assertThat(response.rowsRejected()).isZero();
+            assertThat(response.results()).extracting(ImportRowResult::reservationId)
+                    .containsExactly(first, first, first, second);
+        }
+
+        @Test
+        @DisplayName("Informa las filas inválidas sin detener el resto")
+        void shouldReportInvalidRows() {
+            when(reservationService.importReservations(anyList()))
+                    .thenReturn(List.of(new ReservationService.ImportOutcome(UUID.randomUUID(), null)));
+
+            ImportReservationsResponse response = importService.importFile(csv(
+                    row("20000001", "Ana", "40000001", "ALUMNO"),
+                    row("20000001", "Beto", "123", "ALUMNO"),
+                    row("20000001", "Ana", "40000001", "ALUMNO"),
+                    row("20000001", "Dario", "40000004", "PADRE")));
+
+            assertThat(response.reservationsCreated()).isEqualTo(1);
+            assertThat(response.rowsRejected()).isEqualTo(3);
+            assertThat(response.results()).extracting(ImportRowResult::row).containsExactly(2, 3, 4, 5);
+            assertThat(response.results().get(1).error()).contains("8 digitos");
+            assertThat(response.results().get(2).error()).contains("repetido");
+            assertThat(response.results().get(3).error()).contains("tipo inválido");
+        }
+
+        @Test
+        @DisplayName("Reporta el rechazo del servicio en todas las filas del grupo")
+        void shouldPropagateServiceRejection() {
+            when(reservationService.importReservations(anyList()))
+                    .thenReturn(List.of(new ReservationService.ImportOutcome(null, "No hay cupo disponible")));
+
+            ImportReservationsResponse response = importService.importFile(csv(
+                    row("20000001", "Ana", "40000001", "ALUMNO"),
+                    row("20000001", "Beto", "40000002", "ALUMNO")));
+
+            assertThat(response.reservationsCreated()).isZero();
+            assertThat(response.results()).extracting(ImportRowResult::error)
+                    .containsOnly("No hay cupo disponible");
+        }
+
+        @Test
+        @DisplayName("Rechaza el archivo si faltan columnas obligatorias")
+        void shouldRejectMissingColumns() {
+            MockMultipartFile file = new MockMultipartFile("file", "escuela.csv", "text/csv",
+                    "fecha,nombre,apellido\n2025-10-01,Ana,Perez\n".getBytes(StandardCharsets.UTF_8));
+
+            assertThatThrownBy(() -> importService.importFile(file))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("responsable_dni");
+            verifyNoInteractions(reservationService);
+        }
+    }
+
+    @Nested
+    @DisplayName("XLSX")
+    class Xlsx {
+
+        @Test
+        @DisplayName("Lee la primera hoja con fechas y DNI numéricos")
+        void shouldReadWorkbook() throws IOException {
+            when(reservationService.importReservations(anyList()))
+                    .thenReturn(List.of(new ReservationService.ImportOutcome(UUID.randomUUID(), null)));
+
+            ImportReservationsResponse response = importService.importFile(new MockMultipartFile(
+                    "file", "escuela.xlsx", null, workbook()));
+
+            ArgumentCaptor<List<CreateReservationRequest>> captor = requestsCaptor();
+            verify(reservationService).importReservations(captor.capture());
+            CreateReservationRequest request = captor.getValue().get(0);
+            assertThat(request.visitDate()).isEqualTo(visitDate);
+            assertThat(request.dni()).isEqualTo("20000001");
+            assertThat(request.visitors()).extracting(v -> v.dni()).containsExactly("40000001", "40000002");
+            assertThat(response.rowsRejected()).isZero();
+        }
+
+        private byte[] workbook() throws IOException {
+            try (XSSFWorkbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                Sheet sheet = wb.createSheet("Alumnos");
+                CellStyle dateStyle = wb.createCellStyle();
+                dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+
+                String[] headers = HEADER.split(";");
+                Row header = sheet.createRow(0);
+                for (int i = 0; i < headers.length; i++) {
+                    header.createCell(i).setCellValue(headers[i]);
+                }
+                for (int r = 1; r <= 2; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue(visitDate);
+                    row.getCell(0).setCellStyle(dateStyle);
+                    row.createCell(1).setCellValue("Escuela N°1");
+                    row.createCell(2).setCellValue("B");
+                    row.createCell(3).setCellValue("Marta");
+                    row.createCell(4).setCellValue("Lopez");
+                    row.createCell(5).setCellValue(20000001);
+                    row.createCell(6).setCellValue("1155667788");
+                    row.createCell(7).setCellValue("escuela@test.com");
+                    row.createCell(8).setCellValue("Alumno " + r);
+                    row.createCell(9).setCellValue("Perez");
+                    row.createCell(10).setCellValue(40000000 + r);
+                }
+                wb.write(out);
+                return out.toByteArray();
+            }
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package com.luismunozse.reservalago.service;
 
+import com.luismunozse.reservalago.config.CacheInvalidation;
+import com.luismunozse.reservalago.config.CacheInvalidationBus;
+import com.luismunozse.reservalago.dto.AdminReservationDTO;
+import com.luismunozse.reservalago.dto.BulkReservationRequest;
+import com.luismunozse.reservalago.dto.BulkReservationResponse;
+import com.luismunozse.reservalago.dto.BulkReservationResult;
 import com.luismunozse.reservalago.dto.CreateReservationRequest;
+import com.luismunozse.reservalago.dto.PageCountMode;
+import com.luismunozse.reservalago.dto.ReservationContactDTO;
+import com.luismunozse.reservalago.dto.ReservationKeyDTO;
+import com.luismunozse.reservalago.dto.ReservationSummaryDTO;
 import com.luismunozse.reservalago.dto.VisitorDTO;
 import com.luismunozse.reservalago.model.*;
+import com.luismunozse.reservalago.repo.ReservationAdminListRepository;
+import com.luismunozse.reservalago.repo.ReservationFilterSql;
 import com.luismunozse.reservalago.repo.ReservationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,16 +25,26 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -47,6 +69,24 @@ class ReservationServiceTest {
     @Mock
     private WhatsAppService whatsAppService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private ReservationMetrics reservationMetrics;
+
+    @Mock
+    private ReservationAdminListRepository reservationAdminListRepository;
+
+    @Mock
+    private BookingTransactions bookingTransactions;
+
+    @Mock
+    private BookingSequencer bookingSequencer;
+
+    @Mock
+    private CacheInvalidationBus cacheInvalidation;
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -81,6 +121,10 @@ class ReservationServiceTest {
         mockReservation = new Reservation();
         mockReservation.setId(UUID.randomUUID());
         mockReservation.setStatus(ReservationStatus.PENDING);
+
+        // Sin base: el trabajo corre directamente, sin transacción ni locks
+        lenient().when(bookingTransactions.execute(any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
     }
 
     @Nested
@@ -131,6 +175,7 @@ class ReservationServiceTest {
             assertThatThrownBy(() -> reservationService.create(validRequest))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasMessageContaining("No hay cupo");
+            verify(reservationMetrics).bookingRejected(ReservationMetrics.REJECTED_CAPACITY);
         }
 
         @Test
@@ -146,6 +191,7 @@ class ReservationServiceTest {
             assertThatThrownBy(() -> reservationService.create(validRequest))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasMessageContaining("Ya existe una visita");
+            verify(reservationMetrics).bookingRejected(ReservationMetrics.REJECTED_DUPLICATE);
         }
     }
 
@@ -232,8 +278,164 @@ class ReservationServiceTest {
             UUID result = reservationService.create(validRequest);
 
             assertThat(result).isEqualTo(mockReservation.getId());
-            verify(reservationRepository).save(mockReservation);
+            verify(reservationRepository).saveAndFlush(mockReservation);
             verify(whatsAppService).sendAdminNotification(mockReservation);
+            verify(reservationMetrics).bookingCreated(mockReservation.getVisitorType());
+            verifyNoInteractions(idempotencyService);
+        }
+
+        @Test
+        @DisplayName("Debe registrar la Idempotency-Key después de insertar la reserva")
+        void shouldRegisterIdempotencyKey() {
+            when(reservationMapper.normalizeDni("12345678")).thenReturn("12345678");
+            when(availabilityService.capacityFor(any())).thenReturn(30);
+            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(reservationRepository.existsByVisitDateAndDniAndStatusNot(any(), any(), any()))
+                    .thenReturn(false);
+            when(reservationMapper.fromCreateRequest(any(), eq("12345678")))
+                    .thenReturn(mockReservation);
+
+            UUID result = reservationService.create(validRequest, "retry-key-1");
+
+            assertThat(result).isEqualTo(mockReservation.getId());
+            // La clave referencia a la reserva: la reserva debe estar insertada antes
+            var inOrder = inOrder(reservationRepository, idempotencyService);
+            inOrder.verify(reservationRepository).saveAndFlush(mockReservation);
+            inOrder.verify(idempotencyService).register("retry-key-1", validRequest, mockReservation.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("create() - Modo SEQUENCER")
+    class CreateSequenced {
+
+        private CreateReservationRequest person(String dni, int adults) {
+            return new CreateReservationRequest(
+                    LocalDate.now().plusDays(7), "Ana", "Gomez", dni, "1155667788", "ana@test.com", null,
+                    Circuit.A, VisitorType.INDIVIDUAL, null, null,
+                    adults, 0, 0, 0, null, "Buenos Aires", HowHeard.SOCIAL, true, List.of());
+        }
+
+        private Reservation reservationFor(CreateReservationRequest req) {
+            Reservation r = new Reservation();
+            r.setId(UUID.randomUUID());
+            r.setVisitorType(VisitorType.INDIVIDUAL);
+            lenient().when(reservationMapper.fromCreateRequest(eq(req), any())).thenReturn(r);
+            return r;
+        }
+
+        /** El lote que el secuenciador le pasa al servicio, tomado de un alta real. */
+        @SuppressWarnings("unchecked")
+        private Function<List<BookingSequencer.Command>, List<BookingSequencer.Outcome>> batchHandler() {
+            UUID id = UUID.randomUUID();
+            when(bookingTransactions.concurrency()).thenReturn(BookingConcurrency.SEQUENCER);
+            when(bookingSequencer.submit(any(), any())).thenReturn(id);
+
+            assertThat(reservationService.create(validRequest, "key-1")).isEqualTo(id);
+
+            ArgumentCaptor<BookingSequencer.Command> command = ArgumentCaptor.forClass(BookingSequencer.Command.class);
+            ArgumentCaptor<Function<List<BookingSequencer.Command>, List<BookingSequencer.Outcome>>> handler =
+                    ArgumentCaptor.forClass(Function.class);
+            verify(bookingSequencer).submit(command.capture(), handler.capture());
+            assertThat(command.getValue()).isEqualTo(new BookingSequencer.Command(validRequest, "key-1"));
+            return handler.getValue();
+        }
+
+        @BeforeEach
+        void setUpMapper() {
+            lenient().when(reservationMapper.normalizeDni(any())).thenAnswer(inv -> inv.getArgument(0));
+        }
+
+        @Test
+        @DisplayName("Encola el alta en el secuenciador sin abrir una transacción propia")
+        void shouldSubmitToSequencer() {
+            batchHandler();
+
+            verify(bookingTransactions, never()).execute(any(), any());
+            verifyNoInteractions(reservationRepository);
+        }
+
+        @Test
+        @DisplayName("Lee cupo y duplicados una vez por lote y los descuenta en memoria")
+        void shouldCountCapacityInMemory() {
+            var handler = batchHandler();
+            CreateReservationRequest first = person("30000001", 3);
+            CreateReservationRequest noRoom = person("30000002", 3);
+            CreateReservationRequest repeated = person("30000001", 1);
+            CreateReservationRequest last = person("30000003", 2);
+            Reservation r1 = reservationFor(first);
+            Reservation r4 = reservationFor(last);
+            when(availabilityService.capacityFor(any())).thenReturn(5);
+            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(reservationRepository.findKeysByVisitDateInAndDniIn(any(), any())).thenReturn(List.of());
+
+            List<BookingSequencer.Outcome> outcomes = handler.apply(List.of(
+                    new BookingSequencer.Command(first, null),
+                    new BookingSequencer.Command(noRoom, null),
+                    new BookingSequencer.Command(repeated, null),
+                    new BookingSequencer.Command(last, "key-4")));
+
+            assertThat(outcomes.get(0).id()).isEqualTo(r1.getId());
+            assertThat(outcomes.get(1).error()).hasMessageContaining("No hay cupo");
+            assertThat(outcomes.get(2).error()).hasMessageContaining("Ya existe una visita");
+            assertThat(outcomes.get(3).id()).isEqualTo(r4.getId());
+            verify(bookingTransactions).execute(eq(List.of(first.visitDate())), any());
+            verify(reservationRepository).totalPeopleForDate(any());
+            verify(reservationRepository).saveAll(List.of(r1, r4));
+            verify(idempotencyService).register("key-4", last, r4.getId());
+            verify(whatsAppService, times(2)).sendAdminNotification(any());
+        }
+
+        @Test
+        @DisplayName("Si el lote choca con el índice único se revierte y se crea de a una")
+        void shouldFallBackToSingleBookings() {
+            var handler = batchHandler();
+            CreateReservationRequest first = person("30000001", 1);
+            CreateReservationRequest second = person("30000002", 1);
+            Reservation r1 = reservationFor(first);
+            Reservation r2 = reservationFor(second);
+            when(availabilityService.capacityFor(any())).thenReturn(10);
+            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(reservationRepository.findKeysByVisitDateInAndDniIn(any(), any())).thenReturn(List.of());
+            doThrow(new DataIntegrityViolationException("ux_reservations_date_dni"))
+                    .when(reservationRepository).flush();
+            when(reservationRepository.existsByVisitDateAndDniAndStatusNot(any(), eq("30000001"), any()))
+                    .thenReturn(true);
+
+            List<BookingSequencer.Outcome> outcomes = handler.apply(List.of(
+                    new BookingSequencer.Command(first, null),
+                    new BookingSequencer.Command(second, null)));
+
+            assertThat(outcomes.get(0).error()).hasMessageContaining("Ya existe una visita");
+            assertThat(outcomes.get(1).id()).isEqualTo(r2.getId());
+            verify(reservationRepository).saveAndFlush(r2);
+            verify(reservationRepository, never()).saveAndFlush(r1);
+        }
+
+        @Test
+        @DisplayName("Si el lote se revierte, los rechazos por cupo del lote se reintentan")
+        void shouldRetryCapacityRejectionsAfterRollback() {
+            var handler = batchHandler();
+            CreateReservationRequest first = person("30000001", 3);
+            CreateReservationRequest second = person("30000002", 3);
+            reservationFor(first);
+            Reservation r2 = reservationFor(second);
+            when(availabilityService.capacityFor(any())).thenReturn(5);
+            when(reservationRepository.totalPeopleForDate(any())).thenReturn(0);
+            when(reservationRepository.findKeysByVisitDateInAndDniIn(any(), any())).thenReturn(List.of());
+            doThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency-Key ya usada"))
+                    .when(idempotencyService).register(eq("key-a"), eq(first), any());
+
+            List<BookingSequencer.Outcome> outcomes = handler.apply(List.of(
+                    new BookingSequencer.Command(first, "key-a"),
+                    new BookingSequencer.Command(second, null)));
+
+            // La segunda no entraba solo por el cupo de la primera, que nunca se creó
+            assertThat(outcomes.get(0).error()).hasMessageContaining("Idempotency-Key");
+            assertThat(outcomes.get(1).id()).isEqualTo(r2.getId());
+            verify(reservationRepository).saveAndFlush(r2);
+            verify(reservationMetrics, never()).bookingRejected(ReservationMetrics.REJECTED_CAPACITY);
+            verify(reservationMetrics, times(1)).bookingCreated(any());
         }
     }
 
@@ -242,31 +444,34 @@ class ReservationServiceTest {
     class ConfirmReservation {
 
         @Test
-        @DisplayName("Debe confirmar reserva y enviar notificación")
+        @DisplayName("Debe confirmar reserva con una sola sentencia y enviar notificación")
         void shouldConfirmAndNotify() {
             UUID id = UUID.randomUUID();
-            Reservation reservation = new Reservation();
-            reservation.setId(id);
-            reservation.setStatus(ReservationStatus.PENDING);
+            var contact = new ReservationContactDTO(id, LocalDate.now().plusDays(7), "1155667788",
+                    ReservationStatus.CONFIRMED);
 
-            when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.updateStatusReturningContact(id, ReservationStatus.CONFIRMED))
+                    .thenReturn(Optional.of(contact));
 
             reservationService.confirmReservation(id);
 
-            assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
-            verify(reservationRepository).save(reservation);
-            verify(whatsAppService).sendConfirmation(reservation);
+            verify(reservationRepository, never()).findById(any());
+            verify(reservationRepository, never()).save(any());
+            verify(reservationRepository, never()).saveAndFlush(any());
+            verify(whatsAppService).sendConfirmation(contact);
         }
 
         @Test
         @DisplayName("Debe lanzar excepción si la reserva no existe")
         void shouldThrowWhenNotFound() {
             UUID id = UUID.randomUUID();
-            when(reservationRepository.findById(id)).thenReturn(Optional.empty());
+            when(reservationRepository.updateStatusReturningContact(id, ReservationStatus.CONFIRMED))
+                    .thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> reservationService.confirmReservation(id))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasMessageContaining("no encontrada");
+            verifyNoInteractions(whatsAppService);
         }
     }
 
@@ -275,20 +480,151 @@ class ReservationServiceTest {
     class CancelReservation {
 
         @Test
-        @DisplayName("Debe cancelar reserva y enviar notificación")
+        @DisplayName("Debe cancelar reserva con una sola sentencia y enviar notificación")
         void shouldCancelAndNotify() {
             UUID id = UUID.randomUUID();
-            Reservation reservation = new Reservation();
-            reservation.setId(id);
-            reservation.setStatus(ReservationStatus.CONFIRMED);
+            var contact = new ReservationContactDTO(id, LocalDate.now().plusDays(7), "1155667788",
+                    ReservationStatus.CANCELLED);
 
-            when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.updateStatusReturningContact(id, ReservationStatus.CANCELLED))
+                    .thenReturn(Optional.of(contact));
 
             reservationService.cancelReservation(id);
 
-            assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.CANCELLED);
-            verify(reservationRepository).save(reservation);
-            verify(whatsAppService).sendCancellation(reservation);
+            verify(reservationRepository, never()).save(any());
+            verify(reservationRepository, never()).saveAndFlush(any());
+            verify(whatsAppService).sendCancellation(contact);
+        }
+    }
+
+    @Nested
+    @DisplayName("bulkAction()")
+    class BulkAction {
+
+        @Test
+        @DisplayName("Debe confirmar en una sola sentencia y notificar solo las modificadas")
+        void shouldConfirmInOneStatementAndNotifyChanged() {
+            UUID pending = UUID.randomUUID();
+            UUID alreadyConfirmed = UUID.randomUUID();
+            UUID missing = UUID.randomUUID();
+            LocalDate date = LocalDate.now().plusDays(10);
+            var pendingContact = new ReservationContactDTO(pending, date, "1155667788", ReservationStatus.PENDING);
+            var confirmedContact = new ReservationContactDTO(alreadyConfirmed, date, "1155667799", ReservationStatus.CONFIRMED);
+
+            when(reservationRepository.findContactsByIdIn(any()))
+                    .thenReturn(List.of(pendingContact, confirmedContact));
+            when(reservationRepository.updateStatusByIdIn(any(), eq(ReservationStatus.CONFIRMED), any()))
+                    .thenReturn(1);
+
+            BulkReservationResponse response = reservationService.bulkAction(new BulkReservationRequest(
+                    BulkReservationRequest.Action.CONFIRM, List.of(pending, alreadyConfirmed, missing, pending)));
+
+            assertThat(response.affected()).isEqualTo(1);
+            assertThat(response.results()).extracting(BulkReservationResult::outcome).containsExactly(
+                    BulkReservationResult.Outcome.UPDATED,
+                    BulkReservationResult.Outcome.UNCHANGED,
+                    BulkReservationResult.Outcome.NOT_FOUND);
+            verify(reservationRepository, never()).findById(any());
+            verify(reservationRepository, never()).save(any());
+            verify(reservationRepository, never()).saveAndFlush(any());
+            verify(whatsAppService).sendConfirmations(List.of(pendingContact));
+            verify(cacheInvalidation).publish(CacheInvalidation.all(CacheInvalidation.Type.RESERVATION));
+        }
+
+        @Test
+        @DisplayName("Una cancelada cuya fecha + DNI ya tiene una reserva activa queda en CONFLICT sin frenar a las demás")
+        void shouldReportReactivationConflictsWithoutFailing() {
+            UUID pending = UUID.randomUUID();
+            UUID cancelled = UUID.randomUUID();
+            LocalDate date = LocalDate.now().plusDays(10);
+            var pendingContact = new ReservationContactDTO(pending, date, "1155667788", ReservationStatus.PENDING);
+            var cancelledContact = new ReservationContactDTO(cancelled, date, "1155667799", ReservationStatus.CANCELLED);
+
+            when(reservationRepository.findContactsByIdIn(any()))
+                    .thenReturn(List.of(pendingContact, cancelledContact));
+            when(reservationRepository.findReactivationConflicts(List.of(cancelled))).thenReturn(List.of(cancelled));
+            when(reservationRepository.updateStatusByIdIn(eq(java.util.Set.of(pending)), eq(ReservationStatus.CONFIRMED), any()))
+                    .thenReturn(1);
+
+            BulkReservationResponse response = reservationService.bulkAction(new BulkReservationRequest(
+                    BulkReservationRequest.Action.CONFIRM, List.of(pending, cancelled)));
+
+            assertThat(response.affected()).isEqualTo(1);
+            assertThat(response.results()).extracting(BulkReservationResult::outcome).containsExactly(
+                    BulkReservationResult.Outcome.UPDATED,
+                    BulkReservationResult.Outcome.CONFLICT);
+            verify(whatsAppService).sendConfirmations(List.of(pendingContact));
+        }
+
+        @Test
+        @DisplayName("Debe eliminar solo las reservas existentes sin notificar")
+        void shouldDeleteExistingWithoutNotifying() {
+            UUID existing = UUID.randomUUID();
+            UUID missing = UUID.randomUUID();
+            when(reservationRepository.findContactsByIdIn(any())).thenReturn(List.of(
+                    new ReservationContactDTO(existing, LocalDate.now(), "1155667788", ReservationStatus.PENDING)));
+            when(reservationRepository.deleteByIdIn(java.util.Set.of(existing))).thenReturn(1);
+
+            BulkReservationResponse response = reservationService.bulkAction(new BulkReservationRequest(
+                    BulkReservationRequest.Action.DELETE, List.of(existing, missing)));
+
+            assertThat(response.affected()).isEqualTo(1);
+            assertThat(response.results()).extracting(BulkReservationResult::outcome).containsExactly(
+                    BulkReservationResult.Outcome.DELETED,
+                    BulkReservationResult.Outcome.NOT_FOUND);
+            verifyNoInteractions(whatsAppService);
+        }
+    }
+
+    @Nested
+    @DisplayName("importReservations()")
+    class ImportReservations {
+
+        private CreateReservationRequest group(String dni, int students) {
+            return new CreateReservationRequest(
+                    LocalDate.now().plusDays(7), "Marta", "Lopez", dni, "1155667788", "escuela@test.com", null,
+                    Circuit.A, VisitorType.EDUCATIONAL_INSTITUTION, "Escuela N°1", students,
+                    1, students, 0, 0, null, "Córdoba", HowHeard.OTHER, true, List.of());
+        }
+
+        @BeforeEach
+        void setUpMapper() {
+            when(reservationMapper.normalizeDni(any())).thenAnswer(inv -> inv.getArgument(0));
+        }
+
+        @Test
+        @DisplayName("Consulta cupo y duplicados una sola vez y descuenta el cupo entre reservas")
+        void shouldCheckCapacityOncePerDate() {
+            CreateReservationRequest first = group("20000001", 19);
+            CreateReservationRequest second = group("20000002", 19);
+            when(availabilityService.remainingFor(any())).thenReturn(java.util.Map.of(first.visitDate(), 30));
+            when(reservationRepository.findKeysByVisitDateInAndDniIn(any(), any())).thenReturn(List.of());
+            when(reservationMapper.fromCreateRequest(eq(first), any())).thenReturn(mockReservation);
+
+            List<ReservationService.ImportOutcome> outcomes =
+                    reservationService.importReservations(List.of(first, second));
+
+            assertThat(outcomes.get(0).id()).isEqualTo(mockReservation.getId());
+            assertThat(outcomes.get(1).error()).contains("No hay cupo");
+            verify(availabilityService).remainingFor(any());
+            verify(reservationRepository).saveAll(List.of(mockReservation));
+            verify(reservationMetrics).bookingCreated(any());
+            verify(whatsAppService, never()).sendAdminNotification(any());
+        }
+
+        @Test
+        @DisplayName("Rechaza el DNI que ya tiene reserva en esa fecha")
+        void shouldRejectExistingDni() {
+            CreateReservationRequest req = group("20000001", 10);
+            when(availabilityService.remainingFor(any())).thenReturn(java.util.Map.of(req.visitDate(), 100));
+            when(reservationRepository.findKeysByVisitDateInAndDniIn(any(), any()))
+                    .thenReturn(List.of(new ReservationKeyDTO(req.visitDate(), "20000001")));
+
+            List<ReservationService.ImportOutcome> outcomes = reservationService.importReservations(List.of(req));
+
+            assertThat(outcomes.get(0).id()).isNull();
+            assertThat(outcomes.get(0).error()).contains("Ya existe una visita");
+            verify(reservationMapper, never()).fromCreateRequest(any(), any());
         }
     }
 
@@ -318,4 +654,117 @@ class ReservationServiceTest {
                     .hasMessageContaining("no encontrada");
         }
     }
+
+    @Nested
+    @DisplayName("findSummary()")
+    class FindSummary {
+
+        @Test
+        @DisplayName("Debe usar la proyección sin cargar la entidad")
+        void shouldUseProjection() {
+            UUID id = mockReservation.getId();
+            ReservationSummaryDTO summary = ReservationSummaryDTO.from(mockReservation);
+            when(reservationRepository.findSummaryById(id)).thenReturn(Optional.of(summary));
+
+            assertThat(reservationService.findSummary(id)).isEqualTo(summary);
+            verify(reservationRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Debe lanzar 404 si no existe")
+        void shouldThrowWhenNotFound() {
+            UUID id = UUID.randomUUID();
+            when(reservationRepository.findSummaryById(id)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> reservationService.findSummary(id))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .hasMessageContaining("no encontrada");
+        }
+    }
+
+    @Nested
+    @DisplayName("adminListPaged()")
+    class AdminListPaged {
+
+        private final Pageable pageable = PageRequest.of(2, 20);
+
+        private final AdminReservationDTO row = new AdminReservationDTO(UUID.randomUUID(), LocalDate.now(),
+                "Juan", "Pérez", 2, 0, 0, "juan@example.com", "1122334455", null, "A", "INDIVIDUAL",
+                null, "PENDING", null, "12345678", 0, null, List.of());
+
+        private void stubRows(int rows) {
+            when(reservationAdminListRepository.findPage(any(), any(), eq(40L), anyInt()))
+                    .thenReturn(Collections.nCopies(rows, row));
+        }
+
+        @Test
+        @DisplayName("NONE: pide una fila de más y devuelve un Slice sin contar")
+        void shouldSkipCount() {
+            stubRows(21);
+
+            Slice<?> result = reservationService.adminListPaged(null, null, null, null, pageable, PageCountMode.NONE);
+
+            assertThat(result).isNotInstanceOf(Page.class);
+            assertThat(result.hasNext()).isTrue();
+            assertThat(result.getNumberOfElements()).isEqualTo(20);
+            verify(reservationAdminListRepository).findPage(any(), any(), eq(40L), eq(21));
+            verify(reservationAdminListRepository, never()).count(any());
+            verify(reservationRepository, never()).estimatedCount();
+        }
+
+        @Test
+        @DisplayName("ESTIMATED sin filtros: usa la estadística de la tabla")
+        void shouldUseEstimateWithoutFilters() {
+            stubRows(21);
+            when(reservationRepository.estimatedCount()).thenReturn(Optional.of(5_000L));
+
+            Page<?> result = (Page<?>) reservationService.adminListPaged(
+                    null, null, null, null, pageable, PageCountMode.ESTIMATED);
+
+            assertThat(result.getTotalElements()).isEqualTo(5_000L);
+            verify(reservationAdminListRepository, never()).count(any());
+        }
+
+        @Test
+        @DisplayName("ESTIMATED: el total nunca es menor que las filas ya vistas")
+        void shouldNotEstimateBelowKnownRows() {
+            stubRows(21);
+            when(reservationRepository.estimatedCount()).thenReturn(Optional.of(10L));
+
+            Page<?> result = (Page<?>) reservationService.adminListPaged(
+                    null, null, null, null, pageable, PageCountMode.ESTIMATED);
+
+            // offset 40 + página completa de 20 + al menos una más
+            assertThat(result.getTotalElements()).isEqualTo(61L);
+        }
+
+        @Test
+        @DisplayName("ESTIMATED en la última página: total exacto sin consultar")
+        void shouldComputeTotalOnLastPage() {
+            stubRows(1);
+
+            Page<?> result = (Page<?>) reservationService.adminListPaged(
+                    null, null, null, null, pageable, PageCountMode.ESTIMATED);
+
+            assertThat(result.getTotalElements()).isEqualTo(41L);
+            verify(reservationRepository, never()).estimatedCount();
+        }
+
+        @Test
+        @DisplayName("ESTIMATED con filtros: conteo exacto sobre los mismos filtros")
+        void shouldCountExactlyWithFilters() {
+            LocalDate date = LocalDate.now();
+            stubRows(20);
+            when(reservationAdminListRepository.count(any())).thenReturn(75L);
+
+            Page<?> result = (Page<?>) reservationService.adminListPaged(
+                    date, null, null, null, pageable, PageCountMode.ESTIMATED);
+
+            assertThat(result.getTotalElements()).isEqualTo(75L);
+            ArgumentCaptor<ReservationFilterSql> filter = ArgumentCaptor.forClass(ReservationFilterSql.class);
+            verify(reservationAdminListRepository).findPage(filter.capture(), eq(pageable.getSort()), eq(40L), eq(20));
+            assertThat(filter.getValue().args()).containsExactly(date);
+            verify(reservationRepository, never()).estimatedCount();
+        }
+    }
 }
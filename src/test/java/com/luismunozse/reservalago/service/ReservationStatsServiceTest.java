@@ -0,0 +1,115 @@
+package com.luismunozse.reservalago.service;
+
+import com.luismunozse.reservalago.dto.ReservationStatsDTO;
+import com.luismunozse.reservalago.dto.ReservationStatsRow;
+import com.luismunozse.reservalago.model.Circuit;
+import com.luismunozse.reservalago.model.HowHeard;
+import com.luismunozse.reservalago.model.ReservationStatus;
+import com.luismunozse.reservalago.model.VisitorType;
+import com.luismunozse.reservalago.repo.ReservationStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationStatsServiceTest {
+
+    @Mock
+    private ReservationStatsRepository statsRepository;
+
+    @InjectMocks
+    private ReservationStatsService statsService;
+
+    @Nested
+    @DisplayName("getStats()")
+    class GetStats {
+
+        @Test
+        @DisplayName("Debe agregar por dimensión excluyendo canceladas de los totales")
+        void shouldAggregateExcludingCancelled() {
+            LocalDate from = LocalDate.of(2025, 9, 1);
+            LocalDate to = LocalDate.of(2025, 9, 30);
+            LocalDate day1 = LocalDate.of(2025, 9, 10);
+            LocalDate day2 = LocalDate.of(2025, 9, 11);
+            when(statsRepository.findBetween(from, to)).thenReturn(List.of(
+                    new ReservationStatsRow(day1, Circuit.A, VisitorType.INDIVIDUAL, HowHeard.SOCIAL,
+                            ReservationStatus.CONFIRMED, 3, 9),
+                    new ReservationStatsRow(day1, Circuit.B, VisitorType.EDUCATIONAL_INSTITUTION, HowHeard.WEBSITE,
+                            ReservationStatus.PENDING, 1, 30),
+                    new ReservationStatsRow(day2, Circuit.A, VisitorType.INDIVIDUAL, HowHeard.SOCIAL,
+                            ReservationStatus.CANCELLED, 2, 5)));
+
+            ReservationStatsDTO stats = statsService.getStats(from, to);
+
+            assertThat(stats.total()).isEqualTo(new ReservationStatsDTO.Count(4, 39));
+            assertThat(stats.byStatus().get("CANCELLED")).isEqualTo(new ReservationStatsDTO.Count(2, 5));
+            assertThat(stats.byCircuit().get("A")).isEqualTo(new ReservationStatsDTO.Count(3, 9));
+            assertThat(stats.byCircuit().get("C")).isEqualTo(new ReservationStatsDTO.Count(0, 0));
+            assertThat(stats.byVisitorType().get("EDUCATIONAL_INSTITUTION").people()).isEqualTo(30);
+            assertThat(stats.byHowHeard().get("SOCIAL").reservations()).isEqualTo(3);
+            assertThat(stats.byDay()).containsExactly(new ReservationStatsDTO.DailyCount(day1, 4, 39));
+        }
+
+        @Test
+        @DisplayName("Debe usar el mes de 'from' si no se indica 'to'")
+        void shouldDefaultToMonthOfFrom() {
+            LocalDate from = LocalDate.of(2025, 2, 1);
+            when(statsRepository.findBetween(from, LocalDate.of(2025, 2, 28))).thenReturn(List.of());
+
+            ReservationStatsDTO stats = statsService.getStats(from, null);
+
+            assertThat(stats.to()).isEqualTo(LocalDate.of(2025, 2, 28));
+            assertThat(stats.total()).isEqualTo(new ReservationStatsDTO.Count(0, 0));
+        }
+
+        @Test
+        @DisplayName("Debe rechazar rangos invertidos")
+        void shouldRejectInvertedRange() {
+            assertThatThrownBy(() -> statsService.getStats(LocalDate.of(2025, 9, 30), LocalDate.of(2025, 9, 1)))
+                    .isInstanceOf(ResponseStatusException.class);
+            verifyNoInteractions(statsRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh()")
+    class Refresh {
+
+        @Test
+        @DisplayName("Debe registrar el momento del último refresco, aunque lo haya hecho otra instancia")
+        void shouldTrackRefreshTime() {
+            Instant lastRefresh = Instant.parse("2025-09-15T12:00:00Z");
+            when(statsRepository.lastRefresh()).thenReturn(lastRefresh);
+            when(statsRepository.findBetween(any(), any())).thenReturn(List.of());
+
+            statsService.refresh();
+
+            verify(statsRepository).refresh();
+            assertThat(statsService.getStats(null, null).refreshedAt()).isEqualTo(lastRefresh);
+        }
+
+        @Test
+        @DisplayName("No debe propagar errores del refresco programado")
+        void shouldSwallowRefreshErrors() {
+            doThrow(new RuntimeException("db down")).when(statsRepository).refresh();
+
+            statsService.refresh();
+
+            verify(statsRepository).refresh();
+        }
+    }
+}
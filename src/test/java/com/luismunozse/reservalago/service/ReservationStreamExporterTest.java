@@ -0,0 +1,91 @@
+package com.luismunozse.reservalago.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.luismunozse.reservalago.dto.ExportFormat;
+import com.luismunozse.reservalago.dto.ReservationExportLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReservationStreamExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ReservationStreamExporter exporter;
+    private ReservationExportLine holder;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new ReservationStreamExporter(objectMapper);
+        holder = new ReservationExportLine(
+                UUID.fromString("00000000-0000-0000-0000-000000000001"), ReservationExportLine.ROLE_HOLDER,
+                LocalDate.of(2025, 9, 2), "PENDING", "Luis", "Muñoz", "12345678", "luis@example.com",
+                "1155667788", null, "INDIVIDUAL", "A", "Córdoba, AR", 2, 1, 0, 0,
+                Instant.parse("2025-08-30T12:00:00Z"));
+    }
+
+    private String write(ExportFormat format, ReservationExportLine... lines) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReservationStreamExporter.LineWriter writer = exporter.open(format, out)) {
+            for (ReservationExportLine line : lines) {
+                writer.write(line);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("CSV: encabezado del XLSX y valores con comas entre comillas")
+    void writesCsv() throws Exception {
+        String csv = write(ExportFormat.CSV, holder);
+
+        String[] rows = csv.split("\r\n");
+        assertThat(rows[0]).startsWith("ID,Rol,Fecha de visita,Estado");
+        assertThat(rows[1]).isEqualTo("00000000-0000-0000-0000-000000000001,Titular,2025-09-02,PENDING,"
+                + "Luis,Muñoz,12345678,luis@example.com,1155667788,,INDIVIDUAL,A,\"Córdoba, AR\",2,1,0,0,"
+                + "2025-08-30T12:00:00Z");
+    }
+
+    @Test
+    @DisplayName("CSV: las comillas se duplican")
+    void escapesQuotes() {
+        assertThat(ReservationStreamExporter.escape("Escuela \"N°1\"")).isEqualTo("\"Escuela \"\"N°1\"\"\"");
+        assertThat(ReservationStreamExporter.escape(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("NDJSON: un objeto por línea con fechas ISO")
+    void writesNdjson() throws Exception {
+        String ndjson = write(ExportFormat.NDJSON, holder, holder.masked());
+
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("visitDate").asText()).isEqualTo("2025-09-02");
+        assertThat(first.get("dni").asText()).isEqualTo("12345678");
+        JsonNode masked = objectMapper.readTree(lines[1]);
+        assertThat(masked.get("dni").asText()).isEqualTo("***678");
+        assertThat(masked.get("email").asText()).isEqualTo("***com");
+    }
+
+    @Test
+    @DisplayName("XLSX no se escribe en streaming")
+    void rejectsXlsx() {
+        assertThatThrownBy(() -> exporter.open(ExportFormat.XLSX, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}